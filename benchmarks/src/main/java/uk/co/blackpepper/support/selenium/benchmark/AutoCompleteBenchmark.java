@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.blackpepper.support.selenium.jqueryui.AutoComplete;
+
+import static uk.co.blackpepper.support.selenium.benchmark.Doms.autoComplete;
+import static uk.co.blackpepper.support.selenium.benchmark.Doms.document;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoCompleteBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int size;
+	
+	@Param({"0", "100"})
+	public long latencyMicros;
+	
+	@Param({"true", "false"})
+	public boolean javascript;
+	
+	private FakeWebDriver driver;
+	
+	private String lastSuggestion;
+	
+	@Setup
+	public void setUp() {
+		driver = FakeWebDriver.create(document(autoComplete(size)), latencyMicros, TimeUnit.MICROSECONDS, javascript);
+		lastSuggestion = "Suggestion " + (size - 1);
+	}
+	
+	@Benchmark
+	public List<String> getSuggestions() {
+		return AutoComplete.getSuggestions(driver);
+	}
+	
+	@Benchmark
+	public void clickLastSuggestion() {
+		AutoComplete.clickSuggestion(driver, lastSuggestion);
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import uk.co.blackpepper.support.selenium.CompositeSearchContext;
+
+import static uk.co.blackpepper.support.selenium.benchmark.FakeElement.element;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompositeSearchContextBenchmark {
+
+	private static final int ELEMENTS_PER_CONTEXT = 10;
+	
+	@Param({"1", "10", "100"})
+	public int contexts;
+	
+	@Param({"0", "100"})
+	public long latencyMicros;
+	
+	private CompositeSearchContext context;
+	
+	@Setup
+	public void setUp() {
+		FakeElement body = element("body");
+		
+		for (int index = 0; index < contexts; index++) {
+			body.append(Doms.list(ELEMENTS_PER_CONTEXT).attribute("id", "list" + index));
+		}
+		
+		body.getChildren().get(contexts - 1).getChildren().get(ELEMENTS_PER_CONTEXT - 1).className("target");
+		
+		FakeWebDriver driver = new FakeWebDriver(element("html").append(body), latencyMicros, TimeUnit.MICROSECONDS);
+		List<WebElement> lists = new ArrayList<>(driver.findElements(By.tagName("ul")));
+		context = new CompositeSearchContext(lists);
+	}
+	
+	@Benchmark
+	public List<WebElement> findElements() {
+		return context.findElements(By.tagName("li"));
+	}
+	
+	@Benchmark
+	public WebElement findElementInLastContext() {
+		return context.findElement(By.className("target"));
+	}
+}
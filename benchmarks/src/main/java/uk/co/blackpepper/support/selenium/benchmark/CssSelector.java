@@ -0,0 +1,301 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+
+/**
+ * Supports the subset of CSS selectors used by the helpers.
+ */
+final class CssSelector implements Predicate<FakeElement> {
+
+	private final List<ComplexSelector> groups;
+	
+	private CssSelector(List<ComplexSelector> groups) {
+		this.groups = groups;
+	}
+	
+	static CssSelector parse(String selector) {
+		return new Parser(selector).parse();
+	}
+	
+	@Override
+	public boolean apply(FakeElement element) {
+		for (ComplexSelector group : groups) {
+			if (group.matches(element, group.compounds.size() - 1)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static final class ComplexSelector {
+		
+		private final List<CompoundSelector> compounds = new ArrayList<>();
+		
+		private final List<Character> combinators = new ArrayList<>();
+		
+		private boolean matches(FakeElement element, int index) {
+			if (!compounds.get(index).matches(element)) {
+				return false;
+			}
+			
+			if (index == 0) {
+				return true;
+			}
+			
+			if (combinators.get(index - 1) == '>') {
+				return element.getParent() != null && matches(element.getParent(), index - 1);
+			}
+			
+			for (FakeElement ancestor = element.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+				if (matches(ancestor, index - 1)) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+	
+	private static final class CompoundSelector {
+		
+		private String tagName;
+		
+		private final List<String> classNames = new ArrayList<>();
+		
+		private final List<String[]> attributes = new ArrayList<>();
+		
+		private boolean checked;
+		
+		private boolean disabled;
+		
+		private boolean matches(FakeElement element) {
+			if (tagName != null && !tagName.equalsIgnoreCase(element.getLocalName())) {
+				return false;
+			}
+			
+			for (String className : classNames) {
+				if (!element.hasClass(className)) {
+					return false;
+				}
+			}
+			
+			for (String[] attribute : attributes) {
+				String value = element.getAttributeValue(attribute[0]);
+				
+				if (value == null || (attribute[1] != null && !attribute[1].equals(value))) {
+					return false;
+				}
+			}
+			
+			return (!checked || element.getAttributeValue("checked") != null)
+				&& (!disabled || element.getAttributeValue("disabled") != null);
+		}
+	}
+	
+	private static final class Parser {
+		
+		private final String text;
+		
+		private int position;
+		
+		private Parser(String text) {
+			this.text = text;
+		}
+		
+		private CssSelector parse() {
+			List<ComplexSelector> groups = new ArrayList<>();
+			
+			do {
+				groups.add(parseComplex());
+			}
+			while (consume(','));
+			
+			if (position < text.length()) {
+				throw unsupported();
+			}
+			
+			return new CssSelector(groups);
+		}
+		
+		private ComplexSelector parseComplex() {
+			ComplexSelector complex = new ComplexSelector();
+			
+			skipWhitespace();
+			complex.compounds.add(parseCompound());
+			
+			while (true) {
+				boolean whitespace = skipWhitespace();
+				
+				if (position == text.length() || peek() == ',') {
+					return complex;
+				}
+				
+				if (consume('>')) {
+					skipWhitespace();
+					complex.combinators.add('>');
+				}
+				else if (whitespace) {
+					complex.combinators.add(' ');
+				}
+				else {
+					throw unsupported();
+				}
+				
+				complex.compounds.add(parseCompound());
+			}
+		}
+		
+		private CompoundSelector parseCompound() {
+			CompoundSelector compound = new CompoundSelector();
+			int start = position;
+			
+			if (!consume('*') && position < text.length() && isIdentifier(peek())) {
+				compound.tagName = parseIdentifier();
+			}
+			
+			while (position < text.length()) {
+				if (consume('#')) {
+					compound.attributes.add(new String[] {"id", parseIdentifier()});
+				}
+				else if (consume('.')) {
+					compound.classNames.add(parseIdentifier());
+				}
+				else if (consume('[')) {
+					compound.attributes.add(parseAttribute());
+				}
+				else if (consume(':')) {
+					parsePseudoClass(compound);
+				}
+				else {
+					break;
+				}
+			}
+			
+			if (position == start) {
+				throw unsupported();
+			}
+			
+			return compound;
+		}
+		
+		private String[] parseAttribute() {
+			skipWhitespace();
+			String name = parseIdentifier();
+			String value = null;
+			skipWhitespace();
+			
+			if (consume('=')) {
+				skipWhitespace();
+				boolean quoted = position < text.length() && (peek() == '"' || peek() == '\'');
+				value = quoted ? parseString() : parseIdentifier();
+				skipWhitespace();
+			}
+			
+			if (!consume(']')) {
+				throw unsupported();
+			}
+			
+			return new String[] {name, value};
+		}
+		
+		private void parsePseudoClass(CompoundSelector compound) {
+			String name = parseIdentifier();
+			
+			if ("checked".equals(name)) {
+				compound.checked = true;
+			}
+			else if ("disabled".equals(name)) {
+				compound.disabled = true;
+			}
+			else {
+				throw unsupported();
+			}
+		}
+		
+		private String parseString() {
+			char quote = text.charAt(position++);
+			StringBuilder value = new StringBuilder();
+			
+			while (position < text.length() && text.charAt(position) != quote) {
+				char c = text.charAt(position++);
+				
+				if (c == '\\' && position < text.length()) {
+					c = text.charAt(position++);
+				}
+				
+				value.append(c);
+			}
+			
+			if (!consume(quote)) {
+				throw unsupported();
+			}
+			
+			return value.toString();
+		}
+		
+		private String parseIdentifier() {
+			int start = position;
+			
+			while (position < text.length() && isIdentifier(peek())) {
+				position++;
+			}
+			
+			if (position == start) {
+				throw unsupported();
+			}
+			
+			return text.substring(start, position);
+		}
+		
+		private boolean skipWhitespace() {
+			int start = position;
+			
+			while (position < text.length() && Character.isWhitespace(peek())) {
+				position++;
+			}
+			
+			return position > start;
+		}
+		
+		private boolean consume(char c) {
+			if (position < text.length() && peek() == c) {
+				position++;
+				return true;
+			}
+			
+			return false;
+		}
+		
+		private char peek() {
+			return text.charAt(position);
+		}
+		
+		private static boolean isIdentifier(char c) {
+			return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+		}
+		
+		private UnsupportedOperationException unsupported() {
+			return new UnsupportedOperationException(String.format("CSS selector not supported by the fake driver at "
+				+ "position %d: %s", position, text));
+		}
+	}
+}
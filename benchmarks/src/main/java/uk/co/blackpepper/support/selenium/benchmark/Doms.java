@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import static uk.co.blackpepper.support.selenium.benchmark.FakeElement.element;
+
+public final class Doms {
+
+	private Doms() {
+		throw new AssertionError();
+	}
+	
+	public static FakeElement document(FakeElement... content) {
+		return element("html").append(element("head"), element("body").append(content));
+	}
+	
+	/**
+	 * Builds text inputs and checkboxes followed by radios named {@code choice}, the last of which is checked.
+	 */
+	public static FakeElement form(int size) {
+		FakeElement form = element("form").id("form");
+		
+		for (int index = 0; index < size; index++) {
+			FakeElement control = index % 5 == 4
+				? element("input").type("checkbox").name("check" + index).value("on").selected(index % 2 == 0)
+				: element("input").type("text").name("field" + index).value("value" + index);
+			
+			form.append(element("div").className("form-group").append(
+				element("label").text("Control " + index),
+				control
+			));
+		}
+		
+		return form.append(radios("choice", size));
+	}
+	
+	public static FakeElement radios(String name, int size) {
+		FakeElement group = element("div").className("radio-group");
+		
+		for (int index = 0; index < size; index++) {
+			group.append(element("input").type("radio").name(name).value("option" + index)
+				.selected(index == size - 1));
+		}
+		
+		return group;
+	}
+	
+	public static FakeElement list(int size) {
+		FakeElement list = element("ul").id("list");
+		
+		for (int index = 0; index < size; index++) {
+			list.append(element("li").text("Item " + index));
+		}
+		
+		return list;
+	}
+	
+	public static FakeElement select2(String id, int size) {
+		FakeElement choices = element("ul").className("select2-choices");
+		
+		for (int index = 0; index < size; index++) {
+			choices.append(element("li").className("select2-search-choice").append(
+				element("div").text("Choice " + index),
+				element("a").className("select2-search-choice-close")
+			));
+		}
+		
+		choices.append(element("li").className("select2-search-field").append(
+			element("input").type("text").className("select2-input")
+		));
+		
+		FakeElement results = element("ul").className("select2-results");
+		
+		for (int index = 0; index < size; index++) {
+			results.append(element("li").className("select2-result select2-result-selectable").append(
+				element("div").className("select2-result-label").text("Result " + index)
+			));
+		}
+		
+		return element("div").append(
+			element("div").id("s2id_" + id).className("select2-container select2-container-multi").append(choices),
+			element("div").id("select2-drop").className("select2-drop select2-drop-active").append(results)
+		);
+	}
+	
+	public static FakeElement autoComplete(int size) {
+		FakeElement menu = element("ul").className("ui-autocomplete ui-menu");
+		
+		for (int index = 0; index < size; index++) {
+			menu.append(element("li").className("ui-menu-item").append(
+				element("a").text("Suggestion " + index)
+			));
+		}
+		
+		return menu;
+	}
+	
+	/**
+	 * Builds a date-picker showing June 2014 with the 15th selected.
+	 */
+	public static FakeElement datePicker() {
+		FakeElement days = element("tbody");
+		FakeElement week = null;
+		
+		for (int day = 1; day <= 30; day++) {
+			if (week == null || (day - 1) % 7 == 0) {
+				week = element("tr");
+				days.append(week);
+			}
+			
+			FakeElement link = element("a").className(day == 15 ? "ui-state-default ui-state-active"
+				: "ui-state-default").text(String.valueOf(day));
+			week.append(element("td").append(link));
+		}
+		
+		return element("div").id("ui-datepicker-div").className("ui-datepicker ui-widget").append(
+			element("div").className("ui-datepicker-header").append(
+				element("a").className("ui-datepicker-prev ui-corner-all").text("Prev"),
+				element("a").className("ui-datepicker-next ui-corner-all").text("Next"),
+				element("div").className("ui-datepicker-title").append(
+					element("span").className("ui-datepicker-month").text("June"),
+					element("span").className("ui-datepicker-year").text("2014")
+				)
+			),
+			element("table").className("ui-datepicker-calendar").append(days)
+		);
+	}
+}
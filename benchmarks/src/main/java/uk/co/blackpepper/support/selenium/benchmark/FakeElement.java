@@ -0,0 +1,431 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Predicate;
+import com.google.common.base.Strings;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Element of a synthetic DOM. Every {@code WebElement} method costs one command on the owning driver, whereas the
+ * other public methods do not.
+ */
+public class FakeElement implements WebElement, WrapsDriver {
+
+	private final String tagName;
+	
+	private final Map<String, String> attributes = new LinkedHashMap<>();
+	
+	private final List<FakeElement> children = new ArrayList<>();
+	
+	private FakeElement parent;
+	
+	private FakeWebDriver driver;
+	
+	private String text = "";
+	
+	private boolean displayed = true;
+	
+	private boolean selected;
+	
+	private boolean enabled = true;
+	
+	public FakeElement(String tagName) {
+		this.tagName = checkNotNull(tagName, "tagName");
+	}
+	
+	public static FakeElement element(String tagName) {
+		return new FakeElement(tagName);
+	}
+	
+	public FakeElement attribute(String name, String value) {
+		attributes.put(name, value);
+		return this;
+	}
+	
+	public FakeElement id(String id) {
+		return attribute("id", id);
+	}
+	
+	public FakeElement name(String name) {
+		return attribute("name", name);
+	}
+	
+	public FakeElement type(String type) {
+		return attribute("type", type);
+	}
+	
+	public FakeElement value(String value) {
+		return attribute("value", value);
+	}
+	
+	public FakeElement className(String className) {
+		return attribute("class", className);
+	}
+	
+	public FakeElement text(String text) {
+		this.text = checkNotNull(text, "text");
+		return this;
+	}
+	
+	public FakeElement hidden() {
+		displayed = false;
+		return this;
+	}
+	
+	public FakeElement selected(boolean selected) {
+		this.selected = selected;
+		return this;
+	}
+	
+	public FakeElement disabled() {
+		enabled = false;
+		return this;
+	}
+	
+	public FakeElement append(FakeElement... elements) {
+		for (FakeElement element : elements) {
+			checkState(element.parent == null, "Element already has a parent: %s", element);
+			element.parent = this;
+			children.add(element);
+		}
+		
+		return this;
+	}
+	
+	public String getLocalName() {
+		return tagName;
+	}
+	
+	public FakeElement getParent() {
+		return parent;
+	}
+	
+	public List<FakeElement> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+	
+	public String getAttributeValue(String name) {
+		if ("type".equals(name) && "input".equals(tagName) && !attributes.containsKey(name)) {
+			return "text";
+		}
+		
+		if ("type".equals(name) && "select".equals(tagName)) {
+			return attributes.containsKey("multiple") ? "select-multiple" : "select-one";
+		}
+		
+		if ("checked".equals(name) || "selected".equals(name)) {
+			return selected ? "true" : null;
+		}
+		
+		if ("disabled".equals(name)) {
+			return enabled ? null : "true";
+		}
+		
+		if ("value".equals(name) && !attributes.containsKey(name) && "option".equals(tagName)) {
+			return getVisibleText();
+		}
+		
+		return attributes.get(name);
+	}
+	
+	public void setValue(String value) {
+		attributes.put("value", value);
+	}
+	
+	public void setSelected(boolean selected) {
+		this.selected = selected;
+	}
+	
+	public boolean hasClass(String className) {
+		String classNames = attributes.get("class");
+		
+		if (classNames == null) {
+			return false;
+		}
+		
+		for (String name : classNames.split("\\s+")) {
+			if (name.equals(className)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	public boolean isShown() {
+		for (FakeElement element = this; element != null; element = element.parent) {
+			if (!element.displayed) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	public String getVisibleText() {
+		if (!isShown()) {
+			return "";
+		}
+		
+		List<String> texts = new ArrayList<>();
+		
+		if (!text.isEmpty()) {
+			texts.add(text);
+		}
+		
+		for (FakeElement child : children) {
+			String childText = child.getVisibleText();
+			
+			if (!childText.isEmpty()) {
+				texts.add(childText);
+			}
+		}
+		
+		return Joiner.on('\n').join(texts);
+	}
+	
+	public List<FakeElement> select(Predicate<FakeElement> predicate) {
+		List<FakeElement> elements = new ArrayList<>();
+		collect(predicate, elements);
+		return elements;
+	}
+	
+	public List<FakeElement> select(By by) {
+		return select(Locators.toPredicate(by));
+	}
+	
+	@Override
+	public void click() {
+		getOwner().command();
+		
+		String type = getAttributeValue("type");
+		
+		if ("input".equals(tagName) && "checkbox".equals(type)) {
+			selected = !selected;
+		}
+		else if ("input".equals(tagName) && "radio".equals(type)) {
+			checkRadio();
+		}
+		else if ("option".equals(tagName)) {
+			selectOption();
+		}
+	}
+	
+	@Override
+	public void submit() {
+		getOwner().command();
+	}
+	
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		getOwner().command();
+		
+		StringBuilder value = new StringBuilder(Strings.nullToEmpty(attributes.get("value")));
+		
+		for (CharSequence keys : keysToSend) {
+			value.append(keys);
+			getOwner().keystrokes(keys.length());
+		}
+		
+		setValue(value.toString());
+	}
+	
+	@Override
+	public void clear() {
+		getOwner().command();
+		
+		setValue("");
+	}
+	
+	@Override
+	public String getTagName() {
+		getOwner().command();
+		
+		return tagName;
+	}
+	
+	@Override
+	public String getAttribute(String name) {
+		getOwner().command();
+		
+		return getAttributeValue(name);
+	}
+	
+	@Override
+	public boolean isSelected() {
+		getOwner().command();
+		
+		return selected;
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		getOwner().command();
+		
+		return enabled;
+	}
+	
+	@Override
+	public String getText() {
+		getOwner().command();
+		
+		return getVisibleText();
+	}
+	
+	@Override
+	public List<WebElement> findElements(By by) {
+		getOwner().command();
+		
+		return Collections.<WebElement>unmodifiableList(select(by));
+	}
+	
+	@Override
+	public WebElement findElement(By by) {
+		getOwner().command();
+		
+		List<FakeElement> elements = select(by);
+		
+		if (elements.isEmpty()) {
+			throw new NoSuchElementException("Unable to locate element: " + by);
+		}
+		
+		return elements.get(0);
+	}
+	
+	@Override
+	public boolean isDisplayed() {
+		getOwner().command();
+		
+		return isShown();
+	}
+	
+	@Override
+	public Point getLocation() {
+		getOwner().command();
+		
+		return new Point(0, 0);
+	}
+	
+	@Override
+	public Dimension getSize() {
+		getOwner().command();
+		
+		return new Dimension(0, 0);
+	}
+	
+	@Override
+	public String getCssValue(String propertyName) {
+		getOwner().command();
+		
+		return "";
+	}
+	
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		throw new UnsupportedOperationException("Screenshots are not supported by the fake driver");
+	}
+	
+	@Override
+	public WebDriver getWrappedDriver() {
+		return getOwner();
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("<").append(tagName);
+		
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			builder.append(' ').append(attribute.getKey()).append("=\"").append(attribute.getValue()).append('"');
+		}
+		
+		return builder.append('>').toString();
+	}
+	
+	void setDriver(FakeWebDriver driver) {
+		this.driver = driver;
+	}
+	
+	private FakeWebDriver getOwner() {
+		FakeElement root = this;
+		
+		while (root.parent != null) {
+			root = root.parent;
+		}
+		
+		checkState(root.driver != null, "Element is not attached to a driver: %s", this);
+		return root.driver;
+	}
+	
+	private void collect(Predicate<FakeElement> predicate, List<FakeElement> elements) {
+		for (FakeElement child : children) {
+			if (predicate.apply(child)) {
+				elements.add(child);
+			}
+			
+			child.collect(predicate, elements);
+		}
+	}
+	
+	private void checkRadio() {
+		String name = attributes.get("name");
+		
+		if (name != null) {
+			FakeElement root = this;
+			
+			while (root.parent != null) {
+				root = root.parent;
+			}
+			
+			for (FakeElement radio : root.select(Locators.toPredicate(By.name(name)))) {
+				radio.selected = false;
+			}
+		}
+		
+		selected = true;
+	}
+	
+	private void selectOption() {
+		if (parent != null && !parent.attributes.containsKey("multiple")) {
+			for (FakeElement option : parent.children) {
+				option.selected = false;
+			}
+			
+			selected = true;
+		}
+		else {
+			selected = !selected;
+		}
+	}
+}
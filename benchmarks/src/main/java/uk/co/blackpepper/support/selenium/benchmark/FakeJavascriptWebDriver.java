@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Executes only the scripts that begin with a comment naming a helper, such as {@code FormUtils.readForm}, that has a
+ * registered {@link ScriptHandler}, failing on any other.
+ */
+public class FakeJavascriptWebDriver extends FakeWebDriver implements JavascriptExecutor {
+
+	private static final String MARKER_START = "/* ";
+	
+	private static final String MARKER_END = " */";
+	
+	private final Map<String, ScriptHandler> handlers = new HashMap<>();
+	
+	public FakeJavascriptWebDriver(FakeElement document, long latency, TimeUnit unit) {
+		super(document, latency, unit);
+		
+		handlers.putAll(FakeScripts.getHandlers());
+	}
+	
+	public void registerScript(String marker, ScriptHandler handler) {
+		handlers.put(checkNotNull(marker, "marker"), checkNotNull(handler, "handler"));
+	}
+	
+	@Override
+	public Object executeScript(String script, Object... args) {
+		command();
+		
+		ScriptHandler handler = handlers.get(getMarker(script));
+		
+		if (handler != null) {
+			return handler.execute(args);
+		}
+		
+		throw new WebDriverException("Script not supported by the fake driver: " + script);
+	}
+	
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		throw new WebDriverException("Asynchronous scripts are not supported by the fake driver");
+	}
+	
+	private static String getMarker(String script) {
+		int end = script.indexOf(MARKER_END);
+		
+		return script.startsWith(MARKER_START) && end != -1 ? script.substring(MARKER_START.length(), end) : null;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+final class FakeScripts {
+
+	private static final ScriptHandler GET_TEXT = new ScriptHandler() {
+		@Override
+		public Object execute(Object... args) {
+			List<String> texts = new ArrayList<>();
+			
+			for (Object element : (List<?>) args[0]) {
+				texts.add(((FakeElement) element).getVisibleText().trim());
+			}
+			
+			return texts;
+		}
+	};
+	
+	private static final ScriptHandler READ_FORM = new ScriptHandler() {
+		@Override
+		public Object execute(Object... args) {
+			List<Map<String, Object>> controls = new ArrayList<>();
+			
+			for (FakeElement control : ((FakeElement) args[0]).select(CssSelector.parse((String) args[1]))) {
+				String name = control.getAttributeValue("name");
+				
+				if (!Strings.isNullOrEmpty(name)) {
+					String value = Strings.nullToEmpty(control.getAttributeValue("value"));
+					
+					Map<String, Object> result = new LinkedHashMap<>();
+					result.put("name", name);
+					result.put("type", Strings.nullToEmpty(control.getAttributeValue("type")));
+					result.put("values", Collections.singletonList(value));
+					result.put("checked", control.getAttributeValue("checked") != null);
+					result.put("disabled", control.getAttributeValue("disabled") != null);
+					controls.add(result);
+				}
+			}
+			
+			return controls;
+		}
+	};
+	
+	private static final ScriptHandler FILL_FORM = new ScriptHandler() {
+		@Override
+		public Object execute(Object... args) {
+			Map<?, ?> values = (Map<?, ?>) args[2];
+			Set<Object> found = new HashSet<>();
+			
+			for (FakeElement control : ((FakeElement) args[0]).select(CssSelector.parse((String) args[1]))) {
+				String name = control.getAttributeValue("name");
+				
+				if (name == null || !values.containsKey(name)) {
+					continue;
+				}
+				
+				Object value = values.get(name);
+				String type = control.getAttributeValue("type");
+				
+				if ("checkbox".equals(type)) {
+					control.setSelected(value instanceof Boolean ? (Boolean) value
+						: contains(value, control.getAttributeValue("value")));
+					found.add(name);
+				}
+				else if ("radio".equals(type)) {
+					// checking one radio unchecks the rest of its group
+					boolean checked = contains(value, control.getAttributeValue("value"));
+					control.setSelected(checked);
+					
+					if (checked) {
+						found.add(name);
+					}
+				}
+				else {
+					control.setValue(String.valueOf(value));
+					found.add(name);
+				}
+			}
+			
+			List<Object> missing = new ArrayList<>(values.keySet());
+			missing.removeAll(found);
+			return missing;
+		}
+	};
+	
+	private static final ScriptHandler SET_VALUE = new ScriptHandler() {
+		@Override
+		public Object execute(Object... args) {
+			((FakeElement) args[0]).setValue((String) args[1]);
+			return null;
+		}
+	};
+	
+	private FakeScripts() {
+		throw new AssertionError();
+	}
+	
+	static Map<String, ScriptHandler> getHandlers() {
+		return ImmutableMap.<String, ScriptHandler>builder()
+			.put("WebDriverUtils.getText", GET_TEXT)
+			.put("FormUtils.readForm", READ_FORM)
+			.put("FormUtils.fillForm", FILL_FORM)
+			.put("ValueSetters.script", SET_VALUE)
+			.build();
+	}
+	
+	private static boolean contains(Object value, String item) {
+		return value instanceof List ? ((List<?>) value).contains(item) : String.valueOf(value).equals(item);
+	}
+}
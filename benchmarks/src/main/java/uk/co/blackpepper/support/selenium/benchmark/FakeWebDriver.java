@@ -0,0 +1,186 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Simulates a fixed latency for every command, plus a further latency for every key typed, by parking and then
+ * spinning, so that sub-millisecond latencies are honoured.
+ */
+public class FakeWebDriver implements WebDriver {
+
+	private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	
+	private final FakeElement document;
+	
+	private final long latencyNanos;
+	
+	private long keystrokeLatencyNanos;
+	
+	private String currentUrl = "about:blank";
+	
+	private long commandCount;
+	
+	public FakeWebDriver(FakeElement document, long latency, TimeUnit unit) {
+		checkArgument(latency >= 0, "latency must be non-negative");
+		
+		this.document = checkNotNull(document, "document");
+		latencyNanos = unit.toNanos(latency);
+		
+		document.setDriver(this);
+	}
+	
+	public static FakeWebDriver create(FakeElement document, long latency, TimeUnit unit, boolean javascript) {
+		return javascript ? new FakeJavascriptWebDriver(document, latency, unit)
+			: new FakeWebDriver(document, latency, unit);
+	}
+	
+	public FakeElement getDocument() {
+		return document;
+	}
+	
+	public long getCommandCount() {
+		return commandCount;
+	}
+	
+	public void setKeystrokeLatency(long latency, TimeUnit unit) {
+		checkArgument(latency >= 0, "latency must be non-negative");
+		
+		keystrokeLatencyNanos = unit.toNanos(latency);
+	}
+	
+	@Override
+	public void get(String url) {
+		command();
+		
+		currentUrl = url;
+	}
+	
+	@Override
+	public String getCurrentUrl() {
+		command();
+		
+		return currentUrl;
+	}
+	
+	@Override
+	public String getTitle() {
+		command();
+		
+		return "";
+	}
+	
+	@Override
+	public List<WebElement> findElements(By by) {
+		command();
+		
+		return Collections.<WebElement>unmodifiableList(document.select(by));
+	}
+	
+	@Override
+	public WebElement findElement(By by) {
+		command();
+		
+		List<FakeElement> elements = document.select(by);
+		
+		if (elements.isEmpty()) {
+			throw new NoSuchElementException("Unable to locate element: " + by);
+		}
+		
+		return elements.get(0);
+	}
+	
+	@Override
+	public String getPageSource() {
+		throw new UnsupportedOperationException("Page source is not supported by the fake driver");
+	}
+	
+	@Override
+	public void close() {
+		// no-op
+	}
+	
+	@Override
+	public void quit() {
+		// no-op
+	}
+	
+	@Override
+	public Set<String> getWindowHandles() {
+		command();
+		
+		return Collections.singleton(getWindowHandle());
+	}
+	
+	@Override
+	public String getWindowHandle() {
+		return "main";
+	}
+	
+	@Override
+	public TargetLocator switchTo() {
+		throw new UnsupportedOperationException("Switching is not supported by the fake driver");
+	}
+	
+	@Override
+	public Navigation navigate() {
+		throw new UnsupportedOperationException("Navigation is not supported by the fake driver");
+	}
+	
+	@Override
+	public Options manage() {
+		throw new UnsupportedOperationException("Options are not supported by the fake driver");
+	}
+	
+	void command() {
+		commandCount++;
+		
+		delay(latencyNanos);
+	}
+	
+	void keystrokes(int count) {
+		delay(count * keystrokeLatencyNanos);
+	}
+	
+	private static void delay(long nanos) {
+		if (nanos == 0) {
+			return;
+		}
+		
+		long deadline = System.nanoTime() + nanos;
+		
+		if (nanos > SPIN_NANOS) {
+			LockSupport.parkNanos(nanos - SPIN_NANOS);
+		}
+		
+		while (System.nanoTime() - deadline < 0) {
+			// spin for the remainder
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import org.openqa.selenium.By;
+
+import com.google.common.base.Predicate;
+
+final class Locators {
+
+	private Locators() {
+		throw new AssertionError();
+	}
+	
+	static Predicate<FakeElement> toPredicate(By by) {
+		String locator = by.toString();
+		
+		if (locator.startsWith("By.id: ")) {
+			return attributeEquals("id", locator.substring("By.id: ".length()));
+		}
+		
+		if (locator.startsWith("By.name: ")) {
+			return attributeEquals("name", locator.substring("By.name: ".length()));
+		}
+		
+		if (locator.startsWith("By.className: ")) {
+			return hasClass(locator.substring("By.className: ".length()));
+		}
+		
+		if (locator.startsWith("By.tagName: ")) {
+			return CssSelector.parse(locator.substring("By.tagName: ".length()));
+		}
+		
+		if (locator.startsWith("By.cssSelector: ")) {
+			return CssSelector.parse(locator.substring("By.cssSelector: ".length()));
+		}
+		
+		if (locator.startsWith("By.linkText: ")) {
+			return linkText(locator.substring("By.linkText: ".length()), false);
+		}
+		
+		if (locator.startsWith("By.partialLinkText: ")) {
+			return linkText(locator.substring("By.partialLinkText: ".length()), true);
+		}
+		
+		throw new UnsupportedOperationException("Locator not supported by the fake driver: " + by);
+	}
+	
+	private static Predicate<FakeElement> attributeEquals(final String name, final String value) {
+		return new Predicate<FakeElement>() {
+			@Override
+			public boolean apply(FakeElement element) {
+				return value.equals(element.getAttributeValue(name));
+			}
+		};
+	}
+	
+	private static Predicate<FakeElement> hasClass(final String className) {
+		return new Predicate<FakeElement>() {
+			@Override
+			public boolean apply(FakeElement element) {
+				return element.hasClass(className);
+			}
+		};
+	}
+	
+	private static Predicate<FakeElement> linkText(final String text, final boolean partial) {
+		return new Predicate<FakeElement>() {
+			@Override
+			public boolean apply(FakeElement element) {
+				if (!"a".equals(element.getLocalName())) {
+					return false;
+				}
+				
+				String linkText = element.getVisibleText().trim();
+				return partial ? linkText.contains(text) : linkText.equals(text);
+			}
+		};
+	}
+}
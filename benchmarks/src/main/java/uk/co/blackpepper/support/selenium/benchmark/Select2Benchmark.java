@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.blackpepper.support.selenium.select2.Select2;
+
+import static uk.co.blackpepper.support.selenium.benchmark.Doms.document;
+import static uk.co.blackpepper.support.selenium.benchmark.Doms.select2;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Select2Benchmark {
+
+	private static final String ID = "x";
+	
+	@Param({"10", "100", "1000"})
+	public int size;
+	
+	@Param({"0", "100"})
+	public long latencyMicros;
+	
+	@Param({"true", "false"})
+	public boolean javascript;
+	
+	private FakeWebDriver driver;
+	
+	private String lastItem;
+	
+	@Setup
+	public void setUp() {
+		driver = FakeWebDriver.create(document(select2(ID, size)), latencyMicros, TimeUnit.MICROSECONDS, javascript);
+		lastItem = "Result " + (size - 1);
+	}
+	
+	@Benchmark
+	public List<String> getValues() {
+		return Select2.getValues(driver, ID);
+	}
+	
+	@Benchmark
+	public List<String> getItemNames() {
+		return Select2.getItemNames(driver);
+	}
+	
+	@Benchmark
+	public void clickLastItem() {
+		Select2.clickItem(driver, lastItem);
+	}
+}
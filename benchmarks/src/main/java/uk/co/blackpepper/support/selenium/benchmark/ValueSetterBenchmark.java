@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.base.Strings;
+
+import uk.co.blackpepper.support.selenium.FormUtils;
+import uk.co.blackpepper.support.selenium.ValueSetter;
+import uk.co.blackpepper.support.selenium.ValueSetters;
+
+import static uk.co.blackpepper.support.selenium.benchmark.Doms.document;
+import static uk.co.blackpepper.support.selenium.benchmark.FakeElement.element;
+
+/**
+ * Typing costs a further {@code keystrokeLatencyMicros} per character, so {@code script} wins by the typing time on
+ * long values. {@code chunked} never beats {@code keystrokes} on time: it adds a round trip per chunk in exchange for
+ * shorter commands.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueSetterBenchmark {
+
+	private static final int CHUNK_SIZE = 100;
+	
+	@Param({"10", "1000"})
+	public int length;
+	
+	@Param({"keystrokes", "script", "chunked"})
+	public String setter;
+	
+	@Param({"0", "100"})
+	public long latencyMicros;
+	
+	@Param({"0", "10"})
+	public long keystrokeLatencyMicros;
+	
+	private WebElement control;
+	
+	private ValueSetter valueSetter;
+	
+	private String value;
+	
+	@Setup
+	public void setUp() {
+		FakeWebDriver driver = new FakeJavascriptWebDriver(document(element("input").type("text").name("text")),
+			latencyMicros, TimeUnit.MICROSECONDS);
+		driver.setKeystrokeLatency(keystrokeLatencyMicros, TimeUnit.MICROSECONDS);
+		
+		control = driver.findElement(By.name("text"));
+		valueSetter = toValueSetter(setter);
+		value = Strings.repeat("x", length);
+	}
+	
+	@Benchmark
+	public void setControlValue() {
+		FormUtils.setControlValue(control, value, valueSetter);
+	}
+	
+	private static ValueSetter toValueSetter(String name) {
+		if ("keystrokes".equals(name)) {
+			return ValueSetters.keystrokes();
+		}
+		
+		if ("script".equals(name)) {
+			return ValueSetters.script();
+		}
+		
+		if ("chunked".equals(name)) {
+			return ValueSetters.chunked(CHUNK_SIZE);
+		}
+		
+		throw new IllegalArgumentException("Unknown value setter: " + name);
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link WebDriverWait} whose polling interval grows exponentially, with jitter, up to
+ * {@link #pollingEvery(long, TimeUnit)}.
+ */
+public class AdaptiveWebDriverWait extends WebDriverWait {
+	
+	public static final long DEFAULT_INITIAL_INTERVAL = 10;
+	
+	public static final double DEFAULT_BACKOFF = 2;
+	
+	private static final Random JITTER = new Random();
+	
+	private static volatile Clock defaultClock = Clock.SYSTEM;
+	
+	private static volatile Sleeper defaultSleeper = Sleeper.SYSTEM;
+	
+	private final WebDriver driver;
+	
+	private final Clock clock;
+	
+	private final Sleeper sleeper;
+	
+	private long timeout;
+	
+	private long initialInterval;
+	
+	private long maxInterval;
+	
+	private double backoff;
+	
+	private Supplier<String> messageSupplier;
+	
+	private List<Class<? extends Throwable>> ignoredExceptions;
+	
+	private WaitTelemetry telemetry;
+	
+	public AdaptiveWebDriverWait(WebDriver driver, long timeOutInSeconds) {
+		this(driver, timeOutInSeconds, DEFAULT_SLEEP_TIMEOUT);
+	}
+	
+	public AdaptiveWebDriverWait(WebDriver driver, long timeOutInSeconds, long maxSleepInMillis) {
+		this(driver, defaultClock, defaultSleeper, timeOutInSeconds, maxSleepInMillis);
+	}
+	
+	public AdaptiveWebDriverWait(WebDriver driver, Clock clock, Sleeper sleeper, long timeOutInSeconds,
+		long maxSleepInMillis) {
+		super(driver, timeOutInSeconds, maxSleepInMillis);
+		this.driver = driver;
+		this.clock = checkNotNull(clock, "clock");
+		this.sleeper = checkNotNull(sleeper, "sleeper");
+		timeout = TimeUnit.SECONDS.toNanos(timeOutInSeconds);
+		initialInterval = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_INTERVAL);
+		maxInterval = TimeUnit.MILLISECONDS.toNanos(maxSleepInMillis);
+		backoff = DEFAULT_BACKOFF;
+	}
+	
+	public static Clock getDefaultClock() {
+		return defaultClock;
+	}
+	
+	public static Sleeper getDefaultSleeper() {
+		return defaultSleeper;
+	}
+	
+	/**
+	 * Sets the time used by waits that are not given any, including those in the widget helpers.
+	 */
+	public static void setDefaultTime(Clock clock, Sleeper sleeper) {
+		defaultClock = checkNotNull(clock, "clock");
+		defaultSleeper = checkNotNull(sleeper, "sleeper");
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait withTimeout(long duration, TimeUnit unit) {
+		super.withTimeout(duration, unit);
+		timeout = unit.toNanos(duration);
+		return this;
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait pollingEvery(long duration, TimeUnit unit) {
+		super.pollingEvery(duration, unit);
+		maxInterval = unit.toNanos(duration);
+		return this;
+	}
+	
+	public AdaptiveWebDriverWait initiallyPollingEvery(long duration, TimeUnit unit) {
+		checkArgument(duration > 0, "duration must be positive");
+		initialInterval = unit.toNanos(duration);
+		return this;
+	}
+	
+	public AdaptiveWebDriverWait withBackoff(double backoff) {
+		checkArgument(backoff >= 1, "backoff must be at least 1");
+		this.backoff = backoff;
+		return this;
+	}
+	
+	public AdaptiveWebDriverWait withTelemetry(WaitTelemetry telemetry) {
+		this.telemetry = checkNotNull(telemetry, "telemetry");
+		return this;
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait withMessage(String message) {
+		return withMessage(Suppliers.ofInstance(message));
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait withMessage(Supplier<String> messageSupplier) {
+		super.withMessage(messageSupplier);
+		this.messageSupplier = messageSupplier;
+		return this;
+	}
+	
+	@Override
+	public <K extends Throwable> AdaptiveWebDriverWait ignoreAll(Collection<Class<? extends K>> types) {
+		super.ignoreAll(types);
+		
+		// Invoked by the superclass constructor before this class has been initialised
+		if (ignoredExceptions == null) {
+			ignoredExceptions = new ArrayList<>();
+		}
+		
+		ignoredExceptions.addAll(types);
+		return this;
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait ignoring(Class<? extends Throwable> exceptionType) {
+		return ignoreAll(ImmutableList.<Class<? extends Throwable>>of(exceptionType));
+	}
+	
+	@Override
+	public AdaptiveWebDriverWait ignoring(Class<? extends Throwable> firstType, Class<? extends Throwable> secondType) {
+		return ignoreAll(ImmutableList.of(firstType, secondType));
+	}
+	
+	@Override
+	public void until(final Predicate<WebDriver> isTrue) {
+		until(new Function<WebDriver, Boolean>() {
+			@Override
+			public Boolean apply(WebDriver input) {
+				return isTrue.apply(input);
+			}
+			
+			@Override
+			public String toString() {
+				return isTrue.toString();
+			}
+		});
+	}
+	
+	@Override
+	public <V> V until(Function<? super WebDriver, V> isTrue) {
+		WaitTimer timer = WaitTimer.start(telemetry == null ? WebDriverUtils.getWaitTelemetry() : telemetry, clock,
+			isTrue);
+		long end = clock.nanoTime() + timeout;
+		long interval = initialInterval;
+		Throwable lastException = null;
+		
+		try {
+			while (true) {
+				timer.poll();
+				
+				try {
+					V value = isTrue.apply(driver);
+					
+					if (value != null && !Boolean.FALSE.equals(value)) {
+						timer.finish(Outcome.SATISFIED);
+						return value;
+					}
+				}
+				catch (Throwable exception) {
+					lastException = propagateIfNotIgnored(exception);
+				}
+				
+				long remaining = end - clock.nanoTime();
+				
+				if (remaining <= 0) {
+					timer.finish(Outcome.TIMED_OUT);
+					throw timeoutException(getTimeoutMessage(isTrue), lastException);
+				}
+				
+				sleep(Math.min(jitter(interval), remaining));
+				interval = Math.min(maxInterval, (long) (interval * backoff));
+			}
+		}
+		finally {
+			timer.finish(Outcome.FAILED);
+		}
+	}
+	
+	private Throwable propagateIfNotIgnored(Throwable exception) {
+		for (Class<? extends Throwable> ignoredException : ignoredExceptions) {
+			if (ignoredException.isInstance(exception)) {
+				return exception;
+			}
+		}
+		
+		throw Throwables.propagate(exception);
+	}
+	
+	private String getTimeoutMessage(Object condition) {
+		String message = messageSupplier == null ? null : messageSupplier.get();
+		String suffix = message == null ? " waiting for " + condition : ": " + message;
+		
+		return String.format("Timed out after %d seconds%s", TimeUnit.NANOSECONDS.toSeconds(timeout), suffix);
+	}
+	
+	private static long jitter(long interval) {
+		// Sleep for between half and all of the interval
+		return interval / 2 + (long) (JITTER.nextDouble() * (interval / 2));
+	}
+	
+	private void sleep(long nanos) {
+		try {
+			sleeper.sleep(nanos);
+		}
+		catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new WebDriverException(exception);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+final class BrowserCondition implements ExpectedCondition<Boolean> {
+	
+	static final String PREDICATE_FUNCTIONS = JavascriptLocator.FIND_ALL_FUNCTION
+		+ WebDriverUtils.IS_SHOWN_FUNCTION
+		+ MutationConditions.IS_VISIBLE_FUNCTION
+		+ "function anyVisible(elements) {"
+		+ "  for (var i = 0; i < elements.length; i++) if (isVisible(elements[i])) return true;"
+		+ "  return false;"
+		+ "}"
+		+ "function textOf(elements) {"
+		+ "  if (elements.length == 0) return null;"
+		+ "  var element = elements[0], text = '';"
+		+ "  if (isShown(element)) text = element.innerText !== undefined ? element.innerText : element.textContent;"
+		+ "  return text.replace(/^\\s+|\\s+$/g, '');"
+		+ "}"
+		+ "function attributeOf(elements, name) {"
+		+ "  return elements.length > 0 ? elements[0].getAttribute(name) : null;"
+		+ "}";
+	
+	private static final long TIME_SLICE_MILLIS = 1000;
+	
+	private static final long RECHECK_INTERVAL_MILLIS = 100;
+	
+	private final BrowserPredicate predicate;
+	
+	private final boolean async;
+	
+	private final String script;
+	
+	private final List<Object> args;
+	
+	private final String scopeName;
+	
+	BrowserCondition(BrowserPredicate predicate, boolean async) {
+		this.predicate = checkNotNull(predicate, "predicate");
+		this.async = async;
+		scopeName = async ? "ExpectedConditions2.awaitInBrowser" : "ExpectedConditions2.inBrowser";
+		
+		args = new ArrayList<>();
+		String expression = predicate.compile(args);
+		script = expression == null ? null : async ? awaitScript(expression) : evaluateScript(expression);
+	}
+	
+	@Override
+	public Boolean apply(WebDriver driver) {
+		CommandScope scope = CommandScope.enter(scopeName);
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(driver);
+			
+			if (executor == null || script == null) {
+				return predicate.evaluate(driver);
+			}
+			
+			if (!async) {
+				return Boolean.TRUE.equals(executor.executeScript(script, args));
+			}
+			
+			try {
+				return Boolean.TRUE.equals(executor.executeAsyncScript(script, args, TIME_SLICE_MILLIS,
+					RECHECK_INTERVAL_MILLIS));
+			}
+			catch (TimeoutException exception) {
+				// Script timeout is shorter than the time slice
+				return false;
+			}
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return predicate.toString();
+	}
+	
+	/**
+	 * @return the compiled script, or {@code null} if the predicate cannot be evaluated in the browser
+	 */
+	String getScript() {
+		return script;
+	}
+	
+	private static String evaluateScript(String expression) {
+		return PREDICATE_FUNCTIONS
+			+ "var p = arguments[0];"
+			+ "return !!(" + expression + ");";
+	}
+	
+	private static String awaitScript(String expression) {
+		return PREDICATE_FUNCTIONS
+			+ "var p = arguments[0], timeSlice = arguments[1], recheckInterval = arguments[2],"
+			+ "  callback = arguments[arguments.length - 1], deadline = new Date().getTime() + timeSlice;"
+			+ "(function check() {"
+			+ "  var satisfied = !!(" + expression + ");"
+			+ "  if (satisfied || new Date().getTime() >= deadline) {"
+			+ "    callback(satisfied);"
+			+ "  } else {"
+			+ "    setTimeout(check, recheckInterval);"
+			+ "  }"
+			+ "})();";
+	}
+}
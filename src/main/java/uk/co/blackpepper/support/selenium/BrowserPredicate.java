@@ -0,0 +1,316 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A predicate that is compiled to JavaScript so that a composite is evaluated in one round trip. Locators other
+ * than the standard {@link By} mechanisms, and drivers without JavaScript, fall back to querying the driver.
+ */
+public abstract class BrowserPredicate {
+	
+	BrowserPredicate() {
+		// package-private to restrict implementations to this package
+	}
+	
+	public static BrowserPredicate present(final By locator) {
+		checkNotNull(locator, "locator");
+		
+		return new LocatorPredicate(locator) {
+			@Override
+			String compile(String elements, List<Object> args) {
+				return elements + ".length > 0";
+			}
+			
+			@Override
+			boolean evaluate(List<WebElement> elements) {
+				return !elements.isEmpty();
+			}
+			
+			@Override
+			public String toString() {
+				return "presence of element located by " + locator;
+			}
+		};
+	}
+	
+	public static BrowserPredicate visible(final By locator) {
+		checkNotNull(locator, "locator");
+		
+		return new LocatorPredicate(locator) {
+			@Override
+			String compile(String elements, List<Object> args) {
+				return "anyVisible(" + elements + ")";
+			}
+			
+			@Override
+			boolean evaluate(List<WebElement> elements) {
+				for (WebElement element : elements) {
+					try {
+						if (element.isDisplayed()) {
+							return true;
+						}
+					}
+					catch (StaleElementReferenceException exception) {
+						// Removed since it was found
+					}
+				}
+				
+				return false;
+			}
+			
+			@Override
+			public String toString() {
+				return "visibility of element located by " + locator;
+			}
+		};
+	}
+	
+	/**
+	 * Compares the trimmed visible text of the first matching element.
+	 */
+	public static BrowserPredicate textEquals(final By locator, final String text) {
+		checkNotNull(locator, "locator");
+		checkNotNull(text, "text");
+		
+		return new LocatorPredicate(locator) {
+			@Override
+			String compile(String elements, List<Object> args) {
+				return "textOf(" + elements + ") === " + arg(args, text);
+			}
+			
+			@Override
+			boolean evaluate(List<WebElement> elements) {
+				return !elements.isEmpty() && text.equals(elements.get(0).getText());
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("text of element located by %s to be \"%s\"", locator, text);
+			}
+		};
+	}
+	
+	public static BrowserPredicate attributeEquals(final By locator, final String name, final String value) {
+		checkNotNull(locator, "locator");
+		checkNotNull(name, "name");
+		checkNotNull(value, "value");
+		
+		return new LocatorPredicate(locator) {
+			@Override
+			String compile(String elements, List<Object> args) {
+				return "attributeOf(" + elements + ", " + arg(args, name) + ") === " + arg(args, value);
+			}
+			
+			@Override
+			boolean evaluate(List<WebElement> elements) {
+				return !elements.isEmpty() && value.equals(elements.get(0).getAttribute(name));
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("attribute %s of element located by %s to be \"%s\"", name, locator, value);
+			}
+		};
+	}
+	
+	public static BrowserPredicate countAtLeast(final By locator, final int count) {
+		checkNotNull(locator, "locator");
+		checkArgument(count >= 0, "count must be non-negative");
+		
+		return new LocatorPredicate(locator) {
+			@Override
+			String compile(String elements, List<Object> args) {
+				return elements + ".length >= " + arg(args, (long) count);
+			}
+			
+			@Override
+			boolean evaluate(List<WebElement> elements) {
+				return elements.size() >= count;
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("at least %d elements located by %s", count, locator);
+			}
+		};
+	}
+	
+	/**
+	 * The pattern is evaluated as a JavaScript regular expression, honouring only {@link Pattern#CASE_INSENSITIVE}.
+	 */
+	public static BrowserPredicate urlMatches(final Pattern pattern) {
+		checkNotNull(pattern, "pattern");
+		
+		return new BrowserPredicate() {
+			@Override
+			String compile(List<Object> args) {
+				String source = arg(args, UrlCondition.toJavascriptSource(pattern));
+				String flags = arg(args, UrlCondition.toJavascriptFlags(pattern));
+				return String.format("new RegExp(%s, %s).test(window.location.href)", source, flags);
+			}
+			
+			@Override
+			boolean evaluate(WebDriver driver) {
+				return pattern.matcher(driver.getCurrentUrl()).matches();
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("URL to match \"%s\"", pattern);
+			}
+		};
+	}
+	
+	public static BrowserPredicate allOf(BrowserPredicate... predicates) {
+		return new CompositePredicate(true, predicates);
+	}
+	
+	public static BrowserPredicate anyOf(BrowserPredicate... predicates) {
+		return new CompositePredicate(false, predicates);
+	}
+	
+	public static BrowserPredicate not(final BrowserPredicate predicate) {
+		checkNotNull(predicate, "predicate");
+		
+		return new BrowserPredicate() {
+			@Override
+			String compile(List<Object> args) {
+				String expression = predicate.compile(args);
+				return expression == null ? null : "!(" + expression + ")";
+			}
+			
+			@Override
+			boolean evaluate(WebDriver driver) {
+				return !predicate.evaluate(driver);
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("not (%s)", predicate);
+			}
+		};
+	}
+	
+	/**
+	 * Compiles to an expression over {@link BrowserCondition#PREDICATE_FUNCTIONS} and the script arguments {@code p},
+	 * appending any arguments it needs to {@code args}.
+	 * 
+	 * @return the expression, or {@code null} if this predicate cannot be evaluated in the browser
+	 */
+	abstract String compile(List<Object> args);
+	
+	abstract boolean evaluate(WebDriver driver);
+	
+	private static String arg(List<Object> args, Object value) {
+		args.add(value);
+		return "p[" + (args.size() - 1) + "]";
+	}
+	
+	private abstract static class LocatorPredicate extends BrowserPredicate {
+		
+		private final By locator;
+		
+		LocatorPredicate(By locator) {
+			this.locator = locator;
+		}
+		
+		@Override
+		final String compile(List<Object> args) {
+			JavascriptLocator javascriptLocator = JavascriptLocator.of(locator);
+			
+			if (javascriptLocator == null) {
+				return null;
+			}
+			
+			return compile("findAll(" + arg(args, javascriptLocator.toArgument()) + ")", args);
+		}
+		
+		@Override
+		final boolean evaluate(WebDriver driver) {
+			return evaluate(driver.findElements(locator));
+		}
+		
+		abstract String compile(String elements, List<Object> args);
+		
+		abstract boolean evaluate(List<WebElement> elements);
+	}
+	
+	private static final class CompositePredicate extends BrowserPredicate {
+		
+		private final boolean all;
+		
+		private final List<BrowserPredicate> predicates;
+		
+		CompositePredicate(boolean all, BrowserPredicate... predicates) {
+			checkArgument(predicates.length > 0, "predicates must not be empty");
+			
+			this.all = all;
+			this.predicates = ImmutableList.copyOf(predicates);
+		}
+		
+		@Override
+		String compile(List<Object> args) {
+			StringBuilder expression = new StringBuilder("(");
+			
+			for (BrowserPredicate predicate : predicates) {
+				String operand = predicate.compile(args);
+				
+				if (operand == null) {
+					return null;
+				}
+				
+				if (expression.length() > 1) {
+					expression.append(all ? " && " : " || ");
+				}
+				
+				expression.append('(').append(operand).append(')');
+			}
+			
+			return expression.append(')').toString();
+		}
+		
+		@Override
+		boolean evaluate(WebDriver driver) {
+			for (BrowserPredicate predicate : predicates) {
+				if (predicate.evaluate(driver) != all) {
+					return !all;
+				}
+			}
+			
+			return all;
+		}
+		
+		@Override
+		public String toString() {
+			return predicates.size() == 1 ? predicates.get(0).toString()
+				: "(" + Joiner.on(all ? " and " : " or ").join(predicates) + ")";
+		}
+	}
+}
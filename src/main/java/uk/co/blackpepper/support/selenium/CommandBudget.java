@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.openqa.selenium.WebDriver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Asserts how many commands are issued through {@link #getDriver()}, for example:
+ * 
+ * <pre>
+ * CommandBudget budget = CommandBudget.of(driver);
+ * Select2.getValues(budget.getDriver(), "id");
+ * budget.assertAtMost(2);
+ * </pre>
+ */
+public final class CommandBudget {
+	
+	private final InstrumentedWebDriver driver;
+	
+	private CommandBudget(InstrumentedWebDriver driver) {
+		this.driver = checkNotNull(driver, "driver");
+	}
+	
+	public static CommandBudget of(WebDriver driver) {
+		return new CommandBudget(InstrumentedWebDriver.instrument(driver, new CommandMetrics()));
+	}
+	
+	public WebDriver getDriver() {
+		return driver;
+	}
+	
+	public CommandMetrics getMetrics() {
+		return driver.getMetrics();
+	}
+	
+	public long getCommandCount() {
+		return getMetrics().getCommandCount();
+	}
+	
+	/**
+	 * @throws AssertionError
+	 *             if more commands have been issued since this budget was created or reset
+	 */
+	public void assertAtMost(long maxCommands) {
+		checkArgument(maxCommands >= 0, "maxCommands must not be negative");
+		
+		long commandCount = getCommandCount();
+		
+		if (commandCount > maxCommands) {
+			throw new AssertionError(String.format("Expected at most %d driver commands but %d were issued:%n%s",
+				maxCommands, commandCount, getMetrics().report()));
+		}
+	}
+	
+	/**
+	 * @throws AssertionError
+	 *             if more commands of the type have been issued since this budget was created or reset
+	 */
+	public void assertAtMost(String command, long maxCommands) {
+		checkArgument(maxCommands >= 0, "maxCommands must not be negative");
+		
+		long commandCount = getMetrics().getCommand(command).getCount();
+		
+		if (commandCount > maxCommands) {
+			throw new AssertionError(String.format("Expected at most %d %s commands but %d were issued:%n%s",
+				maxCommands, command, commandCount, getMetrics().report()));
+		}
+	}
+	
+	public void reset() {
+		getMetrics().reset();
+	}
+}
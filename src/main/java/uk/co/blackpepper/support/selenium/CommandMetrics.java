@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Table;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thread-safe latencies of the commands issued through an {@link InstrumentedWebDriver}, by helper and command.
+ */
+public class CommandMetrics {
+	
+	public static final String UNSCOPED = "(unscoped)";
+	
+	private static final String REPORT_FORMAT = "%-50s %8s %10s %8s %8s %8s %8s%n";
+	
+	private final Clock clock;
+	
+	private final Table<String, String, LatencyHistogram> histograms = HashBasedTable.create();
+	
+	public CommandMetrics() {
+		this(Clock.SYSTEM);
+	}
+	
+	public CommandMetrics(Clock clock) {
+		this.clock = checkNotNull(clock, "clock");
+	}
+	
+	void record(String command, long startNanos) {
+		long elapsedNanos = clock.nanoTime() - startNanos;
+		String helper = CommandScope.current();
+		
+		if (helper == null) {
+			helper = UNSCOPED;
+		}
+		
+		synchronized (this) {
+			LatencyHistogram histogram = histograms.get(helper, command);
+			
+			if (histogram == null) {
+				histogram = new LatencyHistogram();
+				histograms.put(helper, command, histogram);
+			}
+			
+			histogram.record(elapsedNanos);
+		}
+	}
+	
+	Clock getClock() {
+		return clock;
+	}
+	
+	public synchronized Set<String> getHelpers() {
+		return ImmutableSet.copyOf(histograms.rowKeySet());
+	}
+	
+	public synchronized Set<String> getCommands() {
+		return ImmutableSet.copyOf(histograms.columnKeySet());
+	}
+	
+	public synchronized long getCommandCount() {
+		return getTotal().getCount();
+	}
+	
+	public synchronized LatencyHistogram getTotal() {
+		return merge(histograms.values());
+	}
+	
+	public synchronized LatencyHistogram getHelper(String helper) {
+		return merge(histograms.row(helper).values());
+	}
+	
+	public synchronized LatencyHistogram getCommand(String command) {
+		return merge(histograms.column(command).values());
+	}
+	
+	public synchronized LatencyHistogram get(String helper, String command) {
+		LatencyHistogram histogram = histograms.get(helper, command);
+		
+		return histogram == null ? new LatencyHistogram() : histogram.copy();
+	}
+	
+	public synchronized void reset() {
+		histograms.clear();
+	}
+	
+	public synchronized String report() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(REPORT_FORMAT, "helper / command", "count", "total ms", "mean ms", "p50 ms",
+			"p95 ms", "max ms"));
+		
+		Map<String, LatencyHistogram> helpers = new HashMap<>();
+		for (String helper : histograms.rowKeySet()) {
+			helpers.put(helper, getHelper(helper));
+		}
+		
+		for (String helper : sortByTotal(helpers)) {
+			appendReportLine(report, helper, helpers.get(helper));
+			
+			Map<String, LatencyHistogram> commands = histograms.row(helper);
+			for (String command : sortByTotal(commands)) {
+				appendReportLine(report, "  " + command, commands.get(command));
+			}
+		}
+		
+		appendReportLine(report, "total", getTotal());
+		
+		return report.toString();
+	}
+	
+	@Override
+	public String toString() {
+		return report();
+	}
+	
+	private static List<String> sortByTotal(final Map<String, LatencyHistogram> histograms) {
+		List<String> keys = new ArrayList<>(histograms.keySet());
+		
+		Collections.sort(keys, new Comparator<String>() {
+			@Override
+			public int compare(String key1, String key2) {
+				return Long.compare(histograms.get(key2).getTotal(TimeUnit.NANOSECONDS),
+					histograms.get(key1).getTotal(TimeUnit.NANOSECONDS));
+			}
+		});
+		
+		return keys;
+	}
+	
+	private static void appendReportLine(StringBuilder report, String name, LatencyHistogram histogram) {
+		report.append(String.format(REPORT_FORMAT, name, histogram.getCount(),
+			toMillis(histogram.getTotal(TimeUnit.MICROSECONDS)), toMillis(histogram.getMean(TimeUnit.MICROSECONDS)),
+			toMillis(histogram.getPercentile(50, TimeUnit.MICROSECONDS)),
+			toMillis(histogram.getPercentile(95, TimeUnit.MICROSECONDS)),
+			toMillis(histogram.getMax(TimeUnit.MICROSECONDS))));
+	}
+	
+	private static String toMillis(long micros) {
+		return String.format("%.1f", micros / 1000.0);
+	}
+	
+	private static LatencyHistogram merge(Iterable<LatencyHistogram> histograms) {
+		LatencyHistogram merged = new LatencyHistogram();
+		
+		for (LatencyHistogram histogram : histograms) {
+			merged.merge(histogram);
+		}
+		
+		return merged;
+	}
+}
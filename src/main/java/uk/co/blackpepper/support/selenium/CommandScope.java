@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Names the code responsible for driver commands so that {@link InstrumentedWebDriver} can attribute them. Scopes
+ * nest, are attributed to the outermost scope and must be closed in reverse order:
+ * 
+ * <pre>
+ * CommandScope scope = CommandScope.enter("LoginPage.login");
+ * try {
+ *     ...
+ * }
+ * finally {
+ *     scope.close();
+ * }
+ * </pre>
+ */
+public final class CommandScope {
+	
+	private static final ThreadLocal<CommandScope> CURRENT = new ThreadLocal<>();
+	
+	private final String name;
+	
+	private final CommandScope parent;
+	
+	private final String outermostName;
+	
+	private CommandScope(String name, CommandScope parent) {
+		this.name = checkNotNull(name, "name");
+		this.parent = parent;
+		outermostName = (parent == null) ? name : parent.outermostName;
+	}
+	
+	public static CommandScope enter(String name) {
+		CommandScope scope = new CommandScope(name, CURRENT.get());
+		CURRENT.set(scope);
+		return scope;
+	}
+	
+	/**
+	 * @return the name of the outermost scope on the current thread, or {@code null} if there is none
+	 */
+	public static String current() {
+		CommandScope scope = CURRENT.get();
+		
+		return (scope == null) ? null : scope.outermostName;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @throws IllegalStateException
+	 *             if this is not the innermost scope on the current thread
+	 */
+	public void close() {
+		checkState(CURRENT.get() == this, "Scope is not the innermost scope on this thread: %s", name);
+		
+		if (parent == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(parent);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class CompositeCondition implements ExpectedCondition<Boolean> {
+
+	private static final int COST_SMOOTHING = 3;
+	
+	private final boolean all;
+	
+	private final List<ExpectedCondition<?>> conditions;
+	
+	private final Clock clock;
+	
+	private final long[] costs;
+	
+	private final Integer[] order;
+	
+	private Boolean lastResult;
+	
+	private ExpectedCondition<?> unsatisfied;
+	
+	/**
+	 * @param clock
+	 *            the clock to measure costs with so that the cheapest conditions are evaluated first, or {@code null}
+	 */
+	CompositeCondition(boolean all, Clock clock, ExpectedCondition<?>... conditions) {
+		checkArgument(conditions.length > 0, "conditions must not be empty");
+		
+		this.all = all;
+		this.conditions = ImmutableList.copyOf(conditions);
+		this.clock = clock;
+		costs = new long[conditions.length];
+		order = new Integer[conditions.length];
+		
+		for (int index = 0; index < order.length; index++) {
+			order[index] = index;
+		}
+	}
+	
+	@Override
+	public Boolean apply(WebDriver driver) {
+		if (clock != null) {
+			sortByCost();
+		}
+		
+		RuntimeException lastException = null;
+		unsatisfied = null;
+		lastResult = null;
+		
+		for (int index : order) {
+			boolean satisfied;
+			
+			try {
+				satisfied = evaluate(index, driver);
+			}
+			catch (RuntimeException exception) {
+				if (all) {
+					unsatisfied = conditions.get(index);
+					throw exception;
+				}
+				
+				// Keep looking for a satisfied sub-condition as ExpectedConditions.or does
+				lastException = exception;
+				continue;
+			}
+			
+			if (satisfied != all) {
+				unsatisfied = all ? conditions.get(index) : null;
+				lastResult = !all;
+				return lastResult;
+			}
+		}
+		
+		if (lastException != null) {
+			throw lastException;
+		}
+		
+		lastResult = all;
+		return lastResult;
+	}
+	
+	@Override
+	public String toString() {
+		String description = String.format("%s of (%s)", all ? "all" : "any", Joiner.on(", ").join(conditions));
+		
+		if (unsatisfied != null) {
+			return String.format("%s. Unsatisfied: %s", description, unsatisfied);
+		}
+		
+		if (Boolean.FALSE.equals(lastResult)) {
+			return String.format("%s. None satisfied", description);
+		}
+		
+		return description;
+	}
+	
+	static boolean isSatisfied(Object result) {
+		return result != null && !Boolean.FALSE.equals(result);
+	}
+	
+	long[] getCosts() {
+		return costs.clone();
+	}
+	
+	private boolean evaluate(int index, WebDriver driver) {
+		if (clock == null) {
+			return isSatisfied(conditions.get(index).apply(driver));
+		}
+		
+		long start = clock.nanoTime();
+		try {
+			return isSatisfied(conditions.get(index).apply(driver));
+		}
+		finally {
+			long cost = Math.max(clock.nanoTime() - start, 1);
+			costs[index] = costs[index] == 0 ? cost : (costs[index] * COST_SMOOTHING + cost) / (COST_SMOOTHING + 1);
+		}
+	}
+	
+	private void sortByCost() {
+		// Stable so that unmeasured and equally costly sub-conditions keep their given order
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer index1, Integer index2) {
+				return Longs.compare(costs[index1], costs[index2]);
+			}
+		});
+	}
+}
@@ -15,7 +15,9 @@
  */
 package uk.co.blackpepper.support.selenium;
 
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -32,42 +34,128 @@ public final class ExpectedConditions2 {
 		return ExpectedConditions.not(ExpectedConditions.invisibilityOfElementLocated(locator));
 	}
 	
-	public static ExpectedCondition<Boolean> urlIs(final String url) {
+	/**
+	 * @return the indices of all the locators once satisfied
+	 */
+	public static ExpectedCondition<List<Integer>> visibilityOfAll(By... locators) {
+		return new VisibilityCondition(true, locators);
+	}
+	
+	/**
+	 * @return the indices of the locators that locate a visible element once satisfied
+	 */
+	public static ExpectedCondition<List<Integer>> visibilityOfAny(By... locators) {
+		return new VisibilityCondition(false, locators);
+	}
+	
+	public static ExpectedCondition<Boolean> urlIs(String url) {
+		return UrlCondition.is(url, false);
+	}
+	
+	public static ExpectedCondition<Boolean> urlStartsWith(String prefix) {
+		return UrlCondition.startsWith(prefix, false);
+	}
+	
+	public static ExpectedCondition<Boolean> urlMatches(Pattern pattern) {
+		return UrlCondition.matches(pattern, false);
+	}
+	
+	/**
+	 * Waits for navigation in the browser for up to a second per evaluation, so the driver's script timeout must be
+	 * longer. Falls back to polling {@link #urlIs(String)} without JavaScript.
+	 */
+	public static ExpectedCondition<Boolean> awaitUrlIs(String url) {
+		return UrlCondition.is(url, true);
+	}
+	
+	/**
+	 * @see #awaitUrlIs(String)
+	 */
+	public static ExpectedCondition<Boolean> awaitUrlStartsWith(String prefix) {
+		return UrlCondition.startsWith(prefix, true);
+	}
+	
+	/**
+	 * The pattern is evaluated as a JavaScript regular expression, honouring only {@link Pattern#CASE_INSENSITIVE}.
+	 * 
+	 * @see #awaitUrlIs(String)
+	 */
+	public static ExpectedCondition<Boolean> awaitUrlMatches(Pattern pattern) {
+		return UrlCondition.matches(pattern, true);
+	}
+	
+	public static ExpectedCondition<Boolean> and(final ExpectedCondition<Boolean> condition1,
+		final ExpectedCondition<Boolean> condition2) {
 		return new ExpectedCondition<Boolean>() {
 			
-			private String currentUrl;
-			
 			@Override
 			public Boolean apply(WebDriver driver) {
-				currentUrl = driver.getCurrentUrl();
-				return url.equals(currentUrl);
+				return CompositeCondition.isSatisfied(condition1.apply(driver))
+					&& CompositeCondition.isSatisfied(condition2.apply(driver));
 			}
 			
 			@Override
 			public String toString() {
-				return String.format("URL to be \"%s\". Current URL: \"%s\"", url, currentUrl);
+				return String.format("%s and %s", condition1, condition2);
 			}
 		};
 	}
 	
-	public static ExpectedCondition<Boolean> and(final ExpectedCondition<Boolean> condition1,
-		final ExpectedCondition<Boolean> condition2) {
+	/**
+	 * Stops at the first unsatisfied condition, which is reported by {@code toString}.
+	 */
+	public static ExpectedCondition<Boolean> allOf(ExpectedCondition<?>... conditions) {
+		return new CompositeCondition(true, null, conditions);
+	}
+	
+	/**
+	 * Evaluates the conditions that have proved cheapest first.
+	 */
+	public static ExpectedCondition<Boolean> allOfCheapestFirst(ExpectedCondition<?>... conditions) {
+		return new CompositeCondition(true, AdaptiveWebDriverWait.getDefaultClock(), conditions);
+	}
+	
+	/**
+	 * Exceptions thrown by conditions are only propagated if no condition is satisfied.
+	 */
+	public static ExpectedCondition<Boolean> anyOf(ExpectedCondition<?>... conditions) {
+		return new CompositeCondition(false, null, conditions);
+	}
+	
+	/**
+	 * Evaluates the conditions that have proved cheapest first.
+	 */
+	public static ExpectedCondition<Boolean> anyOfCheapestFirst(ExpectedCondition<?>... conditions) {
+		return new CompositeCondition(false, AdaptiveWebDriverWait.getDefaultClock(), conditions);
+	}
+	
+	public static ExpectedCondition<Boolean> not(final ExpectedCondition<?> condition) {
 		return new ExpectedCondition<Boolean>() {
 			
 			@Override
 			public Boolean apply(WebDriver driver) {
-				Boolean value1 = condition1.apply(driver);
-				Boolean value2 = condition2.apply(driver);
-				return value1 && value2;
+				return !CompositeCondition.isSatisfied(condition.apply(driver));
 			}
 			
 			@Override
 			public String toString() {
-				return String.format("%s and %s", condition1, condition2);
+				return String.format("not (%s)", condition);
 			}
 		};
 	}
 	
+	public static ExpectedCondition<Boolean> inBrowser(BrowserPredicate predicate) {
+		return new BrowserCondition(predicate, false);
+	}
+	
+	/**
+	 * Rechecks the predicate in the browser for up to a second per evaluation, so the driver's script timeout must be
+	 * longer.
+	 */
+	public static ExpectedCondition<Boolean> awaitInBrowser(BrowserPredicate predicate) {
+		return new BrowserCondition(predicate, true);
+	}
+	
 	public static ExpectedCondition<Boolean> anotherWindowToBeAvailableAndSwitchToIt() {
 		return new ExpectedCondition<Boolean>() {
 			@Override
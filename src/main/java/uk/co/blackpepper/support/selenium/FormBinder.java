@@ -0,0 +1,326 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.WebElement;
+
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.primitives.Primitives;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Binds bean properties of type {@code String}, {@code boolean}, {@code int}, {@code long}, their wrappers or enums to
+ * the form controls with the same name, or the name given by {@link FormControlName}. Binders are cached per bean
+ * class, and properties are accessed through method handles created with the binder.
+ * 
+ * @param <T>
+ *            the type of bean
+ */
+public final class FormBinder<T> {
+	
+	private static final Map<Class<?>, Function<String, ?>> CONVERTERS = ImmutableMap.<Class<?>, Function<String, ?>>of(
+		String.class, new Function<String, String>() {
+			@Override
+			public String apply(String value) {
+				return value;
+			}
+		},
+		Boolean.class, new Function<String, Boolean>() {
+			@Override
+			public Boolean apply(String value) {
+				return Boolean.valueOf(value);
+			}
+		},
+		Integer.class, new Function<String, Integer>() {
+			@Override
+			public Integer apply(String value) {
+				return value.isEmpty() ? null : Integer.valueOf(value);
+			}
+		},
+		Long.class, new Function<String, Long>() {
+			@Override
+			public Long apply(String value) {
+				return value.isEmpty() ? null : Long.valueOf(value);
+			}
+		}
+	);
+	
+	// Binders strongly reference their class, so soft values are needed for entries to ever be collected
+	private static final LoadingCache<Class<?>, FormBinder<?>> BINDERS = CacheBuilder.newBuilder()
+		.weakKeys()
+		.softValues()
+		.build(new CacheLoader<Class<?>, FormBinder<?>>() {
+			@Override
+			public FormBinder<?> load(Class<?> type) {
+				return newFormBinder(type);
+			}
+		});
+	
+	private final Class<T> type;
+	
+	private final List<Binding> bindings;
+	
+	private FormBinder(Class<T> type, List<Binding> bindings) {
+		this.type = checkNotNull(type, "type");
+		this.bindings = ImmutableList.copyOf(bindings);
+	}
+	
+	/**
+	 * @throws IllegalArgumentException
+	 *             if a property annotated with {@link FormControlName} is of an unsupported type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> FormBinder<T> of(Class<T> type) {
+		try {
+			return (FormBinder<T>) BINDERS.getUnchecked(type);
+		}
+		catch (UncheckedExecutionException exception) {
+			throw Throwables.propagate(exception.getCause());
+		}
+	}
+	
+	public Class<T> getType() {
+		return type;
+	}
+	
+	/**
+	 * Properties whose control is not present are left unchanged.
+	 */
+	public T read(WebElement form, T bean) {
+		CommandScope scope = CommandScope.enter("FormBinder.read");
+		try {
+			ListMultimap<String, FormControl> controlsByName = ArrayListMultimap.create();
+			
+			for (FormControl control : FormUtils.readForm(form)) {
+				controlsByName.put(control.getName(), control);
+			}
+			
+			for (Binding binding : bindings) {
+				List<FormControl> controls = controlsByName.get(binding.getName());
+				
+				if (!controls.isEmpty()) {
+					binding.read(bean, controls);
+				}
+			}
+			
+			return bean;
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * Properties that are {@code null} are not written.
+	 */
+	public void write(T bean, WebElement form) {
+		CommandScope scope = CommandScope.enter("FormBinder.write");
+		try {
+			Map<String, Object> values = new LinkedHashMap<>();
+			
+			for (Binding binding : bindings) {
+				Object value = binding.write(bean);
+				
+				if (value != null) {
+					values.put(binding.getName(), value);
+				}
+			}
+			
+			FormUtils.fillForm(form, values);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	private static <T> FormBinder<T> newFormBinder(Class<T> type) {
+		BeanInfo beanInfo;
+		try {
+			beanInfo = Introspector.getBeanInfo(type, Object.class);
+		}
+		catch (IntrospectionException exception) {
+			throw new IllegalArgumentException(String.format("Cannot introspect %s", type.getName()), exception);
+		}
+		
+		ImmutableList.Builder<Binding> bindings = ImmutableList.builder();
+		
+		for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+			Method getter = property.getReadMethod();
+			Method setter = property.getWriteMethod();
+			
+			if (getter == null || setter == null) {
+				continue;
+			}
+			
+			FormControlName annotation = getAnnotation(type, property);
+			Class<?> propertyType = property.getPropertyType();
+			
+			if (!isSupported(propertyType)) {
+				if (annotation != null) {
+					throw new IllegalArgumentException(String.format("Unsupported form property type: %s.%s",
+						type.getName(), property.getName()));
+				}
+				
+				continue;
+			}
+			
+			String name = annotation != null ? annotation.value() : property.getName();
+			bindings.add(new Binding(name, propertyType, getter, setter));
+		}
+		
+		return new FormBinder<>(type, bindings.build());
+	}
+	
+	private static FormControlName getAnnotation(Class<?> type, PropertyDescriptor property) {
+		FormControlName annotation = property.getReadMethod().getAnnotation(FormControlName.class);
+		
+		for (Class<?> clazz = type; annotation == null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			try {
+				Field field = clazz.getDeclaredField(property.getName());
+				annotation = field.getAnnotation(FormControlName.class);
+			}
+			catch (NoSuchFieldException exception) {
+				// Try superclass
+			}
+		}
+		
+		return annotation;
+	}
+	
+	private static boolean isSupported(Class<?> propertyType) {
+		return propertyType.isEnum() || CONVERTERS.containsKey(Primitives.wrap(propertyType));
+	}
+	
+	private static final class Binding {
+		
+		private final String name;
+		
+		private final Class<?> type;
+		
+		private final MethodHandle getter;
+		
+		private final MethodHandle setter;
+		
+		Binding(String name, Class<?> type, Method getter, Method setter) {
+			this.name = name;
+			this.type = type;
+			this.getter = unreflect(getter).asType(MethodType.methodType(Object.class, Object.class));
+			this.setter = unreflect(setter).asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		
+		String getName() {
+			return name;
+		}
+		
+		void read(Object bean, List<FormControl> controls) {
+			Object value = fromString(getValue(controls));
+			
+			if (value != null || !type.isPrimitive()) {
+				try {
+					setter.invokeExact(bean, value);
+				}
+				catch (Throwable throwable) {
+					throw Throwables.propagate(throwable);
+				}
+			}
+		}
+		
+		Object write(Object bean) {
+			Object value;
+			try {
+				value = (Object) getter.invokeExact(bean);
+			}
+			catch (Throwable throwable) {
+				throw Throwables.propagate(throwable);
+			}
+			
+			if (value instanceof Enum) {
+				return ((Enum<?>) value).name();
+			}
+			
+			return value;
+		}
+		
+		private String getValue(List<FormControl> controls) {
+			FormControl first = controls.get(0);
+			boolean checkable = "checkbox".equals(first.getType()) || "radio".equals(first.getType());
+			
+			if (!checkable) {
+				return first.getValue();
+			}
+			
+			if (Primitives.wrap(type) == Boolean.class) {
+				return String.valueOf(first.isChecked());
+			}
+			
+			for (FormControl control : controls) {
+				if (control.isChecked()) {
+					return control.getValue();
+				}
+			}
+			
+			return "";
+		}
+		
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Object fromString(String value) {
+			if (type.isEnum()) {
+				return value.isEmpty() ? null : Enum.valueOf((Class<Enum>) type, value);
+			}
+			
+			return CONVERTERS.get(Primitives.wrap(type)).apply(value);
+		}
+		
+		private static MethodHandle unreflect(Method method) {
+			try {
+				method.setAccessible(true);
+			}
+			catch (SecurityException exception) {
+				// Only public methods of public classes can then be bound
+			}
+			
+			try {
+				return MethodHandles.lookup().unreflect(method);
+			}
+			catch (IllegalAccessException exception) {
+				throw new IllegalArgumentException(String.format("Cannot access %s", method), exception);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reports only the controls that changed. Without JavaScript it falls back to comparing {@link FormSnapshot}s.
+ */
+public final class FormChangeTracker {
+	
+	private static final String TRACK_SCRIPT = FormUtils.CONTROL_STATE_FUNCTION
+		+ "function sameValues(values1, values2) {"
+		+ "  if (values1.length != values2.length) return false;"
+		+ "  for (var j = 0; j < values1.length; j++) {"
+		+ "    if (values1[j] !== values2[j]) return false;"
+		+ "  }"
+		+ "  return true;"
+		+ "}"
+		+ "var form = arguments[0], install = arguments[2], id = arguments[3];"
+		+ "var trackers = form.__formChangeTrackers = form.__formChangeTrackers || {}, previous = trackers[id];"
+		+ "var controls = form.querySelectorAll(arguments[1]), states = {}, occurrences = {}, changed = [];"
+		+ "for (var i = 0; i < controls.length; i++) {"
+		+ "  var control = controls[i];"
+		+ "  if (!control.name) continue;"
+		+ "  var checkable = control.type == 'checkbox' || control.type == 'radio';"
+		+ "  var key = control.name + '\\u0000' + control.type + '\\u0000' + (checkable ? control.value : '');"
+		+ "  occurrences[key] = (occurrences[key] || 0) + 1;"
+		+ "  key += '\\u0000' + occurrences[key];"
+		+ "  var state = controlState(control), old = previous && previous[key];"
+		+ "  if (!install && (!old || !sameValues(old.values, state.values) || old.checked !== state.checked"
+		+ "    || old.disabled !== state.disabled)) {"
+		+ "    changed.push(state);"
+		+ "  }"
+		+ "  states[key] = state;"
+		+ "}"
+		+ "trackers[id] = states;"
+		+ "return changed;";
+	
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+	
+	private final WebElement form;
+	
+	private final JavascriptExecutor executor;
+	
+	private final String id = String.valueOf(NEXT_ID.incrementAndGet());
+	
+	private FormSnapshot baseline;
+	
+	private FormChangeTracker(WebElement form) {
+		this.form = checkNotNull(form, "form");
+		executor = JavascriptExecutors.forContext(form);
+		
+		if (executor == null) {
+			baseline = FormSnapshot.of(form);
+		}
+		else {
+			executor.executeScript(TRACK_SCRIPT, form, FormUtils.CONTROLS_SELECTOR, true, id);
+		}
+	}
+	
+	public static FormChangeTracker install(WebElement form) {
+		CommandScope scope = CommandScope.enter("FormChangeTracker.install");
+		try {
+			return new FormChangeTracker(form);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * Gets the controls that have changed since the tracker was installed or last drained.
+	 */
+	public List<FormControl> drain() {
+		CommandScope scope = CommandScope.enter("FormChangeTracker.drain");
+		try {
+			if (executor == null) {
+				FormSnapshot current = FormSnapshot.of(form);
+				List<FormControl> changed = current.diff(baseline);
+				baseline = current;
+				return changed;
+			}
+			
+			List<?> results = (List<?>) executor.executeScript(TRACK_SCRIPT, form, FormUtils.CONTROLS_SELECTOR, false,
+				id);
+			ImmutableList.Builder<FormControl> changed = ImmutableList.builder();
+			
+			for (Object result : results) {
+				changed.add(FormUtils.toFormControl((Map<?, ?>) result));
+			}
+			
+			return changed.build();
+		}
+		finally {
+			scope.close();
+		}
+	}
+}
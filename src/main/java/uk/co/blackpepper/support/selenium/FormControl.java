@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+import static java.util.Collections.singletonList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class FormControl {
+	
+	private final String name;
+	
+	private final String type;
+	
+	private final List<String> values;
+	
+	private final boolean checked;
+	
+	private final boolean disabled;
+	
+	public FormControl(String name, String type, String value, boolean checked, boolean disabled) {
+		this(name, type, singletonList(checkNotNull(value, "value")), checked, disabled);
+	}
+	
+	public FormControl(String name, String type, List<String> values, boolean checked, boolean disabled) {
+		this.name = checkNotNull(name, "name");
+		this.type = checkNotNull(type, "type");
+		this.values = ImmutableList.copyOf(checkNotNull(values, "values"));
+		this.checked = checked;
+		this.disabled = disabled;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public String getType() {
+		return type;
+	}
+	
+	public String getValue() {
+		return values.isEmpty() ? "" : values.get(0);
+	}
+	
+	/**
+	 * Gets the selected values of a multiple select, otherwise the single value.
+	 */
+	public List<String> getValues() {
+		return values;
+	}
+	
+	public boolean isChecked() {
+		return checked;
+	}
+	
+	public boolean isDisabled() {
+		return disabled;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof FormControl)) {
+			return false;
+		}
+		
+		FormControl control = (FormControl) object;
+		
+		return name.equals(control.getName())
+			&& type.equals(control.getType())
+			&& values.equals(control.getValues())
+			&& checked == control.isChecked()
+			&& disabled == control.isDisabled();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(name, type, values, checked, disabled);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("name", name)
+			.add("type", type)
+			.add("values", values)
+			.add("checked", checked)
+			.add("disabled", disabled)
+			.toString();
+	}
+}
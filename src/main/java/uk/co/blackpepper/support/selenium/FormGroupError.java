@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.openqa.selenium.WebElement;
+
+import com.google.common.base.Objects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class FormGroupError {
+	
+	private final WebElement control;
+	
+	private final String name;
+	
+	private final String helpText;
+	
+	public FormGroupError(WebElement control, String name, String helpText) {
+		this.control = checkNotNull(control, "control");
+		this.name = checkNotNull(name, "name");
+		this.helpText = checkNotNull(helpText, "helpText");
+	}
+	
+	public WebElement getControl() {
+		return control;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public String getHelpText() {
+		return helpText;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof FormGroupError)) {
+			return false;
+		}
+		
+		FormGroupError error = (FormGroupError) object;
+		
+		return control.equals(error.getControl())
+			&& name.equals(error.getName())
+			&& helpText.equals(error.getHelpText());
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(control, name, helpText);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("name", name)
+			.add("helpText", helpText)
+			.toString();
+	}
+}
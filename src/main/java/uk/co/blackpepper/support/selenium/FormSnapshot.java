@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.WebElement;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class FormSnapshot {
+	
+	private final List<FormControl> controls;
+	
+	private final Map<String, FormControl> controlsByKey;
+	
+	public FormSnapshot(List<FormControl> controls) {
+		this.controls = ImmutableList.copyOf(checkNotNull(controls, "controls"));
+		controlsByKey = indexByKey(this.controls);
+	}
+	
+	public static FormSnapshot of(WebElement form) {
+		return new FormSnapshot(FormUtils.readForm(form));
+	}
+	
+	public List<FormControl> getControls() {
+		return controls;
+	}
+	
+	/**
+	 * Gets the controls that differ from the earlier snapshot, matching controls by name, type, checkbox or radio
+	 * value and position. Controls that have been removed are not included.
+	 */
+	public List<FormControl> diff(FormSnapshot previous) {
+		ImmutableList.Builder<FormControl> changed = ImmutableList.builder();
+		
+		for (Map.Entry<String, FormControl> entry : controlsByKey.entrySet()) {
+			if (!entry.getValue().equals(previous.controlsByKey.get(entry.getKey()))) {
+				changed.add(entry.getValue());
+			}
+		}
+		
+		return changed.build();
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof FormSnapshot)) {
+			return false;
+		}
+		
+		FormSnapshot snapshot = (FormSnapshot) object;
+		
+		return controls.equals(snapshot.getControls());
+	}
+	
+	@Override
+	public int hashCode() {
+		return controls.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("controls", controls)
+			.toString();
+	}
+	
+	private static Map<String, FormControl> indexByKey(List<FormControl> controls) {
+		Map<String, FormControl> controlsByKey = new LinkedHashMap<>();
+		Map<String, Integer> occurrences = new LinkedHashMap<>();
+		
+		for (FormControl control : controls) {
+			String key = getKey(control);
+			Integer occurrence = occurrences.containsKey(key) ? occurrences.get(key) + 1 : 1;
+			occurrences.put(key, occurrence);
+			controlsByKey.put(key + '\u0000' + occurrence, control);
+		}
+		
+		return controlsByKey;
+	}
+	
+	private static String getKey(FormControl control) {
+		boolean checkable = "checkbox".equals(control.getType()) || "radio".equals(control.getType());
+		
+		return control.getName() + '\u0000' + control.getType() + '\u0000' + (checkable ? control.getValue() : "");
+	}
+}
@@ -15,94 +15,581 @@
  */
 package uk.co.blackpepper.support.selenium;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Booleans;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class FormUtils {
 	
+	private static final Splitter CLASS_SPLITTER = Splitter.on(CharMatcher.WHITESPACE).omitEmptyStrings();
+	
+	static final String CONTROLS_SELECTOR = "input, select, textarea";
+	
+	static final String CONTROL_STATE_FUNCTION = ""
+		+ "function controlState(control) {"
+		+ "  var values = [];"
+		+ "  if (control.type == 'select-multiple') {"
+		+ "    for (var j = 0; j < control.options.length; j++) {"
+		+ "      if (control.options[j].selected) values.push(control.options[j].value);"
+		+ "    }"
+		+ "  } else {"
+		+ "    values.push(control.value);"
+		+ "  }"
+		+ "  return {name: control.name, type: control.type, values: values, checked: !!control.checked,"
+		+ "    disabled: !!control.disabled};"
+		+ "}";
+	
+	private static final String READ_FORM_SCRIPT = "/* FormUtils.readForm */"
+		+ CONTROL_STATE_FUNCTION
+		+ "var controls = arguments[0].querySelectorAll(arguments[1]), result = [];"
+		+ "for (var i = 0; i < controls.length; i++) {"
+		+ "  if (controls[i].name) result.push(controlState(controls[i]));"
+		+ "}"
+		+ "return result;";
+	
+	private static final String GET_OPTIONS_SCRIPT = ""
+		+ "var options = arguments[0].options, result = [];"
+		+ "for (var i = 0; i < options.length; i++) {"
+		+ "  var option = options[i];"
+		+ "  result.push({value: option.value, label: option.text, selected: option.selected,"
+		+ "    disabled: option.disabled});"
+		+ "}"
+		+ "return result;";
+	
+	private static final String GET_FORM_GROUP_ERRORS_SCRIPT = ""
+		+ "var groups = arguments[0].querySelectorAll('.form-group.has-error'), result = [];"
+		+ "for (var i = 0; i < groups.length; i++) {"
+		+ "  var help = groups[i].querySelector('.help-block');"
+		+ "  var helpText = help ? (help.innerText !== undefined ? help.innerText : help.textContent).trim() : '';"
+		+ "  var controls = groups[i].querySelectorAll(arguments[1]);"
+		+ "  for (var j = 0; j < controls.length; j++) {"
+		+ "    result.push({control: controls[j], name: controls[j].name, helpText: helpText});"
+		+ "  }"
+		+ "}"
+		+ "return result;";
+	
+	private static final String HAS_FORM_GROUP_ERROR_SCRIPT = ""
+		+ "var group = arguments[0].parentNode;"
+		+ "if (group && group.closest) {"
+		+ "  group = group.closest('.form-group');"
+		+ "} else {"
+		+ "  while (group && !(group.classList && group.classList.contains('form-group'))) group = group.parentNode;"
+		+ "}"
+		+ "return !!group && group.classList.contains('has-error');";
+	
+	private static final String HAS_CLASSES_SCRIPT = ""
+		+ "var classList = arguments[0].classList, classNames = arguments[1], result = [];"
+		+ "for (var i = 0; i < classNames.length; i++) {"
+		+ "  result.push(classList.contains(classNames[i]));"
+		+ "}"
+		+ "return result;";
+	
+	private static final String CLASS_MEMBERSHIP_SCRIPT = ""
+		+ "var elements = arguments[0], result = [];"
+		+ "for (var i = 0; i < elements.length; i++) {"
+		+ "  result.push(elements[i].classList.contains(arguments[1]));"
+		+ "}"
+		+ "return result;";
+	
+	/**
+	 * JavaScript function {@code fireChangeEvents(control)} that fires {@code input}, {@code change} and {@code blur}.
+	 */
+	static final String FIRE_CHANGE_EVENTS_FUNCTION = ""
+		+ "function fireChangeEvents(control) {"
+		+ "  var types = ['input', 'change', 'blur'];"
+		+ "  for (var i = 0; i < types.length; i++) {"
+		+ "    var event = document.createEvent('HTMLEvents');"
+		+ "    event.initEvent(types[i], types[i] != 'blur', false);"
+		+ "    control.dispatchEvent(event);"
+		+ "  }"
+		+ "}";
+	
+	private static final String SET_SELECTED_VALUES_SCRIPT = FIRE_CHANGE_EVENTS_FUNCTION
+		+ "var select = arguments[0], values = arguments[1], found = {}, missing = [], changed = false;"
+		+ "for (var i = 0; i < select.options.length; i++) {"
+		+ "  var option = select.options[i], selected = values.indexOf(option.value) != -1;"
+		+ "  if (selected) found[option.value] = true;"
+		+ "  if (option.selected != selected) {"
+		+ "    option.selected = selected;"
+		+ "    changed = true;"
+		+ "  }"
+		+ "}"
+		+ "if (changed) fireChangeEvents(select);"
+		+ "for (var i = 0; i < values.length; i++) {"
+		+ "  if (!found[values[i]]) missing.push(values[i]);"
+		+ "}"
+		+ "return missing;";
+	
+	private static final String SET_CHECKBOX_GROUP_SCRIPT = FIRE_CHANGE_EVENTS_FUNCTION
+		+ "var checkboxes = (arguments[0] || document).querySelectorAll('input[type=checkbox]');"
+		+ "var name = arguments[1], values = arguments[2], found = {}, missing = [];"
+		+ "for (var i = 0; i < checkboxes.length; i++) {"
+		+ "  var checkbox = checkboxes[i];"
+		+ "  if (checkbox.name != name) continue;"
+		+ "  var checked = values.indexOf(checkbox.value) != -1;"
+		+ "  if (checked) found[checkbox.value] = true;"
+		+ "  if (checkbox.checked != checked) {"
+		+ "    checkbox.checked = checked;"
+		+ "    fireChangeEvents(checkbox);"
+		+ "  }"
+		+ "}"
+		+ "for (var i = 0; i < values.length; i++) {"
+		+ "  if (!found[values[i]]) missing.push(values[i]);"
+		+ "}"
+		+ "return missing;";
+	
+	private static final String FILL_FORM_SCRIPT = "/* FormUtils.fillForm */"
+		+ FIRE_CHANGE_EVENTS_FUNCTION
+		+ "function contains(value, item) {"
+		+ "  return value instanceof Array ? value.indexOf(item) != -1 : String(value) == item;"
+		+ "}"
+		+ "var controls = arguments[0].querySelectorAll(arguments[1]), values = arguments[2], found = {}, missing = [];"
+		+ "var multiple = {}, matched = {};"
+		+ "function match(name, item) {"
+		+ "  multiple[name] = true;"
+		+ "  if (item != null) (matched[name] = matched[name] || {})[item] = true;"
+		+ "}"
+		+ "for (var i = 0; i < controls.length; i++) {"
+		+ "  var control = controls[i], name = control.name;"
+		+ "  if (!name || !values.hasOwnProperty(name)) continue;"
+		+ "  var value = values[name], changed = false;"
+		+ "  if (control.type == 'checkbox') {"
+		+ "    var checked = typeof value == 'boolean' ? value : contains(value, control.value);"
+		+ "    if (typeof value != 'boolean') match(name, checked ? control.value : null);"
+		+ "    changed = control.checked != checked;"
+		+ "    control.checked = checked;"
+		+ "    found[name] = true;"
+		+ "  } else if (control.type == 'radio') {"
+		+ "    if (contains(value, control.value)) {"
+		+ "      changed = !control.checked;"
+		+ "      control.checked = true;"
+		+ "      found[name] = true;"
+		+ "    }"
+		+ "  } else if (control.type == 'select-multiple') {"
+		+ "    match(name, null);"
+		+ "    for (var j = 0; j < control.options.length; j++) {"
+		+ "      var option = control.options[j], selected = contains(value, option.value);"
+		+ "      if (selected) match(name, option.value);"
+		+ "      changed = changed || option.selected != selected;"
+		+ "      option.selected = selected;"
+		+ "    }"
+		+ "    found[name] = true;"
+		+ "  } else if (control.type == 'select-one') {"
+		+ "    match(name, null);"
+		+ "    for (var j = 0; j < control.options.length; j++) {"
+		+ "      if (control.options[j].value == String(value)) {"
+		+ "        match(name, String(value));"
+		+ "        changed = control.value != String(value);"
+		+ "        control.value = String(value);"
+		+ "      }"
+		+ "    }"
+		+ "    found[name] = true;"
+		+ "  } else {"
+		+ "    changed = control.value != String(value);"
+		+ "    control.value = String(value);"
+		+ "    found[name] = true;"
+		+ "  }"
+		+ "  if (changed) fireChangeEvents(control);"
+		+ "}"
+		+ "for (var name in values) {"
+		+ "  if (!values.hasOwnProperty(name)) continue;"
+		+ "  if (!found[name]) {"
+		+ "    missing.push(name);"
+		+ "  } else if (multiple[name]) {"
+		+ "    var items = values[name] instanceof Array ? values[name] : [String(values[name])];"
+		+ "    for (var j = 0; j < items.length; j++) {"
+		+ "      if (!(matched[name] && matched[name][items[j]])) missing.push(name + '=' + items[j]);"
+		+ "    }"
+		+ "  }"
+		+ "}"
+		+ "return missing;";
+	
+	private static volatile ValueSetter defaultValueSetter = ValueSetters.keystrokes();
+	
 	private FormUtils() {
 		throw new AssertionError();
 	}
 	
+	public static List<FormControl> readForm(WebElement form) {
+		CommandScope scope = CommandScope.enter("FormUtils.readForm");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(form);
+			
+			if (executor == null) {
+				return readFormByElement(form);
+			}
+			
+			return readFormByScript(executor, form);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static void fillForm(WebElement form, Map<String, ?> values) {
+		fillForm(form, values, Collections.<String>emptySet());
+	}
+	
+	/**
+	 * Sets named controls: a {@code Boolean} checks a checkbox, an {@code Iterable} selects options or checks
+	 * checkboxes, and anything else is set as a string. Controls in {@code keystrokeNames} are typed.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if a control, or a radio, checkbox or option value, cannot be found
+	 */
+	public static void fillForm(WebElement form, Map<String, ?> values, Set<String> keystrokeNames) {
+		CommandScope scope = CommandScope.enter("FormUtils.fillForm");
+		try {
+			Map<String, Object> scriptValues = new LinkedHashMap<>();
+			
+			for (Entry<String, ?> entry : values.entrySet()) {
+				if (!keystrokeNames.contains(entry.getKey())) {
+					scriptValues.put(entry.getKey(), toScriptValue(entry.getValue()));
+				}
+			}
+			
+			if (!scriptValues.isEmpty()) {
+				JavascriptExecutor executor = JavascriptExecutors.forContext(form);
+				
+				if (executor == null) {
+					fillFormByElement(form, scriptValues);
+				}
+				else {
+					fillFormByScript(executor, form, scriptValues);
+				}
+			}
+			
+			for (String name : keystrokeNames) {
+				if (values.containsKey(name)) {
+					setControlValue(form.findElement(By.name(name)), String.valueOf(values.get(name)),
+						ValueSetters.keystrokes());
+				}
+			}
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
 	public static String getControlValue(WebElement control) {
-		return control.getAttribute("value");
+		CommandScope scope = CommandScope.enter("FormUtils.getControlValue");
+		try {
+			return control.getAttribute("value");
+		}
+		finally {
+			scope.close();
+		}
 	}
 	
 	public static void setControlValue(WebElement control, String value) {
-		control.clear();
-		control.sendKeys(value);
+		setControlValue(control, value, defaultValueSetter);
+	}
+	
+	public static void setControlValue(WebElement control, String value, ValueSetter valueSetter) {
+		CommandScope scope = CommandScope.enter("FormUtils.setControlValue");
+		try {
+			valueSetter.setValue(control, value);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static ValueSetter getDefaultValueSetter() {
+		return defaultValueSetter;
+	}
+	
+	/**
+	 * Defaults to {@link ValueSetters#keystrokes()}.
+	 */
+	public static void setDefaultValueSetter(ValueSetter valueSetter) {
+		defaultValueSetter = checkNotNull(valueSetter, "valueSetter");
 	}
 
 	public static void setCheckboxValue(WebElement checkbox, boolean checked) {
-		if (checkbox.isSelected() != checked) {
-			checkbox.click();
+		CommandScope scope = CommandScope.enter("FormUtils.setCheckboxValue");
+		try {
+			if (checkbox.isSelected() != checked) {
+				checkbox.click();
+			}
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @throws IllegalArgumentException
+	 *             if a value does not match any checkbox in the group
+	 */
+	public static void setCheckboxGroup(SearchContext context, String name, Set<String> values) {
+		CommandScope scope = CommandScope.enter("FormUtils.setCheckboxGroup");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(context);
+			
+			if (executor == null) {
+				setCheckboxGroupByElement(context, name, values);
+				return;
+			}
+			
+			Object root = context instanceof WebElement ? context : null;
+			List<?> missing = (List<?>) executor.executeScript(SET_CHECKBOX_GROUP_SCRIPT, root, name,
+				ImmutableList.copyOf(values));
+			checkNoneMissing("checkbox", missing);
+		}
+		finally {
+			scope.close();
 		}
 	}
 	
 	public static String getRadioValue(List<WebElement> radios) {
-		for (WebElement radio : radios) {
-			if (radio.isSelected()) {
-				return radio.getAttribute("value");
+		CommandScope scope = CommandScope.enter("FormUtils.getRadioValue");
+		try {
+			for (WebElement radio : radios) {
+				if (radio.isSelected()) {
+					return radio.getAttribute("value");
+				}
 			}
+			
+			return "";
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @return the value of the checked radio, or an empty string if none are checked
+	 */
+	public static String getRadioValue(SearchContext context, String name) {
+		CommandScope scope = CommandScope.enter("FormUtils.getRadioValue");
+		try {
+			List<WebElement> radios = context.findElements(byRadio(name, ":checked"));
+			
+			if (radios.isEmpty()) {
+				return "";
+			}
+			
+			return radios.get(0).getAttribute("value");
+		}
+		finally {
+			scope.close();
 		}
-		
-		return "";
 	}
 	
 	public static void setRadioValue(List<WebElement> radios, String value) {
-		for (WebElement radio : radios) {
-			if (value.equals(radio.getAttribute("value"))) {
-				radio.click();
+		CommandScope scope = CommandScope.enter("FormUtils.setRadioValue");
+		try {
+			for (WebElement radio : radios) {
+				if (value.equals(radio.getAttribute("value"))) {
+					radio.click();
+					return;
+				}
+			}
+			
+			throw new IllegalArgumentException(String.format("Unknown radio value: %s", value));
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @throws IllegalArgumentException
+	 *             if no radio in the group has the value
+	 */
+	public static void setRadioValue(SearchContext context, String name, String value) {
+		CommandScope scope = CommandScope.enter("FormUtils.setRadioValue");
+		try {
+			By locator = byRadio(name, String.format("[value=%s]", cssString(value)));
+			List<WebElement> radios = context.findElements(locator);
+			
+			if (radios.isEmpty()) {
+				throw new IllegalArgumentException(String.format("Unknown radio value: %s", value));
+			}
+			
+			radios.get(0).click();
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @throws IllegalArgumentException
+	 *             if a value does not match any option
+	 */
+	public static void setSelectedValues(WebElement element, Set<String> values) {
+		CommandScope scope = CommandScope.enter("FormUtils.setSelectedValues");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor == null) {
+				setSelectedValuesByElement(element, values);
 				return;
 			}
+			
+			List<?> missing = (List<?>) executor.executeScript(SET_SELECTED_VALUES_SCRIPT, element,
+				ImmutableList.copyOf(values));
+			checkNoneMissing("option", missing);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static List<SelectOption> getOptions(WebElement element) {
+		CommandScope scope = CommandScope.enter("FormUtils.getOptions");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor == null) {
+				return getOptionsByElement(element);
+			}
+			
+			return getOptionsByScript(executor, element);
+		}
+		finally {
+			scope.close();
 		}
-		
-		throw new IllegalArgumentException(String.format("Unknown radio value: %s", value));
 	}
 	
 	public static List<String> getOptionValues(WebElement element) {
-		List<WebElement> options = new Select(element).getOptions();
-		
-		return Lists.transform(options, new Function<WebElement, String>() {
-			@Override
-			public String apply(WebElement option) {
-				return option.getAttribute("value");
+		CommandScope scope = CommandScope.enter("FormUtils.getOptionValues");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor == null) {
+				List<WebElement> options = new Select(element).getOptions();
+				return Lists.newArrayList(Lists.transform(options, new Function<WebElement, String>() {
+					@Override
+					public String apply(WebElement option) {
+						return option.getAttribute("value");
+					}
+				}));
 			}
-		});
+			
+			return Lists.newArrayList(Lists.transform(getOptionsByScript(executor, element),
+				new Function<SelectOption, String>() {
+					@Override
+					public String apply(SelectOption option) {
+						return option.getValue();
+					}
+				}));
+		}
+		finally {
+			scope.close();
+		}
 	}
 	
 	public static List<String> getOptionLabels(WebElement element) {
-		List<WebElement> options = new Select(element).getOptions();
-		
-		return Lists.transform(options, new Function<WebElement, String>() {
-			@Override
-			public String apply(WebElement option) {
-				return option.getText();
+		CommandScope scope = CommandScope.enter("FormUtils.getOptionLabels");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor == null) {
+				List<WebElement> options = new Select(element).getOptions();
+				return Lists.newArrayList(Lists.transform(options, new Function<WebElement, String>() {
+					@Override
+					public String apply(WebElement option) {
+						return option.getText();
+					}
+				}));
 			}
-		});
+			
+			return Lists.newArrayList(Lists.transform(getOptionsByScript(executor, element),
+				new Function<SelectOption, String>() {
+					@Override
+					public String apply(SelectOption option) {
+						return option.getLabel();
+					}
+				}));
+		}
+		finally {
+			scope.close();
+		}
 	}
 	
 	public static boolean isEnabled(WebElement element) {
-		String disabled = element.getAttribute("disabled");
-		return !"true".equals(disabled);
+		CommandScope scope = CommandScope.enter("FormUtils.isEnabled");
+		try {
+			String disabled = element.getAttribute("disabled");
+			return !"true".equals(disabled);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * Gets every control within a Bootstrap form group that has the {@code has-error} class, with the group's help
+	 * text.
+	 */
+	public static List<FormGroupError> getFormGroupErrors(WebElement form) {
+		CommandScope scope = CommandScope.enter("FormUtils.getFormGroupErrors");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(form);
+			
+			if (executor == null) {
+				return getFormGroupErrorsByElement(form);
+			}
+			
+			return getFormGroupErrorsByScript(executor, form);
+		}
+		finally {
+			scope.close();
+		}
 	}
 	
 	public static boolean hasFormGroupError(WebElement element) {
-		List<WebElement> formGroups = element.findElements(byFormGroup());
-		
-		if (formGroups.isEmpty()) {
-			return false;
+		CommandScope scope = CommandScope.enter("FormUtils.hasFormGroupError");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor != null) {
+				return (Boolean) executor.executeScript(HAS_FORM_GROUP_ERROR_SCRIPT, element);
+			}
+			
+			List<WebElement> formGroups = element.findElements(byFormGroup());
+			
+			if (formGroups.isEmpty()) {
+				return false;
+			}
+			
+			return hasError(formGroups.iterator().next());
+		}
+		finally {
+			scope.close();
 		}
-		
-		return hasError(formGroups.iterator().next());
 	}
 	
 	public static boolean hasError(WebElement element) {
@@ -110,12 +597,343 @@ public final class FormUtils {
 	}
 	
 	public static boolean hasClass(WebElement element, String className) {
-		String cssClass = element.getAttribute("class");
-		Iterable<String> classes = Splitter.on(" ").split(cssClass);
-		
-		return Iterables.contains(classes, className);
+		CommandScope scope = CommandScope.enter("FormUtils.hasClass");
+		try {
+			String cssClass = element.getAttribute("class");
+			Iterable<String> classes = CLASS_SPLITTER.split(cssClass);
+			
+			return Iterables.contains(classes, className);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static boolean[] hasClasses(WebElement element, String... classNames) {
+		CommandScope scope = CommandScope.enter("FormUtils.hasClasses");
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(element);
+			
+			if (executor == null) {
+				Set<String> classes = ImmutableSet.copyOf(CLASS_SPLITTER.split(element.getAttribute("class")));
+				boolean[] result = new boolean[classNames.length];
+				
+				for (int index = 0; index < classNames.length; index++) {
+					result[index] = classes.contains(classNames[index]);
+				}
+				
+				return result;
+			}
+			
+			List<?> results = (List<?>) executor.executeScript(HAS_CLASSES_SCRIPT, element, asList(classNames));
+			
+			return Booleans.toArray(Lists.transform(results, new Function<Object, Boolean>() {
+				@Override
+				public Boolean apply(Object result) {
+					return Boolean.TRUE.equals(result);
+				}
+			}));
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @return the indexes of the elements that have the class
+	 */
+	public static BitSet classMembership(List<WebElement> elements, String className) {
+		CommandScope scope = CommandScope.enter("FormUtils.classMembership");
+		try {
+			BitSet membership = new BitSet(elements.size());
+			
+			if (elements.isEmpty()) {
+				return membership;
+			}
+			
+			JavascriptExecutor executor = JavascriptExecutors.forContext(elements.get(0));
+			
+			if (executor == null) {
+				for (int index = 0; index < elements.size(); index++) {
+					membership.set(index, hasClass(elements.get(index), className));
+				}
+				
+				return membership;
+			}
+			
+			List<?> results = (List<?>) executor.executeScript(CLASS_MEMBERSHIP_SCRIPT, elements, className);
+			
+			for (int index = 0; index < results.size(); index++) {
+				membership.set(index, Boolean.TRUE.equals(results.get(index)));
+			}
+			
+			return membership;
+		}
+		finally {
+			scope.close();
+		}
 	}
 
+	private static List<FormControl> readFormByScript(JavascriptExecutor executor, WebElement form) {
+		List<?> results = (List<?>) executor.executeScript(READ_FORM_SCRIPT, form, CONTROLS_SELECTOR);
+		ImmutableList.Builder<FormControl> controls = ImmutableList.builder();
+		
+		for (Object result : results) {
+			controls.add(toFormControl((Map<?, ?>) result));
+		}
+		
+		return controls.build();
+	}
+	
+	private static List<FormControl> readFormByElement(WebElement form) {
+		ImmutableList.Builder<FormControl> controls = ImmutableList.builder();
+		
+		for (WebElement element : form.findElements(By.cssSelector(CONTROLS_SELECTOR))) {
+			String name = element.getAttribute("name");
+			
+			if (!Strings.isNullOrEmpty(name)) {
+				String type = Strings.nullToEmpty(element.getAttribute("type"));
+				List<String> values = "select-multiple".equals(type) ? getSelectedValues(element)
+					: Collections.singletonList(Strings.nullToEmpty(element.getAttribute("value")));
+				controls.add(new FormControl(name, type, values, element.isSelected(), !element.isEnabled()));
+			}
+		}
+		
+		return controls.build();
+	}
+	
+	private static List<String> getSelectedValues(WebElement select) {
+		List<String> values = new ArrayList<>();
+		
+		for (WebElement option : new Select(select).getAllSelectedOptions()) {
+			values.add(Strings.nullToEmpty(option.getAttribute("value")));
+		}
+		
+		return values;
+	}
+	
+	private static Object toScriptValue(Object value) {
+		if (value instanceof Boolean) {
+			return value;
+		}
+		
+		if (value instanceof Iterable) {
+			return ImmutableList.copyOf(Iterables.transform((Iterable<?>) value, Functions.toStringFunction()));
+		}
+		
+		return String.valueOf(value);
+	}
+	
+	private static void fillFormByScript(JavascriptExecutor executor, WebElement form, Map<String, Object> values) {
+		List<?> missing = (List<?>) executor.executeScript(FILL_FORM_SCRIPT, form, CONTROLS_SELECTOR, values);
+		
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException(String.format("Unknown controls or values: %s", Joiner.on(", ")
+				.join(missing)));
+		}
+	}
+	
+	private static void fillFormByElement(WebElement form, Map<String, Object> values) {
+		for (Entry<String, Object> entry : values.entrySet()) {
+			List<WebElement> controls = form.findElements(By.name(entry.getKey()));
+			
+			if (controls.isEmpty()) {
+				throw new IllegalArgumentException(String.format("Unknown control: %s", entry.getKey()));
+			}
+			
+			setControlValue(controls, entry.getValue());
+		}
+	}
+	
+	private static void setControlValue(List<WebElement> controls, Object value) {
+		WebElement control = controls.get(0);
+		String type = control.getAttribute("type");
+		
+		if ("checkbox".equals(type) && value instanceof Boolean) {
+			for (WebElement checkbox : controls) {
+				setCheckboxValue(checkbox, (Boolean) value);
+			}
+		}
+		else if ("checkbox".equals(type)) {
+			Set<String> missing = new LinkedHashSet<>(toStrings(value));
+			
+			for (WebElement checkbox : controls) {
+				String checkboxValue = checkbox.getAttribute("value");
+				missing.remove(checkboxValue);
+				setCheckboxValue(checkbox, contains(value, checkboxValue));
+			}
+			
+			checkNoneMissing("checkbox", ImmutableList.copyOf(missing));
+		}
+		else if ("radio".equals(type)) {
+			setRadioValue(controls, value.toString());
+		}
+		else if ("select-multiple".equals(type)) {
+			Set<String> selectedValues = ImmutableSet.copyOf(toStrings(value));
+			checkNoneMissing("option", getMissingOptionValues(control, selectedValues));
+			
+			Select select = new Select(control);
+			select.deselectAll();
+			
+			for (String selectedValue : selectedValues) {
+				select.selectByValue(selectedValue);
+			}
+		}
+		else if ("select-one".equals(type)) {
+			checkNoneMissing("option", getMissingOptionValues(control, singleton(value.toString())));
+			new Select(control).selectByValue(value.toString());
+		}
+		else {
+			setControlValue(control, value.toString());
+		}
+	}
+	
+	private static List<String> toStrings(Object value) {
+		Iterable<?> items = value instanceof Iterable ? (Iterable<?>) value : singleton(value);
+		
+		return ImmutableList.copyOf(Iterables.transform(items, Functions.toStringFunction()));
+	}
+	
+	private static List<String> getMissingOptionValues(WebElement select, Set<String> values) {
+		Set<String> missing = new LinkedHashSet<>(values);
+		
+		for (WebElement option : new Select(select).getOptions()) {
+			missing.remove(option.getAttribute("value"));
+		}
+		
+		return ImmutableList.copyOf(missing);
+	}
+	
+	private static boolean contains(Object value, String item) {
+		if (value instanceof Iterable) {
+			return Iterables.contains((Iterable<?>) value, item);
+		}
+		
+		return value.toString().equals(item);
+	}
+	
+	private static void setCheckboxGroupByElement(SearchContext context, String name, Set<String> values) {
+		List<WebElement> checkboxes = context.findElements(By.cssSelector(String.format("input[type=checkbox][name=%s]",
+			cssString(name))));
+		Set<String> missing = new LinkedHashSet<>(values);
+		
+		for (WebElement checkbox : checkboxes) {
+			String value = checkbox.getAttribute("value");
+			missing.remove(value);
+			setCheckboxValue(checkbox, values.contains(value));
+		}
+		
+		checkNoneMissing("checkbox", ImmutableList.copyOf(missing));
+	}
+	
+	private static void setSelectedValuesByElement(WebElement element, Set<String> values) {
+		Set<String> missing = new LinkedHashSet<>(values);
+		
+		for (WebElement option : new Select(element).getOptions()) {
+			String value = option.getAttribute("value");
+			boolean selected = values.contains(value);
+			missing.remove(value);
+			
+			if (option.isSelected() != selected) {
+				option.click();
+			}
+		}
+		
+		checkNoneMissing("option", ImmutableList.copyOf(missing));
+	}
+	
+	private static void checkNoneMissing(String description, List<?> missing) {
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException(String.format("Unknown %s values: %s", description,
+				Joiner.on(", ").join(missing)));
+		}
+	}
+	
+	private static List<SelectOption> getOptionsByScript(JavascriptExecutor executor, WebElement element) {
+		List<?> results = (List<?>) executor.executeScript(GET_OPTIONS_SCRIPT, element);
+		ImmutableList.Builder<SelectOption> options = ImmutableList.builder();
+		
+		for (Object result : results) {
+			Map<?, ?> option = (Map<?, ?>) result;
+			
+			options.add(new SelectOption(
+				Strings.nullToEmpty((String) option.get("value")),
+				Strings.nullToEmpty((String) option.get("label")),
+				Boolean.TRUE.equals(option.get("selected")),
+				Boolean.TRUE.equals(option.get("disabled"))
+			));
+		}
+		
+		return options.build();
+	}
+	
+	private static List<SelectOption> getOptionsByElement(WebElement element) {
+		ImmutableList.Builder<SelectOption> options = ImmutableList.builder();
+		
+		for (WebElement option : new Select(element).getOptions()) {
+			options.add(new SelectOption(Strings.nullToEmpty(option.getAttribute("value")),
+				Strings.nullToEmpty(option.getText()), option.isSelected(), !option.isEnabled()));
+		}
+		
+		return options.build();
+	}
+	
+	private static List<FormGroupError> getFormGroupErrorsByScript(JavascriptExecutor executor, WebElement form) {
+		List<?> results = (List<?>) executor.executeScript(GET_FORM_GROUP_ERRORS_SCRIPT, form, CONTROLS_SELECTOR);
+		ImmutableList.Builder<FormGroupError> errors = ImmutableList.builder();
+		
+		for (Object result : results) {
+			Map<?, ?> error = (Map<?, ?>) result;
+			
+			errors.add(new FormGroupError(
+				(WebElement) error.get("control"),
+				Strings.nullToEmpty((String) error.get("name")),
+				Strings.nullToEmpty((String) error.get("helpText"))
+			));
+		}
+		
+		return errors.build();
+	}
+	
+	private static List<FormGroupError> getFormGroupErrorsByElement(WebElement form) {
+		ImmutableList.Builder<FormGroupError> errors = ImmutableList.builder();
+		
+		for (WebElement formGroup : form.findElements(By.cssSelector(".form-group.has-error"))) {
+			List<WebElement> helpBlocks = formGroup.findElements(By.cssSelector(".help-block"));
+			String helpText = helpBlocks.isEmpty() ? "" : helpBlocks.get(0).getText();
+			
+			for (WebElement control : formGroup.findElements(By.cssSelector(CONTROLS_SELECTOR))) {
+				errors.add(new FormGroupError(control, Strings.nullToEmpty(control.getAttribute("name")), helpText));
+			}
+		}
+		
+		return errors.build();
+	}
+	
+	static FormControl toFormControl(Map<?, ?> result) {
+		List<String> values = new ArrayList<>();
+		
+		for (Object value : (List<?>) result.get("values")) {
+			values.add(Strings.nullToEmpty((String) value));
+		}
+		
+		return new FormControl(
+			Strings.nullToEmpty((String) result.get("name")),
+			Strings.nullToEmpty((String) result.get("type")),
+			values,
+			Boolean.TRUE.equals(result.get("checked")),
+			Boolean.TRUE.equals(result.get("disabled"))
+		);
+	}
+	
+	private static By byRadio(String name, String filter) {
+		return By.cssSelector(String.format("input[type=radio][name=%s]%s", cssString(name), filter));
+	}
+	
+	private static String cssString(String value) {
+		return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+	}
+	
 	private static By byFormGroup() {
 		return By.xpath("ancestor::*[contains(concat(' ', @class, ' '), ' form-group ')]");
 	}
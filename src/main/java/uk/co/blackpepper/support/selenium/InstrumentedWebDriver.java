@@ -0,0 +1,783 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.HasInputDevices;
+import org.openqa.selenium.interactions.Keyboard;
+import org.openqa.selenium.interactions.Mouse;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.logging.Logs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Records the latency of each command into {@link CommandMetrics}. The objects returned by {@link Options#window()},
+ * {@link Options#ime()}, {@link Options#logs()} and {@link TargetLocator#alert()} are not instrumented.
+ */
+public class InstrumentedWebDriver implements WebDriver, WrapsDriver {
+	
+	private static class JavascriptInstrumentedWebDriver extends InstrumentedWebDriver implements JavascriptExecutor {
+		
+		JavascriptInstrumentedWebDriver(WebDriver driver, CommandMetrics metrics) {
+			super(driver, metrics);
+		}
+		
+		@Override
+		public Object executeScript(String script, Object... args) {
+			long startNanos = start();
+			try {
+				JavascriptExecutor executor = (JavascriptExecutor) getWrappedDriver();
+				return wrapResult(executor.executeScript(script, unwrapArgs(args)));
+			}
+			finally {
+				end("executeScript", startNanos);
+			}
+		}
+		
+		@Override
+		public Object executeAsyncScript(String script, Object... args) {
+			long startNanos = start();
+			try {
+				JavascriptExecutor executor = (JavascriptExecutor) getWrappedDriver();
+				return wrapResult(executor.executeAsyncScript(script, unwrapArgs(args)));
+			}
+			finally {
+				end("executeAsyncScript", startNanos);
+			}
+		}
+	}
+	
+	private static class InputInstrumentedWebDriver extends InstrumentedWebDriver implements HasInputDevices {
+		
+		InputInstrumentedWebDriver(WebDriver driver, CommandMetrics metrics) {
+			super(driver, metrics);
+		}
+		
+		@Override
+		public Keyboard getKeyboard() {
+			return instrumentKeyboard(((HasInputDevices) getWrappedDriver()).getKeyboard());
+		}
+		
+		@Override
+		public Mouse getMouse() {
+			return instrumentMouse(((HasInputDevices) getWrappedDriver()).getMouse());
+		}
+	}
+	
+	private static class JavascriptInputInstrumentedWebDriver extends JavascriptInstrumentedWebDriver
+		implements HasInputDevices {
+		
+		JavascriptInputInstrumentedWebDriver(WebDriver driver, CommandMetrics metrics) {
+			super(driver, metrics);
+		}
+		
+		@Override
+		public Keyboard getKeyboard() {
+			return instrumentKeyboard(((HasInputDevices) getWrappedDriver()).getKeyboard());
+		}
+		
+		@Override
+		public Mouse getMouse() {
+			return instrumentMouse(((HasInputDevices) getWrappedDriver()).getMouse());
+		}
+	}
+	
+	private final WebDriver driver;
+	
+	private final CommandMetrics metrics;
+	
+	InstrumentedWebDriver(WebDriver driver, CommandMetrics metrics) {
+		this.driver = checkNotNull(driver, "driver");
+		this.metrics = checkNotNull(metrics, "metrics");
+	}
+	
+	/**
+	 * The returned driver implements {@link JavascriptExecutor} and {@link HasInputDevices} only if the specified
+	 * driver does.
+	 */
+	public static InstrumentedWebDriver instrument(WebDriver driver, CommandMetrics metrics) {
+		boolean input = driver instanceof HasInputDevices;
+		
+		if (driver instanceof JavascriptExecutor) {
+			return input ? new JavascriptInputInstrumentedWebDriver(driver, metrics)
+				: new JavascriptInstrumentedWebDriver(driver, metrics);
+		}
+		
+		return input ? new InputInstrumentedWebDriver(driver, metrics) : new InstrumentedWebDriver(driver, metrics);
+	}
+	
+	public CommandMetrics getMetrics() {
+		return metrics;
+	}
+	
+	@Override
+	public WebDriver getWrappedDriver() {
+		return driver;
+	}
+	
+	@Override
+	public void get(String url) {
+		long startNanos = start();
+		try {
+			driver.get(url);
+		}
+		finally {
+			end("get", startNanos);
+		}
+	}
+	
+	@Override
+	public String getCurrentUrl() {
+		long startNanos = start();
+		try {
+			return driver.getCurrentUrl();
+		}
+		finally {
+			end("getCurrentUrl", startNanos);
+		}
+	}
+	
+	@Override
+	public String getTitle() {
+		long startNanos = start();
+		try {
+			return driver.getTitle();
+		}
+		finally {
+			end("getTitle", startNanos);
+		}
+	}
+	
+	@Override
+	public List<WebElement> findElements(By by) {
+		long startNanos = start();
+		try {
+			return wrap(driver.findElements(by));
+		}
+		finally {
+			end("findElements", startNanos);
+		}
+	}
+	
+	@Override
+	public WebElement findElement(By by) {
+		long startNanos = start();
+		try {
+			return wrap(driver.findElement(by));
+		}
+		finally {
+			end("findElement", startNanos);
+		}
+	}
+	
+	@Override
+	public String getPageSource() {
+		long startNanos = start();
+		try {
+			return driver.getPageSource();
+		}
+		finally {
+			end("getPageSource", startNanos);
+		}
+	}
+	
+	@Override
+	public void close() {
+		long startNanos = start();
+		try {
+			driver.close();
+		}
+		finally {
+			end("close", startNanos);
+		}
+	}
+	
+	@Override
+	public void quit() {
+		long startNanos = start();
+		try {
+			driver.quit();
+		}
+		finally {
+			end("quit", startNanos);
+		}
+	}
+	
+	@Override
+	public Set<String> getWindowHandles() {
+		long startNanos = start();
+		try {
+			return driver.getWindowHandles();
+		}
+		finally {
+			end("getWindowHandles", startNanos);
+		}
+	}
+	
+	@Override
+	public String getWindowHandle() {
+		long startNanos = start();
+		try {
+			return driver.getWindowHandle();
+		}
+		finally {
+			end("getWindowHandle", startNanos);
+		}
+	}
+	
+	@Override
+	public TargetLocator switchTo() {
+		final TargetLocator targetLocator = driver.switchTo();
+		
+		return new TargetLocator() {
+			@Override
+			public WebDriver frame(int index) {
+				long startNanos = start();
+				try {
+					targetLocator.frame(index);
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.frame", startNanos);
+				}
+			}
+			
+			@Override
+			public WebDriver frame(String nameOrId) {
+				long startNanos = start();
+				try {
+					targetLocator.frame(nameOrId);
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.frame", startNanos);
+				}
+			}
+			
+			@Override
+			public WebDriver frame(WebElement frameElement) {
+				long startNanos = start();
+				try {
+					targetLocator.frame(InstrumentedWebElement.unwrap(frameElement));
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.frame", startNanos);
+				}
+			}
+			
+			@Override
+			public WebDriver parentFrame() {
+				long startNanos = start();
+				try {
+					targetLocator.parentFrame();
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.parentFrame", startNanos);
+				}
+			}
+			
+			@Override
+			public WebDriver window(String nameOrHandle) {
+				long startNanos = start();
+				try {
+					targetLocator.window(nameOrHandle);
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.window", startNanos);
+				}
+			}
+			
+			@Override
+			public WebDriver defaultContent() {
+				long startNanos = start();
+				try {
+					targetLocator.defaultContent();
+					return InstrumentedWebDriver.this;
+				}
+				finally {
+					end("switchTo.defaultContent", startNanos);
+				}
+			}
+			
+			@Override
+			public WebElement activeElement() {
+				long startNanos = start();
+				try {
+					return wrap(targetLocator.activeElement());
+				}
+				finally {
+					end("switchTo.activeElement", startNanos);
+				}
+			}
+			
+			@Override
+			public Alert alert() {
+				long startNanos = start();
+				try {
+					return targetLocator.alert();
+				}
+				finally {
+					end("switchTo.alert", startNanos);
+				}
+			}
+		};
+	}
+	
+	@Override
+	public Navigation navigate() {
+		final Navigation navigation = driver.navigate();
+		
+		return new Navigation() {
+			@Override
+			public void back() {
+				long startNanos = start();
+				try {
+					navigation.back();
+				}
+				finally {
+					end("navigate.back", startNanos);
+				}
+			}
+			
+			@Override
+			public void forward() {
+				long startNanos = start();
+				try {
+					navigation.forward();
+				}
+				finally {
+					end("navigate.forward", startNanos);
+				}
+			}
+			
+			@Override
+			public void to(String url) {
+				long startNanos = start();
+				try {
+					navigation.to(url);
+				}
+				finally {
+					end("navigate.to", startNanos);
+				}
+			}
+			
+			@Override
+			public void to(URL url) {
+				long startNanos = start();
+				try {
+					navigation.to(url);
+				}
+				finally {
+					end("navigate.to", startNanos);
+				}
+			}
+			
+			@Override
+			public void refresh() {
+				long startNanos = start();
+				try {
+					navigation.refresh();
+				}
+				finally {
+					end("navigate.refresh", startNanos);
+				}
+			}
+		};
+	}
+	
+	@Override
+	public Options manage() {
+		final Options options = driver.manage();
+		
+		return new Options() {
+			@Override
+			public void addCookie(Cookie cookie) {
+				long startNanos = start();
+				try {
+					options.addCookie(cookie);
+				}
+				finally {
+					end("manage.addCookie", startNanos);
+				}
+			}
+			
+			@Override
+			public void deleteCookieNamed(String name) {
+				long startNanos = start();
+				try {
+					options.deleteCookieNamed(name);
+				}
+				finally {
+					end("manage.deleteCookieNamed", startNanos);
+				}
+			}
+			
+			@Override
+			public void deleteCookie(Cookie cookie) {
+				long startNanos = start();
+				try {
+					options.deleteCookie(cookie);
+				}
+				finally {
+					end("manage.deleteCookie", startNanos);
+				}
+			}
+			
+			@Override
+			public void deleteAllCookies() {
+				long startNanos = start();
+				try {
+					options.deleteAllCookies();
+				}
+				finally {
+					end("manage.deleteAllCookies", startNanos);
+				}
+			}
+			
+			@Override
+			public Set<Cookie> getCookies() {
+				long startNanos = start();
+				try {
+					return options.getCookies();
+				}
+				finally {
+					end("manage.getCookies", startNanos);
+				}
+			}
+			
+			@Override
+			public Cookie getCookieNamed(String name) {
+				long startNanos = start();
+				try {
+					return options.getCookieNamed(name);
+				}
+				finally {
+					end("manage.getCookieNamed", startNanos);
+				}
+			}
+			
+			@Override
+			public Timeouts timeouts() {
+				return instrumentTimeouts(options.timeouts());
+			}
+			
+			@Override
+			public ImeHandler ime() {
+				return options.ime();
+			}
+			
+			@Override
+			public Window window() {
+				return options.window();
+			}
+			
+			@Override
+			public Logs logs() {
+				return options.logs();
+			}
+		};
+	}
+	
+	@Override
+	public int hashCode() {
+		return driver.hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof InstrumentedWebDriver)) {
+			return false;
+		}
+		
+		InstrumentedWebDriver instrumentedDriver = (InstrumentedWebDriver) object;
+		
+		return driver.equals(instrumentedDriver.driver)
+			&& metrics.equals(instrumentedDriver.metrics);
+	}
+	
+	@Override
+	public String toString() {
+		return driver.toString();
+	}
+	
+	long start() {
+		return metrics.getClock().nanoTime();
+	}
+	
+	void end(String command, long startNanos) {
+		metrics.record(command, startNanos);
+	}
+	
+	Timeouts instrumentTimeouts(final Timeouts timeouts) {
+		return new Timeouts() {
+			@Override
+			public Timeouts implicitlyWait(long time, TimeUnit unit) {
+				long startNanos = start();
+				try {
+					timeouts.implicitlyWait(time, unit);
+					return this;
+				}
+				finally {
+					end("manage.timeouts.implicitlyWait", startNanos);
+				}
+			}
+			
+			@Override
+			public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+				long startNanos = start();
+				try {
+					timeouts.setScriptTimeout(time, unit);
+					return this;
+				}
+				finally {
+					end("manage.timeouts.setScriptTimeout", startNanos);
+				}
+			}
+			
+			@Override
+			public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+				long startNanos = start();
+				try {
+					timeouts.pageLoadTimeout(time, unit);
+					return this;
+				}
+				finally {
+					end("manage.timeouts.pageLoadTimeout", startNanos);
+				}
+			}
+		};
+	}
+	
+	Keyboard instrumentKeyboard(final Keyboard keyboard) {
+		return new Keyboard() {
+			@Override
+			public void sendKeys(CharSequence... keysToSend) {
+				long startNanos = start();
+				try {
+					keyboard.sendKeys(keysToSend);
+				}
+				finally {
+					end("keyboard.sendKeys", startNanos);
+				}
+			}
+			
+			@Override
+			public void pressKey(CharSequence keyToPress) {
+				long startNanos = start();
+				try {
+					keyboard.pressKey(keyToPress);
+				}
+				finally {
+					end("keyboard.pressKey", startNanos);
+				}
+			}
+			
+			@Override
+			public void releaseKey(CharSequence keyToRelease) {
+				long startNanos = start();
+				try {
+					keyboard.releaseKey(keyToRelease);
+				}
+				finally {
+					end("keyboard.releaseKey", startNanos);
+				}
+			}
+		};
+	}
+	
+	Mouse instrumentMouse(final Mouse mouse) {
+		return new Mouse() {
+			@Override
+			public void click(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.click(where);
+				}
+				finally {
+					end("mouse.click", startNanos);
+				}
+			}
+			
+			@Override
+			public void doubleClick(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.doubleClick(where);
+				}
+				finally {
+					end("mouse.doubleClick", startNanos);
+				}
+			}
+			
+			@Override
+			public void mouseDown(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.mouseDown(where);
+				}
+				finally {
+					end("mouse.mouseDown", startNanos);
+				}
+			}
+			
+			@Override
+			public void mouseUp(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.mouseUp(where);
+				}
+				finally {
+					end("mouse.mouseUp", startNanos);
+				}
+			}
+			
+			@Override
+			public void mouseMove(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.mouseMove(where);
+				}
+				finally {
+					end("mouse.mouseMove", startNanos);
+				}
+			}
+			
+			@Override
+			public void mouseMove(Coordinates where, long xOffset, long yOffset) {
+				long startNanos = start();
+				try {
+					mouse.mouseMove(where, xOffset, yOffset);
+				}
+				finally {
+					end("mouse.mouseMove", startNanos);
+				}
+			}
+			
+			@Override
+			public void contextClick(Coordinates where) {
+				long startNanos = start();
+				try {
+					mouse.contextClick(where);
+				}
+				finally {
+					end("mouse.contextClick", startNanos);
+				}
+			}
+		};
+	}
+	
+	WebElement wrap(WebElement element) {
+		return element == null ? null : InstrumentedWebElement.instrument(element, this);
+	}
+	
+	List<WebElement> wrap(List<WebElement> elements) {
+		List<WebElement> wrappedElements = new ArrayList<>(elements.size());
+		
+		for (WebElement element : elements) {
+			wrappedElements.add(wrap(element));
+		}
+		
+		return wrappedElements;
+	}
+	
+	Object wrapResult(Object result) {
+		if (result instanceof WebElement) {
+			return wrap((WebElement) result);
+		}
+		
+		if (result instanceof List) {
+			List<Object> wrappedList = new ArrayList<>();
+			
+			for (Object item : (List<?>) result) {
+				wrappedList.add(wrapResult(item));
+			}
+			
+			return wrappedList;
+		}
+		
+		if (result instanceof Map) {
+			Map<Object, Object> wrappedMap = new LinkedHashMap<>();
+			
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()) {
+				wrappedMap.put(entry.getKey(), wrapResult(entry.getValue()));
+			}
+			
+			return wrappedMap;
+		}
+		
+		return result;
+	}
+	
+	private static Object[] unwrapArgs(Object[] args) {
+		Object[] unwrappedArgs = new Object[args.length];
+		
+		for (int i = 0; i < args.length; i++) {
+			unwrappedArgs[i] = unwrap(args[i]);
+		}
+		
+		return unwrappedArgs;
+	}
+	
+	private static Object unwrap(Object arg) {
+		if (arg instanceof WebElement) {
+			return InstrumentedWebElement.unwrap((WebElement) arg);
+		}
+		
+		if (arg instanceof Object[]) {
+			return unwrapArgs((Object[]) arg);
+		}
+		
+		if (arg instanceof Iterable) {
+			List<Object> unwrappedList = new ArrayList<>();
+			
+			for (Object item : (Iterable<?>) arg) {
+				unwrappedList.add(unwrap(item));
+			}
+			
+			return unwrappedList;
+		}
+		
+		if (arg instanceof Map) {
+			Map<Object, Object> unwrappedMap = new LinkedHashMap<>();
+			
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) arg).entrySet()) {
+				unwrappedMap.put(entry.getKey(), unwrap(entry.getValue()));
+			}
+			
+			return unwrappedMap;
+		}
+		
+		return arg;
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class InstrumentedWebElement implements WebElement, WrapsElement, WrapsDriver {
+	
+	private static class LocatableInstrumentedWebElement extends InstrumentedWebElement implements Locatable {
+		
+		LocatableInstrumentedWebElement(WebElement element, InstrumentedWebDriver driver) {
+			super(element, driver);
+		}
+		
+		/**
+		 * Returns the wrapped element's coordinates so that they can be passed to the wrapped driver's mouse.
+		 */
+		@Override
+		public Coordinates getCoordinates() {
+			return ((Locatable) getWrappedElement()).getCoordinates();
+		}
+	}
+	
+	private final WebElement element;
+	
+	private final InstrumentedWebDriver driver;
+	
+	InstrumentedWebElement(WebElement element, InstrumentedWebDriver driver) {
+		this.element = checkNotNull(element, "element");
+		this.driver = checkNotNull(driver, "driver");
+	}
+	
+	/**
+	 * The returned element implements {@link Locatable} only if the specified element does.
+	 */
+	static InstrumentedWebElement instrument(WebElement element, InstrumentedWebDriver driver) {
+		if (element instanceof Locatable) {
+			return new LocatableInstrumentedWebElement(element, driver);
+		}
+		
+		return new InstrumentedWebElement(element, driver);
+	}
+	
+	@Override
+	public WebElement getWrappedElement() {
+		return element;
+	}
+	
+	@Override
+	public WebDriver getWrappedDriver() {
+		return driver;
+	}
+	
+	@Override
+	public void click() {
+		long startNanos = driver.start();
+		try {
+			element.click();
+		}
+		finally {
+			driver.end("click", startNanos);
+		}
+	}
+	
+	@Override
+	public void submit() {
+		long startNanos = driver.start();
+		try {
+			element.submit();
+		}
+		finally {
+			driver.end("submit", startNanos);
+		}
+	}
+	
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		long startNanos = driver.start();
+		try {
+			element.sendKeys(keysToSend);
+		}
+		finally {
+			driver.end("sendKeys", startNanos);
+		}
+	}
+	
+	@Override
+	public void clear() {
+		long startNanos = driver.start();
+		try {
+			element.clear();
+		}
+		finally {
+			driver.end("clear", startNanos);
+		}
+	}
+	
+	@Override
+	public String getTagName() {
+		long startNanos = driver.start();
+		try {
+			return element.getTagName();
+		}
+		finally {
+			driver.end("getTagName", startNanos);
+		}
+	}
+	
+	@Override
+	public String getAttribute(String name) {
+		long startNanos = driver.start();
+		try {
+			return element.getAttribute(name);
+		}
+		finally {
+			driver.end("getAttribute", startNanos);
+		}
+	}
+	
+	@Override
+	public boolean isSelected() {
+		long startNanos = driver.start();
+		try {
+			return element.isSelected();
+		}
+		finally {
+			driver.end("isSelected", startNanos);
+		}
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		long startNanos = driver.start();
+		try {
+			return element.isEnabled();
+		}
+		finally {
+			driver.end("isEnabled", startNanos);
+		}
+	}
+	
+	@Override
+	public String getText() {
+		long startNanos = driver.start();
+		try {
+			return element.getText();
+		}
+		finally {
+			driver.end("getText", startNanos);
+		}
+	}
+	
+	@Override
+	public List<WebElement> findElements(By by) {
+		long startNanos = driver.start();
+		try {
+			return driver.wrap(element.findElements(by));
+		}
+		finally {
+			driver.end("findElements", startNanos);
+		}
+	}
+	
+	@Override
+	public WebElement findElement(By by) {
+		long startNanos = driver.start();
+		try {
+			return driver.wrap(element.findElement(by));
+		}
+		finally {
+			driver.end("findElement", startNanos);
+		}
+	}
+	
+	@Override
+	public boolean isDisplayed() {
+		long startNanos = driver.start();
+		try {
+			return element.isDisplayed();
+		}
+		finally {
+			driver.end("isDisplayed", startNanos);
+		}
+	}
+	
+	@Override
+	public Point getLocation() {
+		long startNanos = driver.start();
+		try {
+			return element.getLocation();
+		}
+		finally {
+			driver.end("getLocation", startNanos);
+		}
+	}
+	
+	@Override
+	public Dimension getSize() {
+		long startNanos = driver.start();
+		try {
+			return element.getSize();
+		}
+		finally {
+			driver.end("getSize", startNanos);
+		}
+	}
+	
+	@Override
+	public String getCssValue(String propertyName) {
+		long startNanos = driver.start();
+		try {
+			return element.getCssValue(propertyName);
+		}
+		finally {
+			driver.end("getCssValue", startNanos);
+		}
+	}
+	
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+		long startNanos = driver.start();
+		try {
+			return element.getScreenshotAs(target);
+		}
+		finally {
+			driver.end("getScreenshotAs", startNanos);
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		return element.hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (object instanceof WrapsElement) {
+			return element.equals(((WrapsElement) object).getWrappedElement());
+		}
+		
+		return element.equals(object);
+	}
+	
+	@Override
+	public String toString() {
+		return element.toString();
+	}
+	
+	static WebElement unwrap(WebElement element) {
+		return element instanceof InstrumentedWebElement ? ((InstrumentedWebElement) element).element : element;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.internal.WrapsDriver;
+
+final class JavascriptExecutors {
+
+	private JavascriptExecutors() {
+		throw new AssertionError();
+	}
+	
+	/**
+	 * @return the executor, or {@code null} if the underlying driver cannot execute JavaScript
+	 */
+	static JavascriptExecutor forContext(SearchContext context) {
+		if (context instanceof JavascriptExecutor) {
+			return (JavascriptExecutor) context;
+		}
+		
+		if (context instanceof WrapsDriver) {
+			WebDriver driver = ((WrapsDriver) context).getWrappedDriver();
+			
+			if (driver instanceof JavascriptExecutor) {
+				return (JavascriptExecutor) driver;
+			}
+		}
+		
+		return null;
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+final class JavascriptLocator {
+	
+	/**
+	 * JavaScript function {@code findAll(locator)} for locators of the form {@code [type, value]}.
+	 */
+	static final String FIND_ALL_FUNCTION = ""
+		+ "function findAll(locator) {"
+		+ "  var type = locator[0], value = locator[1], result = [], i, elements;"
+		+ "  if (type == 'id') {"
+		+ "    elements = document.querySelectorAll('[id]');"
+		+ "    for (i = 0; i < elements.length; i++) if (elements[i].id == value) result.push(elements[i]);"
+		+ "    return result;"
+		+ "  }"
+		+ "  if (type == 'name') {"
+		+ "    return Array.prototype.slice.call(document.getElementsByName(value));"
+		+ "  }"
+		+ "  if (type == 'className') {"
+		+ "    return Array.prototype.slice.call(document.getElementsByClassName(value));"
+		+ "  }"
+		+ "  if (type == 'tagName') {"
+		+ "    return Array.prototype.slice.call(document.getElementsByTagName(value));"
+		+ "  }"
+		+ "  if (type == 'cssSelector') {"
+		+ "    return Array.prototype.slice.call(document.querySelectorAll(value));"
+		+ "  }"
+		+ "  if (type == 'xpath') {"
+		+ "    var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+		+ "    for (i = 0; i < snapshot.snapshotLength; i++) result.push(snapshot.snapshotItem(i));"
+		+ "    return result;"
+		+ "  }"
+		+ "  elements = document.getElementsByTagName('a');"
+		+ "  for (i = 0; i < elements.length; i++) {"
+		+ "    var text = elements[i].innerText !== undefined ? elements[i].innerText : elements[i].textContent;"
+		+ "    text = text.replace(/^\\s+|\\s+$/g, '');"
+		+ "    if (type == 'linkText' ? text == value : text.indexOf(value) != -1) result.push(elements[i]);"
+		+ "  }"
+		+ "  return result;"
+		+ "}";
+	
+	private static final Map<String, String> TYPES_BY_PREFIX = ImmutableMap.<String, String>builder()
+		.put("By.id: ", "id")
+		.put("By.name: ", "name")
+		.put("By.className: ", "className")
+		.put("By.tagName: ", "tagName")
+		.put("By.cssSelector: ", "cssSelector")
+		.put("By.xpath: ", "xpath")
+		.put("By.linkText: ", "linkText")
+		.put("By.partialLinkText: ", "partialLinkText")
+		.build();
+	
+	private final String type;
+	
+	private final String value;
+	
+	private JavascriptLocator(String type, String value) {
+		this.type = checkNotNull(type, "type");
+		this.value = checkNotNull(value, "value");
+	}
+	
+	/**
+	 * @return the translated locator, or {@code null} if it is not one of the standard {@link By} mechanisms
+	 */
+	static JavascriptLocator of(By by) {
+		// The standard mechanisms do not expose their values other than through toString
+		String string = by.toString();
+		
+		for (Map.Entry<String, String> entry : TYPES_BY_PREFIX.entrySet()) {
+			if (string.startsWith(entry.getKey()) && isStandard(by)) {
+				return new JavascriptLocator(entry.getValue(), string.substring(entry.getKey().length()));
+			}
+		}
+		
+		return null;
+	}
+	
+	String getType() {
+		return type;
+	}
+	
+	String getValue() {
+		return value;
+	}
+	
+	List<String> toArgument() {
+		return ImmutableList.of(type, value);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(type, value);
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof JavascriptLocator)) {
+			return false;
+		}
+		
+		JavascriptLocator locator = (JavascriptLocator) object;
+		
+		return type.equals(locator.type)
+			&& value.equals(locator.value);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("type", type)
+			.add("value", value)
+			.toString();
+	}
+	
+	private static boolean isStandard(By by) {
+		// Subclasses may override toString arbitrarily
+		return by.getClass().getEnclosingClass() == By.class;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Thread-safe latencies recorded into power-of-two microsecond buckets.
+ */
+public class LatencyHistogram {
+	
+	// Bucket i holds latencies below 2^i microseconds and at least half that
+	private static final int BUCKET_COUNT = 40;
+	
+	private final long[] buckets = new long[BUCKET_COUNT];
+	
+	private long count;
+	
+	private long totalNanos;
+	
+	private long minNanos = Long.MAX_VALUE;
+	
+	private long maxNanos;
+	
+	public synchronized void record(long nanos) {
+		checkArgument(nanos >= 0, "nanos must not be negative");
+		
+		buckets[bucketOf(nanos)]++;
+		count++;
+		totalNanos += nanos;
+		minNanos = Math.min(minNanos, nanos);
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+	
+	public void merge(LatencyHistogram histogram) {
+		LatencyHistogram other = histogram.copy();
+		
+		synchronized (this) {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				buckets[i] += other.buckets[i];
+			}
+			
+			count += other.count;
+			totalNanos += other.totalNanos;
+			minNanos = Math.min(minNanos, other.minNanos);
+			maxNanos = Math.max(maxNanos, other.maxNanos);
+		}
+	}
+	
+	public synchronized LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		System.arraycopy(buckets, 0, copy.buckets, 0, BUCKET_COUNT);
+		copy.count = count;
+		copy.totalNanos = totalNanos;
+		copy.minNanos = minNanos;
+		copy.maxNanos = maxNanos;
+		return copy;
+	}
+	
+	public synchronized long getCount() {
+		return count;
+	}
+	
+	public synchronized long getTotal(TimeUnit unit) {
+		return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized long getMean(TimeUnit unit) {
+		return count == 0 ? 0 : unit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized long getMin(TimeUnit unit) {
+		return count == 0 ? 0 : unit.convert(minNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized long getMax(TimeUnit unit) {
+		return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Gets an upper bound for the percentile, between 0 and 100, accurate to within a factor of two.
+	 */
+	public synchronized long getPercentile(double percentile, TimeUnit unit) {
+		checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+		
+		if (count == 0) {
+			return 0;
+		}
+		
+		long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+		long cumulative = 0;
+		int bucket = 0;
+		
+		while (cumulative + buckets[bucket] < rank) {
+			cumulative += buckets[bucket];
+			bucket++;
+		}
+		
+		long upperBoundNanos = Math.min(TimeUnit.MICROSECONDS.toNanos(1L << bucket), maxNanos);
+		
+		return unit.convert(upperBoundNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return Objects.toStringHelper(this)
+			.add("count", count)
+			.add("meanMicros", getMean(TimeUnit.MICROSECONDS))
+			.add("p50Micros", getPercentile(50, TimeUnit.MICROSECONDS))
+			.add("p95Micros", getPercentile(95, TimeUnit.MICROSECONDS))
+			.add("maxMicros", getMax(TimeUnit.MICROSECONDS))
+			.toString();
+	}
+	
+	private static int bucketOf(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		int bucket = 64 - Long.numberOfLeadingZeros(micros);
+		
+		return Math.min(bucket, BUCKET_COUNT - 1);
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * Conditions that wait in the browser with a {@code MutationObserver} for up to a second per evaluation, so the
+ * driver's script timeout must be longer. They fall back to {@link ExpectedConditions} without JavaScript or for
+ * non-standard locators.
+ */
+public final class MutationConditions {
+	
+	private static final long TIME_SLICE_MILLIS = 1000;
+	
+	private static final long RECHECK_INTERVAL_MILLIS = 100;
+	
+	/**
+	 * JavaScript function {@code isVisible(element)} that also requires a non-empty size. Requires
+	 * {@link WebDriverUtils#IS_SHOWN_FUNCTION}.
+	 */
+	static final String IS_VISIBLE_FUNCTION = ""
+		+ "function isVisible(element) {"
+		+ "  return isShown(element) && (element.offsetWidth > 0 || element.offsetHeight > 0"
+		+ "    || element.getClientRects().length > 0);"
+		+ "}";
+	
+	private static final String AWAIT_SCRIPT = JavascriptLocator.FIND_ALL_FUNCTION
+		+ WebDriverUtils.IS_SHOWN_FUNCTION
+		+ IS_VISIBLE_FUNCTION
+		+ "function getText(element) {"
+		+ "  if (!isShown(element)) return '';"
+		+ "  return element.innerText !== undefined ? element.innerText : element.textContent;"
+		+ "}"
+		+ "var locator = arguments[0], mode = arguments[1], text = arguments[2], timeSlice = arguments[3],"
+		+ "  recheckInterval = arguments[4], callback = arguments[arguments.length - 1];"
+		+ "function check() {"
+		+ "  var elements = findAll(locator), i;"
+		+ "  if (mode == 'presence') return elements.length > 0 ? elements[0] : null;"
+		+ "  if (mode == 'visibility') {"
+		+ "    for (i = 0; i < elements.length; i++) if (isVisible(elements[i])) return elements[i];"
+		+ "    return null;"
+		+ "  }"
+		+ "  if (mode == 'invisibility') {"
+		+ "    for (i = 0; i < elements.length; i++) if (isVisible(elements[i])) return null;"
+		+ "    return true;"
+		+ "  }"
+		+ "  return elements.length > 0 && getText(elements[0]).indexOf(text) != -1 ? true : null;"
+		+ "}"
+		+ "var result = check();"
+		+ "if (result) {"
+		+ "  callback(result);"
+		+ "  return;"
+		+ "}"
+		+ "var done = false, observer = null, interval, timer;"
+		+ "function finish(value) {"
+		+ "  if (done) return;"
+		+ "  done = true;"
+		+ "  if (observer) observer.disconnect();"
+		+ "  clearInterval(interval);"
+		+ "  clearTimeout(timer);"
+		+ "  callback(value);"
+		+ "}"
+		+ "function recheck() {"
+		+ "  var value = check();"
+		+ "  if (value) finish(value);"
+		+ "}"
+		+ "if (window.MutationObserver) {"
+		+ "  observer = new MutationObserver(recheck);"
+		+ "  observer.observe(document.documentElement,"
+		+ "    {childList: true, subtree: true, attributes: true, characterData: true});"
+		+ "}"
+		+ "interval = setInterval(recheck, recheckInterval);"
+		+ "timer = setTimeout(function() { finish(null); }, timeSlice);";
+	
+	private MutationConditions() {
+		throw new AssertionError();
+	}
+	
+	/**
+	 * @see ExpectedConditions#presenceOfElementLocated(By)
+	 */
+	public static ExpectedCondition<WebElement> presenceOfElementLocated(final By locator) {
+		return new AwaitCondition<WebElement>("MutationConditions.presenceOfElementLocated", locator, "presence", null,
+			ExpectedConditions.presenceOfElementLocated(locator)) {
+			@Override
+			protected WebElement toValue(Object result) {
+				return (WebElement) result;
+			}
+			
+			@Override
+			public String toString() {
+				return "presence of element located by: " + locator;
+			}
+		};
+	}
+	
+	/**
+	 * @see ExpectedConditions#visibilityOfElementLocated(By)
+	 */
+	public static ExpectedCondition<WebElement> visibilityOfElementLocated(final By locator) {
+		return new AwaitCondition<WebElement>("MutationConditions.visibilityOfElementLocated", locator, "visibility",
+			null, ExpectedConditions.visibilityOfElementLocated(locator)) {
+			@Override
+			protected WebElement toValue(Object result) {
+				return (WebElement) result;
+			}
+			
+			@Override
+			public String toString() {
+				return "visibility of element located by " + locator;
+			}
+		};
+	}
+	
+	/**
+	 * @see ExpectedConditions#invisibilityOfElementLocated(By)
+	 */
+	public static ExpectedCondition<Boolean> invisibilityOfElementLocated(final By locator) {
+		return new AwaitCondition<Boolean>("MutationConditions.invisibilityOfElementLocated", locator, "invisibility",
+			null, ExpectedConditions.invisibilityOfElementLocated(locator)) {
+			@Override
+			protected Boolean toValue(Object result) {
+				return result != null;
+			}
+			
+			@Override
+			public String toString() {
+				return "element to no longer be visible: " + locator;
+			}
+		};
+	}
+	
+	/**
+	 * @see ExpectedConditions#textToBePresentInElementLocated(By, String)
+	 */
+	public static ExpectedCondition<Boolean> textToBePresentInElementLocated(final By locator, final String text) {
+		return new AwaitCondition<Boolean>("MutationConditions.textToBePresentInElementLocated", locator, "text", text,
+			ExpectedConditions.textToBePresentInElementLocated(locator, text)) {
+			@Override
+			protected Boolean toValue(Object result) {
+				return result != null;
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("text ('%s') to be present in element found by %s", text, locator);
+			}
+		};
+	}
+	
+	private abstract static class AwaitCondition<T> implements ExpectedCondition<T> {
+		
+		private final JavascriptLocator locator;
+		
+		private final String mode;
+		
+		private final String text;
+		
+		private final ExpectedCondition<T> fallback;
+		
+		private final String scopeName;
+		
+		AwaitCondition(String scopeName, By locator, String mode, String text, ExpectedCondition<T> fallback) {
+			this.locator = JavascriptLocator.of(locator);
+			this.mode = mode;
+			this.text = text;
+			this.fallback = fallback;
+			this.scopeName = scopeName;
+		}
+		
+		@Override
+		public T apply(WebDriver driver) {
+			CommandScope scope = CommandScope.enter(scopeName);
+			try {
+				JavascriptExecutor executor = JavascriptExecutors.forContext(driver);
+				
+				if (executor == null || locator == null) {
+					return fallback.apply(driver);
+				}
+				
+				Object result;
+				try {
+					result = executor.executeAsyncScript(AWAIT_SCRIPT, locator.toArgument(), mode, text,
+						TIME_SLICE_MILLIS, RECHECK_INTERVAL_MILLIS);
+				}
+				catch (TimeoutException exception) {
+					// Script timeout is shorter than the time slice
+					result = null;
+				}
+				
+				return toValue(result);
+			}
+			finally {
+				scope.close();
+			}
+		}
+		
+		protected abstract T toValue(Object result);
+	}
+}
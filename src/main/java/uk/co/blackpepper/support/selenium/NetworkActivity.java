@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Counts the AJAX requests of the current page once {@link #install(WebDriver)} has instrumented it. Requests
+ * started before installation are not counted, and it must be reinstalled after each navigation.
+ */
+public final class NetworkActivity {
+	
+	private static final long TIME_SLICE_MILLIS = 1000;
+	
+	private static final long RECHECK_INTERVAL_MILLIS = 10;
+	
+	private static final String INSTALL_SCRIPT = ""
+		+ "if (window.__networkActivity) return;"
+		+ "var activity = window.__networkActivity = {pending: 0, lastChange: new Date().getTime()};"
+		+ "function start() {"
+		+ "  activity.pending++;"
+		+ "  activity.lastChange = new Date().getTime();"
+		+ "}"
+		+ "function end() {"
+		+ "  activity.pending = Math.max(activity.pending - 1, 0);"
+		+ "  activity.lastChange = new Date().getTime();"
+		+ "}"
+		+ "if (window.XMLHttpRequest) {"
+		+ "  var send = XMLHttpRequest.prototype.send;"
+		+ "  XMLHttpRequest.prototype.send = function() {"
+		+ "    var request = this, ended = false;"
+		+ "    function once() {"
+		+ "      if (!ended) {"
+		+ "        ended = true;"
+		+ "        end();"
+		+ "      }"
+		+ "    }"
+		+ "    request.addEventListener('loadend', once);"
+		+ "    start();"
+		+ "    try {"
+		+ "      return send.apply(request, arguments);"
+		+ "    }"
+		+ "    catch (error) {"
+		+ "      once();"
+		+ "      throw error;"
+		+ "    }"
+		+ "  };"
+		+ "}"
+		+ "if (window.fetch) {"
+		+ "  var fetch = window.fetch;"
+		+ "  window.fetch = function() {"
+		+ "    start();"
+		+ "    try {"
+		+ "      return fetch.apply(this, arguments).then("
+		+ "        function(response) { end(); return response; },"
+		+ "        function(error) { end(); throw error; });"
+		+ "    }"
+		+ "    catch (error) {"
+		+ "      end();"
+		+ "      throw error;"
+		+ "    }"
+		+ "  };"
+		+ "}";
+	
+	private static final String GET_PENDING_REQUESTS_SCRIPT = ""
+		+ "var activity = window.__networkActivity;"
+		+ "return activity ? activity.pending : -1;";
+	
+	private static final String AWAIT_IDLE_SCRIPT = ""
+		+ "var idle = arguments[0], timeSlice = arguments[1], recheckInterval = arguments[2],"
+		+ "  callback = arguments[arguments.length - 1], activity = window.__networkActivity;"
+		+ "if (!activity) {"
+		+ "  callback(null);"
+		+ "  return;"
+		+ "}"
+		+ "var start = new Date().getTime();"
+		+ "function check() {"
+		+ "  var now = new Date().getTime();"
+		+ "  if (activity.pending == 0 && now - activity.lastChange >= idle) {"
+		+ "    callback(true);"
+		+ "  }"
+		+ "  else if (now - start >= timeSlice) {"
+		+ "    callback(false);"
+		+ "  }"
+		+ "  else {"
+		+ "    setTimeout(check, recheckInterval);"
+		+ "  }"
+		+ "}"
+		+ "check();";
+	
+	private NetworkActivity() {
+		throw new AssertionError();
+	}
+	
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the driver cannot execute JavaScript
+	 */
+	public static void install(WebDriver driver) {
+		CommandScope scope = CommandScope.enter("NetworkActivity.install");
+		try {
+			getExecutor(driver).executeScript(INSTALL_SCRIPT);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * @throws IllegalStateException
+	 *             if tracking has not been installed in the current page
+	 */
+	public static int getPendingRequests(WebDriver driver) {
+		CommandScope scope = CommandScope.enter("NetworkActivity.getPendingRequests");
+		try {
+			int pending = ((Number) getExecutor(driver).executeScript(GET_PENDING_REQUESTS_SCRIPT)).intValue();
+			
+			checkInstalled(pending != -1);
+			
+			return pending;
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * Waits in the browser for up to a second per evaluation, so the driver's script timeout must be longer.
+	 * 
+	 * @throws IllegalStateException
+	 *             if tracking has not been installed in the current page
+	 */
+	public static ExpectedCondition<Boolean> networkIdle(final long duration, final TimeUnit unit) {
+		checkArgument(duration >= 0, "duration must not be negative");
+		
+		return new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply(WebDriver driver) {
+				CommandScope scope = CommandScope.enter("NetworkActivity.networkIdle");
+				try {
+					Object result;
+					try {
+						result = getExecutor(driver).executeAsyncScript(AWAIT_IDLE_SCRIPT, unit.toMillis(duration),
+							TIME_SLICE_MILLIS, RECHECK_INTERVAL_MILLIS);
+					}
+					catch (TimeoutException exception) {
+						// Script timeout is shorter than the time slice
+						return false;
+					}
+					
+					checkInstalled(result != null);
+					
+					return (Boolean) result;
+				}
+				finally {
+					scope.close();
+				}
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("network to be idle for %d ms", unit.toMillis(duration));
+			}
+		};
+	}
+	
+	private static JavascriptExecutor getExecutor(WebDriver driver) {
+		JavascriptExecutor executor = JavascriptExecutors.forContext(driver);
+		
+		checkArgument(executor != null, "driver cannot execute JavaScript");
+		
+		return executor;
+	}
+	
+	private static void checkInstalled(boolean installed) {
+		if (!installed) {
+			throw new IllegalStateException("Network activity tracking is not installed in the current page");
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Retries an action until it succeeds, throws a non-retryable exception, runs out of attempts or would exceed the
+ * maximum elapsed time, after which the last exception is rethrown.
+ */
+public final class RetryPolicy {
+	
+	private static final RetryListener NULL_LISTENER = new RetryListener() {
+		@Override
+		public void called(int attempts, long elapsedNanos, boolean succeeded) {
+			// no-op
+		}
+	};
+	
+	private final int maxAttempts;
+	
+	private final long initialDelayNanos;
+	
+	private final double backoff;
+	
+	private final long maxElapsedNanos;
+	
+	private final List<Class<? extends RuntimeException>> retryOn;
+	
+	private final List<Class<? extends RuntimeException>> abortOn;
+	
+	private final Clock clock;
+	
+	private final Sleeper sleeper;
+	
+	private final RetryListener listener;
+	
+	private RetryPolicy(int maxAttempts, long initialDelayNanos, double backoff, long maxElapsedNanos,
+		List<Class<? extends RuntimeException>> retryOn, List<Class<? extends RuntimeException>> abortOn, Clock clock,
+		Sleeper sleeper, RetryListener listener) {
+		this.maxAttempts = maxAttempts;
+		this.initialDelayNanos = initialDelayNanos;
+		this.backoff = backoff;
+		this.maxElapsedNanos = maxElapsedNanos;
+		this.retryOn = ImmutableList.copyOf(retryOn);
+		this.abortOn = ImmutableList.copyOf(abortOn);
+		this.clock = checkNotNull(clock, "clock");
+		this.sleeper = checkNotNull(sleeper, "sleeper");
+		this.listener = checkNotNull(listener, "listener");
+	}
+	
+	/**
+	 * Creates a policy that retries on any {@link RuntimeException} without delay.
+	 */
+	public static RetryPolicy attempts(int maxAttempts) {
+		checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+		
+		List<Class<? extends RuntimeException>> retryOn = ImmutableList.<Class<? extends RuntimeException>>of(
+			RuntimeException.class);
+		List<Class<? extends RuntimeException>> abortOn = ImmutableList.of();
+		
+		return new RetryPolicy(maxAttempts, 0, 1, Long.MAX_VALUE, retryOn, abortOn, Clock.SYSTEM, Sleeper.SYSTEM,
+			NULL_LISTENER);
+	}
+	
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+	
+	public RetryPolicy withMaxAttempts(int maxAttempts) {
+		checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+		
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	public long getInitialDelay(TimeUnit unit) {
+		return unit.convert(initialDelayNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public RetryPolicy withInitialDelay(long delay, TimeUnit unit) {
+		checkArgument(delay >= 0, "delay must not be negative");
+		
+		return new RetryPolicy(maxAttempts, unit.toNanos(delay), backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	public double getBackoff() {
+		return backoff;
+	}
+	
+	public RetryPolicy withBackoff(double backoff) {
+		checkArgument(backoff >= 1, "backoff must be at least 1");
+		
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	public long getMaxElapsed(TimeUnit unit) {
+		return unit.convert(maxElapsedNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * No delay is started that would end after the specified time since the first attempt.
+	 */
+	public RetryPolicy withMaxElapsed(long maxElapsed, TimeUnit unit) {
+		checkArgument(maxElapsed >= 0, "maxElapsed must not be negative");
+		
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, unit.toNanos(maxElapsed), retryOn, abortOn,
+			clock, sleeper, listener);
+	}
+	
+	@SafeVarargs
+	public final RetryPolicy retryingOn(Class<? extends RuntimeException>... exceptionTypes) {
+		checkArgument(exceptionTypes.length > 0, "exceptionTypes must not be empty");
+		
+		ImmutableList.Builder<Class<? extends RuntimeException>> types = ImmutableList.builder();
+		
+		// Copy elementwise so that the varargs array does not escape
+		for (Class<? extends RuntimeException> exceptionType : exceptionTypes) {
+			types.add(exceptionType);
+		}
+		
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, types.build(), abortOn, clock,
+			sleeper, listener);
+	}
+	
+	/**
+	 * These types are never retried, even if they are subtypes of a retryable type.
+	 */
+	@SafeVarargs
+	public final RetryPolicy abortingOn(Class<? extends RuntimeException>... exceptionTypes) {
+		ImmutableList.Builder<Class<? extends RuntimeException>> types = ImmutableList.builder();
+		
+		for (Class<? extends RuntimeException> exceptionType : exceptionTypes) {
+			types.add(exceptionType);
+		}
+		
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, types.build(), clock,
+			sleeper, listener);
+	}
+	
+	public RetryPolicy withTime(Clock clock, Sleeper sleeper) {
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	public RetryPolicy withListener(RetryListener listener) {
+		return new RetryPolicy(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	public boolean isRetryable(RuntimeException exception) {
+		return !isInstance(abortOn, exception) && isInstance(retryOn, exception);
+	}
+	
+	public void execute(final Runnable action) {
+		execute(new Supplier<Void>() {
+			@Override
+			public Void get() {
+				action.run();
+				return null;
+			}
+		});
+	}
+	
+	public <T> T execute(Supplier<T> action) {
+		long startTime = clock.nanoTime();
+		long delay = initialDelayNanos;
+		int attempts = 0;
+		boolean succeeded = false;
+		
+		try {
+			while (true) {
+				attempts++;
+				
+				try {
+					T result = action.get();
+					succeeded = true;
+					return result;
+				}
+				catch (RuntimeException exception) {
+					if (!isRetryable(exception) || attempts >= maxAttempts
+						|| clock.nanoTime() - startTime > maxElapsedNanos - delay) {
+						throw exception;
+					}
+					
+					if (!sleep(delay)) {
+						throw exception;
+					}
+				}
+				
+				delay = (long) Math.min(delay * backoff, Long.MAX_VALUE);
+			}
+		}
+		finally {
+			listener.called(attempts, clock.nanoTime() - startTime, succeeded);
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(maxAttempts, initialDelayNanos, backoff, maxElapsedNanos, retryOn, abortOn, clock,
+			sleeper, listener);
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof RetryPolicy)) {
+			return false;
+		}
+		
+		RetryPolicy policy = (RetryPolicy) object;
+		
+		return maxAttempts == policy.maxAttempts
+			&& initialDelayNanos == policy.initialDelayNanos
+			&& Double.compare(backoff, policy.backoff) == 0
+			&& maxElapsedNanos == policy.maxElapsedNanos
+			&& retryOn.equals(policy.retryOn)
+			&& abortOn.equals(policy.abortOn)
+			&& clock.equals(policy.clock)
+			&& sleeper.equals(policy.sleeper)
+			&& listener.equals(policy.listener);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("maxAttempts", maxAttempts)
+			.add("initialDelayMillis", TimeUnit.NANOSECONDS.toMillis(initialDelayNanos))
+			.add("backoff", backoff)
+			.add("maxElapsedMillis", maxElapsedNanos == Long.MAX_VALUE ? null
+				: TimeUnit.NANOSECONDS.toMillis(maxElapsedNanos))
+			.add("retryOn", retryOn)
+			.add("abortOn", abortOn)
+			.toString();
+	}
+	
+	private boolean sleep(long nanos) {
+		if (nanos == 0) {
+			return true;
+		}
+		
+		try {
+			sleeper.sleep(nanos);
+			return true;
+		}
+		catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	private static boolean isInstance(List<Class<? extends RuntimeException>> types, RuntimeException exception) {
+		for (Class<? extends RuntimeException> type : types) {
+			if (type.isInstance(exception)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
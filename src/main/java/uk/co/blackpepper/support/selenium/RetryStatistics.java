@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Objects;
+
+public class RetryStatistics implements RetryListener {
+	
+	private long calls;
+	
+	private long failures;
+	
+	private long retriedCalls;
+	
+	private long attempts;
+	
+	private int maxAttempts;
+	
+	private long elapsedNanos;
+	
+	private long maxElapsedNanos;
+	
+	@Override
+	public synchronized void called(int attempts, long elapsedNanos, boolean succeeded) {
+		calls++;
+		
+		if (!succeeded) {
+			failures++;
+		}
+		
+		if (attempts > 1) {
+			retriedCalls++;
+		}
+		
+		this.attempts += attempts;
+		maxAttempts = Math.max(maxAttempts, attempts);
+		this.elapsedNanos += elapsedNanos;
+		maxElapsedNanos = Math.max(maxElapsedNanos, elapsedNanos);
+	}
+	
+	public synchronized long getCalls() {
+		return calls;
+	}
+	
+	/**
+	 * Gets the number of calls that ran out of attempts or threw a non-retryable exception.
+	 */
+	public synchronized long getFailures() {
+		return failures;
+	}
+	
+	public synchronized long getRetriedCalls() {
+		return retriedCalls;
+	}
+	
+	public synchronized long getAttempts() {
+		return attempts;
+	}
+	
+	public synchronized int getMaxAttempts() {
+		return maxAttempts;
+	}
+	
+	public synchronized long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized long getMaxElapsed(TimeUnit unit) {
+		return unit.convert(maxElapsedNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized void reset() {
+		calls = 0;
+		failures = 0;
+		retriedCalls = 0;
+		attempts = 0;
+		maxAttempts = 0;
+		elapsedNanos = 0;
+		maxElapsedNanos = 0;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return Objects.toStringHelper(this)
+			.add("calls", calls)
+			.add("failures", failures)
+			.add("retriedCalls", retriedCalls)
+			.add("attempts", attempts)
+			.add("maxAttempts", maxAttempts)
+			.add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+			.add("maxElapsedMillis", TimeUnit.NANOSECONDS.toMillis(maxElapsedNanos))
+			.toString();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import com.google.common.base.Objects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class SelectOption {
+	
+	private final String value;
+	
+	private final String label;
+	
+	private final boolean selected;
+	
+	private final boolean disabled;
+	
+	public SelectOption(String value, String label, boolean selected, boolean disabled) {
+		this.value = checkNotNull(value, "value");
+		this.label = checkNotNull(label, "label");
+		this.selected = selected;
+		this.disabled = disabled;
+	}
+	
+	public String getValue() {
+		return value;
+	}
+	
+	public String getLabel() {
+		return label;
+	}
+	
+	public boolean isSelected() {
+		return selected;
+	}
+	
+	public boolean isDisabled() {
+		return disabled;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof SelectOption)) {
+			return false;
+		}
+		
+		SelectOption option = (SelectOption) object;
+		
+		return value.equals(option.getValue())
+			&& label.equals(option.getLabel())
+			&& selected == option.isSelected()
+			&& disabled == option.isDisabled();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(value, label, selected, disabled);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("value", value)
+			.add("label", label)
+			.add("selected", selected)
+			.add("disabled", disabled)
+			.toString();
+	}
+}
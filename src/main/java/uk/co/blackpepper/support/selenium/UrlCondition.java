@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+final class UrlCondition implements ExpectedCondition<Boolean> {
+	
+	private static final String EQUALS = "equals";
+	
+	private static final String PREFIX = "prefix";
+	
+	private static final String REGEX = "regex";
+	
+	private static final long TIME_SLICE_MILLIS = 1000;
+	
+	private static final String AWAIT_URL_SCRIPT = ""
+		+ "var mode = arguments[0], expected = arguments[1], flags = arguments[2], timeSlice = arguments[3],"
+		+ "  callback = arguments[arguments.length - 1];"
+		+ "function matches(url) {"
+		+ "  if (mode == 'equals') return url == expected;"
+		+ "  if (mode == 'prefix') return url.indexOf(expected) == 0;"
+		+ "  return new RegExp(expected, flags).test(url);"
+		+ "}"
+		+ "if (matches(window.location.href)) {"
+		+ "  callback([true, window.location.href]);"
+		+ "  return;"
+		+ "}"
+		+ "var done = false, timer, pushState = history.pushState, replaceState = history.replaceState;"
+		+ "function wrap(original) {"
+		+ "  return function() {"
+		+ "    var result = original.apply(this, arguments);"
+		+ "    check();"
+		+ "    return result;"
+		+ "  };"
+		+ "}"
+		+ "var wrappedPushState = wrap(pushState), wrappedReplaceState = wrap(replaceState);"
+		+ "function finish(satisfied) {"
+		+ "  if (done) return;"
+		+ "  done = true;"
+		+ "  clearTimeout(timer);"
+		+ "  window.removeEventListener('popstate', check);"
+		+ "  window.removeEventListener('hashchange', check);"
+		+ "  if (history.pushState === wrappedPushState) history.pushState = pushState;"
+		+ "  if (history.replaceState === wrappedReplaceState) history.replaceState = replaceState;"
+		+ "  callback([satisfied, window.location.href]);"
+		+ "}"
+		+ "function check() {"
+		+ "  if (matches(window.location.href)) finish(true);"
+		+ "}"
+		+ "window.addEventListener('popstate', check);"
+		+ "window.addEventListener('hashchange', check);"
+		+ "history.pushState = wrappedPushState;"
+		+ "history.replaceState = wrappedReplaceState;"
+		+ "timer = setTimeout(function() { finish(false); }, timeSlice);";
+	
+	private final String mode;
+	
+	private final String expected;
+	
+	private final Pattern pattern;
+	
+	private final boolean async;
+	
+	private final String scopeName;
+	
+	private String currentUrl;
+	
+	private UrlCondition(String mode, String expected, Pattern pattern, boolean async, String scopeName) {
+		this.mode = mode;
+		this.expected = checkNotNull(expected, "expected");
+		this.pattern = pattern;
+		this.async = async;
+		this.scopeName = scopeName;
+	}
+	
+	static UrlCondition is(String url, boolean async) {
+		return new UrlCondition(EQUALS, url, null, async,
+			async ? "ExpectedConditions2.awaitUrlIs" : "ExpectedConditions2.urlIs");
+	}
+	
+	static UrlCondition startsWith(String prefix, boolean async) {
+		return new UrlCondition(PREFIX, prefix, null, async,
+			async ? "ExpectedConditions2.awaitUrlStartsWith" : "ExpectedConditions2.urlStartsWith");
+	}
+	
+	static UrlCondition matches(Pattern pattern, boolean async) {
+		return new UrlCondition(REGEX, checkNotNull(pattern, "pattern").pattern(), pattern, async,
+			async ? "ExpectedConditions2.awaitUrlMatches" : "ExpectedConditions2.urlMatches");
+	}
+	
+	@Override
+	public Boolean apply(WebDriver driver) {
+		CommandScope scope = CommandScope.enter(scopeName);
+		try {
+			JavascriptExecutor executor = async ? JavascriptExecutors.forContext(driver) : null;
+			
+			if (executor != null) {
+				try {
+					List<?> result = (List<?>) executor.executeAsyncScript(AWAIT_URL_SCRIPT, mode,
+						pattern == null ? expected : toJavascriptSource(pattern),
+						pattern == null ? "" : toJavascriptFlags(pattern), TIME_SLICE_MILLIS);
+					currentUrl = (String) result.get(1);
+					return Boolean.TRUE.equals(result.get(0));
+				}
+				catch (WebDriverException exception) {
+					// Script timed out or the page was unloaded, so check the URL directly
+				}
+			}
+			
+			currentUrl = driver.getCurrentUrl();
+			return matches(currentUrl);
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		String verb = EQUALS.equals(mode) ? "be" : PREFIX.equals(mode) ? "start with" : "match";
+		return String.format("URL to %s \"%s\". Current URL: \"%s\"", verb, expected, currentUrl);
+	}
+	
+	/**
+	 * Anchors the pattern so that, like {@link java.util.regex.Matcher#matches()}, it must match the whole input.
+	 */
+	static String toJavascriptSource(Pattern pattern) {
+		return "^(?:" + pattern.pattern() + ")$";
+	}
+	
+	static String toJavascriptFlags(Pattern pattern) {
+		return (pattern.flags() & Pattern.CASE_INSENSITIVE) != 0 ? "i" : "";
+	}
+	
+	private boolean matches(String url) {
+		if (url == null) {
+			return false;
+		}
+		
+		if (EQUALS.equals(mode)) {
+			return expected.equals(url);
+		}
+		
+		if (PREFIX.equals(mode)) {
+			return url.startsWith(expected);
+		}
+		
+		return pattern.matcher(url).matches();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public final class ValueSetters {
+	
+	private static final String SET_VALUE_SCRIPT = "/* ValueSetters.script */"
+		+ FormUtils.FIRE_CHANGE_EVENTS_FUNCTION
+		+ "arguments[0].value = arguments[1];"
+		+ "fireChangeEvents(arguments[0]);";
+	
+	private static final ValueSetter KEYSTROKES = new ValueSetter() {
+		@Override
+		public void setValue(WebElement control, String value) {
+			control.clear();
+			control.sendKeys(value);
+		}
+		
+		@Override
+		public String toString() {
+			return "keystrokes";
+		}
+	};
+	
+	private static final ValueSetter SCRIPT = new ValueSetter() {
+		@Override
+		public void setValue(WebElement control, String value) {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(control);
+			
+			if (executor == null) {
+				KEYSTROKES.setValue(control, value);
+				return;
+			}
+			
+			executor.executeScript(SET_VALUE_SCRIPT, control, value);
+		}
+		
+		@Override
+		public String toString() {
+			return "script";
+		}
+	};
+	
+	private ValueSetters() {
+		throw new AssertionError();
+	}
+	
+	public static ValueSetter keystrokes() {
+		return KEYSTROKES;
+	}
+	
+	/**
+	 * Assigns the value in JavaScript, bypassing key event handlers. Falls back to {@link #keystrokes()} without
+	 * JavaScript.
+	 */
+	public static ValueSetter script() {
+		return SCRIPT;
+	}
+	
+	/**
+	 * Types the value with one command per chunk.
+	 */
+	public static ValueSetter chunked(final int chunkSize) {
+		checkArgument(chunkSize > 0, "chunkSize must be positive");
+		
+		return new ValueSetter() {
+			@Override
+			public void setValue(WebElement control, String value) {
+				control.clear();
+				
+				int start = 0;
+				while (start < value.length()) {
+					int end = Math.min(start + chunkSize, value.length());
+					
+					// Avoid splitting a surrogate pair across chunks
+					if (end < value.length() && Character.isHighSurrogate(value.charAt(end - 1))) {
+						end = end - 1 > start ? end - 1 : end + 1;
+					}
+					
+					control.sendKeys(value.substring(start, end));
+					start = end;
+				}
+			}
+			
+			@Override
+			public String toString() {
+				return String.format("chunked(%d)", chunkSize);
+			}
+		};
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link Clock} and {@link Sleeper} whose time only moves when slept, for testing waits without sleeping.
+ */
+public class VirtualTime implements Clock, Sleeper {
+	
+	private long nanoTime;
+	
+	private long sleepCount;
+	
+	@Override
+	public synchronized long nanoTime() {
+		return nanoTime;
+	}
+	
+	@Override
+	public synchronized void sleep(long nanos) {
+		checkArgument(nanos >= 0, "nanos must not be negative");
+		nanoTime += nanos;
+		sleepCount++;
+	}
+	
+	public void advance(long duration, TimeUnit unit) {
+		checkArgument(duration >= 0, "duration must not be negative");
+		
+		synchronized (this) {
+			nanoTime += unit.toNanos(duration);
+		}
+	}
+	
+	public synchronized long getElapsed(TimeUnit unit) {
+		return unit.convert(nanoTime, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized long getSleepCount() {
+		return sleepCount;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class VisibilityCondition implements ExpectedCondition<List<Integer>> {
+	
+	private static final String VISIBLE_INDICES_SCRIPT = JavascriptLocator.FIND_ALL_FUNCTION
+		+ WebDriverUtils.IS_SHOWN_FUNCTION
+		+ MutationConditions.IS_VISIBLE_FUNCTION
+		+ "var locators = arguments[0], result = [];"
+		+ "for (var i = 0; i < locators.length; i++) {"
+		+ "  var elements = findAll(locators[i]);"
+		+ "  for (var j = 0; j < elements.length; j++) {"
+		+ "    if (isVisible(elements[j])) {"
+		+ "      result.push(i);"
+		+ "      break;"
+		+ "    }"
+		+ "  }"
+		+ "}"
+		+ "return result;";
+	
+	private final boolean all;
+	
+	private final List<By> locators;
+	
+	private final List<List<String>> arguments;
+	
+	private final String scopeName;
+	
+	private List<Integer> visibleIndices;
+	
+	VisibilityCondition(boolean all, By... locators) {
+		checkArgument(locators.length > 0, "locators must not be empty");
+		
+		this.all = all;
+		scopeName = all ? "ExpectedConditions2.visibilityOfAll" : "ExpectedConditions2.visibilityOfAny";
+		this.locators = ImmutableList.copyOf(locators);
+		arguments = toArguments(this.locators);
+	}
+	
+	@Override
+	public List<Integer> apply(WebDriver driver) {
+		CommandScope scope = CommandScope.enter(scopeName);
+		try {
+			JavascriptExecutor executor = JavascriptExecutors.forContext(driver);
+			
+			if (executor == null || arguments == null) {
+				visibleIndices = getVisibleIndicesByElement(driver);
+			}
+			else {
+				visibleIndices = toIndices((List<?>) executor.executeScript(VISIBLE_INDICES_SCRIPT, arguments));
+			}
+			
+			boolean satisfied = all ? visibleIndices.size() == locators.size() : !visibleIndices.isEmpty();
+			return satisfied ? visibleIndices : null;
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		String description = String.format("visibility of %s of (%s)", all ? "all" : "any",
+			Joiner.on(", ").join(locators));
+		
+		if (visibleIndices == null) {
+			return description;
+		}
+		
+		List<By> invisible = new ArrayList<>();
+		
+		for (int index = 0; index < locators.size(); index++) {
+			if (!visibleIndices.contains(index)) {
+				invisible.add(locators.get(index));
+			}
+		}
+		
+		return invisible.isEmpty() ? description
+			: String.format("%s. Not visible: %s", description, Joiner.on(", ").join(invisible));
+	}
+	
+	private List<Integer> getVisibleIndicesByElement(WebDriver driver) {
+		List<Integer> indices = new ArrayList<>();
+		
+		for (int index = 0; index < locators.size(); index++) {
+			if (isAnyDisplayed(driver.findElements(locators.get(index)))) {
+				indices.add(index);
+			}
+		}
+		
+		return ImmutableList.copyOf(indices);
+	}
+	
+	private static boolean isAnyDisplayed(List<WebElement> elements) {
+		for (WebElement element : elements) {
+			try {
+				if (element.isDisplayed()) {
+					return true;
+				}
+			}
+			catch (StaleElementReferenceException exception) {
+				// Removed since it was found
+			}
+		}
+		
+		return false;
+	}
+	
+	private static List<List<String>> toArguments(List<By> locators) {
+		List<List<String>> arguments = new ArrayList<>();
+		
+		for (By locator : locators) {
+			JavascriptLocator javascriptLocator = JavascriptLocator.of(locator);
+			
+			if (javascriptLocator == null) {
+				return null;
+			}
+			
+			arguments.add(javascriptLocator.toArgument());
+		}
+		
+		return ImmutableList.copyOf(arguments);
+	}
+	
+	private static List<Integer> toIndices(List<?> results) {
+		List<Integer> indices = new ArrayList<>();
+		
+		for (Object result : results) {
+			indices.add(((Number) result).intValue());
+		}
+		
+		return ImmutableList.copyOf(indices);
+	}
+}
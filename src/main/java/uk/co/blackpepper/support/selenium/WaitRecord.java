@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class WaitRecord {
+	
+	public enum Outcome {
+		
+		SATISFIED,
+		
+		TIMED_OUT,
+		
+		/**
+		 * The condition threw an exception that the wait does not ignore, or the wait was interrupted.
+		 */
+		FAILED
+	}
+	
+	private final String condition;
+	
+	private final String helper;
+	
+	private final String callSite;
+	
+	private final long elapsedNanos;
+	
+	private final int polls;
+	
+	private final Outcome outcome;
+	
+	public WaitRecord(String condition, String helper, String callSite, long elapsedNanos, int polls,
+		Outcome outcome) {
+		checkArgument(elapsedNanos >= 0, "elapsedNanos must be non-negative");
+		checkArgument(polls >= 0, "polls must be non-negative");
+		
+		this.condition = checkNotNull(condition, "condition");
+		this.helper = helper;
+		this.callSite = checkNotNull(callSite, "callSite");
+		this.elapsedNanos = elapsedNanos;
+		this.polls = polls;
+		this.outcome = checkNotNull(outcome, "outcome");
+	}
+	
+	public String getCondition() {
+		return condition;
+	}
+	
+	/**
+	 * @return the outermost helper or scope active during the wait, or {@code null} if none
+	 */
+	public String getHelper() {
+		return helper;
+	}
+	
+	public String getCallSite() {
+		return callSite;
+	}
+	
+	public long getElapsed(TimeUnit unit) {
+		return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public int getPolls() {
+		return polls;
+	}
+	
+	public Outcome getOutcome() {
+		return outcome;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof WaitRecord)) {
+			return false;
+		}
+		
+		WaitRecord record = (WaitRecord) object;
+		
+		return condition.equals(record.getCondition())
+			&& Objects.equal(helper, record.getHelper())
+			&& callSite.equals(record.getCallSite())
+			&& elapsedNanos == record.getElapsed(TimeUnit.NANOSECONDS)
+			&& polls == record.getPolls()
+			&& outcome == record.getOutcome();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(condition, helper, callSite, elapsedNanos, polls, outcome);
+	}
+	
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+			.add("condition", condition)
+			.add("helper", helper)
+			.add("callSite", callSite)
+			.add("elapsedNanos", elapsedNanos)
+			.add("polls", polls)
+			.add("outcome", outcome)
+			.toString();
+	}
+}
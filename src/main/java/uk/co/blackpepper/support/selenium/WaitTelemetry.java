@@ -0,0 +1,212 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thread-safe collector of the most recent waits. Enabled by {@link WebDriverUtils#setWaitTelemetry(WaitTelemetry)}
+ * or {@link AdaptiveWebDriverWait#withTelemetry(WaitTelemetry)}.
+ */
+public class WaitTelemetry {
+	
+	public static final int DEFAULT_CAPACITY = 100000;
+	
+	private static final String REPORT_FORMAT = "%10s %6s %-10s %s%n";
+	
+	private static final Comparator<WaitRecord> SLOWEST_FIRST = new Comparator<WaitRecord>() {
+		@Override
+		public int compare(WaitRecord record1, WaitRecord record2) {
+			return Longs.compare(record2.getElapsed(TimeUnit.NANOSECONDS), record1.getElapsed(TimeUnit.NANOSECONDS));
+		}
+	};
+	
+	private final int capacity;
+	
+	private final Deque<WaitRecord> records = new ArrayDeque<>();
+	
+	public WaitTelemetry() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	public WaitTelemetry(int capacity) {
+		checkArgument(capacity > 0, "capacity must be positive");
+		
+		this.capacity = capacity;
+	}
+	
+	public synchronized void record(WaitRecord record) {
+		checkNotNull(record, "record");
+		
+		if (records.size() == capacity) {
+			records.removeFirst();
+		}
+		
+		records.addLast(record);
+	}
+	
+	public synchronized List<WaitRecord> getRecords() {
+		return ImmutableList.copyOf(records);
+	}
+	
+	public List<WaitRecord> getSlowest(int count) {
+		checkArgument(count >= 0, "count must be non-negative");
+		
+		List<WaitRecord> slowest = new ArrayList<>(getRecords());
+		Collections.sort(slowest, SLOWEST_FIRST);
+		
+		return ImmutableList.copyOf(slowest.subList(0, Math.min(count, slowest.size())));
+	}
+	
+	public synchronized long getTotalElapsed(TimeUnit unit) {
+		long totalNanos = 0;
+		
+		for (WaitRecord record : records) {
+			totalNanos += record.getElapsed(TimeUnit.NANOSECONDS);
+		}
+		
+		return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public synchronized void reset() {
+		records.clear();
+	}
+	
+	public String report(int count) {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(REPORT_FORMAT, "elapsed ms", "polls", "outcome", "condition / call site"));
+		
+		for (WaitRecord record : getSlowest(count)) {
+			report.append(String.format(REPORT_FORMAT, toMillis(record), record.getPolls(), record.getOutcome(),
+				record.getCondition()));
+			report.append(String.format(REPORT_FORMAT, "", "", "", "  at " + getSource(record)));
+		}
+		
+		report.append(String.format(REPORT_FORMAT, toMillis(getTotalElapsed(TimeUnit.NANOSECONDS)), "", "",
+			String.format("total of %d waits", getRecords().size())));
+		
+		return report.toString();
+	}
+	
+	public String toCsv() {
+		StringBuilder csv = new StringBuilder("condition,helper,callSite,elapsedMillis,polls,outcome\n");
+		
+		for (WaitRecord record : getRecords()) {
+			csv.append(csvValue(record.getCondition())).append(',')
+				.append(csvValue(record.getHelper())).append(',')
+				.append(csvValue(record.getCallSite())).append(',')
+				.append(toMillis(record)).append(',')
+				.append(record.getPolls()).append(',')
+				.append(record.getOutcome()).append('\n');
+		}
+		
+		return csv.toString();
+	}
+	
+	public String toJson() {
+		StringBuilder json = new StringBuilder("[");
+		
+		for (WaitRecord record : getRecords()) {
+			if (json.length() > 1) {
+				json.append(',');
+			}
+			
+			json.append("\n  {\"condition\": ").append(jsonValue(record.getCondition()))
+				.append(", \"helper\": ").append(jsonValue(record.getHelper()))
+				.append(", \"callSite\": ").append(jsonValue(record.getCallSite()))
+				.append(", \"elapsedMillis\": ").append(toMillis(record))
+				.append(", \"polls\": ").append(record.getPolls())
+				.append(", \"outcome\": ").append(jsonValue(record.getOutcome().name()))
+				.append('}');
+		}
+		
+		return json.append(json.length() > 1 ? "\n]" : "]").toString();
+	}
+	
+	@Override
+	public String toString() {
+		return report(10);
+	}
+	
+	private static String getSource(WaitRecord record) {
+		return record.getHelper() == null ? record.getCallSite()
+			: String.format("%s (%s)", record.getCallSite(), record.getHelper());
+	}
+	
+	private static String toMillis(WaitRecord record) {
+		return toMillis(record.getElapsed(TimeUnit.NANOSECONDS));
+	}
+	
+	private static String toMillis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+	
+	private static String csvValue(String value) {
+		if (value == null) {
+			return "";
+		}
+		
+		if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+		
+		return value;
+	}
+	
+	private static String jsonValue(String value) {
+		if (value == null) {
+			return "null";
+		}
+		
+		StringBuilder json = new StringBuilder("\"");
+		
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			}
+			else if (c == '\n') {
+				json.append("\\n");
+			}
+			else if (c == '\r') {
+				json.append("\\r");
+			}
+			else if (c == '\t') {
+				json.append("\\t");
+			}
+			else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				json.append(c);
+			}
+		}
+		
+		return json.append('"').toString();
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+final class WaitTimer {
+	
+	private static final String UNKNOWN_CALL_SITE = "(unknown)";
+	
+	private final WaitTelemetry telemetry;
+	
+	private final Clock clock;
+	
+	private final Object condition;
+	
+	private final long startNanos;
+	
+	private final String helper;
+	
+	private final String callSite;
+	
+	private int polls;
+	
+	private boolean finished;
+	
+	private WaitTimer(WaitTelemetry telemetry, Clock clock, Object condition) {
+		this.telemetry = telemetry;
+		this.clock = clock;
+		this.condition = condition;
+		startNanos = telemetry == null ? 0 : clock.nanoTime();
+		helper = telemetry == null ? null : CommandScope.current();
+		callSite = telemetry == null ? null : findCallSite();
+	}
+	
+	/**
+	 * @param telemetry
+	 *            the telemetry to record the wait to, or {@code null} to not record it
+	 */
+	static WaitTimer start(WaitTelemetry telemetry, Clock clock, Object condition) {
+		return new WaitTimer(telemetry, clock, condition);
+	}
+	
+	void poll() {
+		polls++;
+	}
+	
+	/**
+	 * Only the first call has any effect.
+	 */
+	void finish(Outcome outcome) {
+		if (finished) {
+			return;
+		}
+		
+		finished = true;
+		
+		if (telemetry != null) {
+			long elapsedNanos = Math.max(clock.nanoTime() - startNanos, 0);
+			telemetry.record(new WaitRecord(String.valueOf(condition), helper, callSite, elapsedNanos, polls, outcome));
+		}
+	}
+	
+	private static String findCallSite() {
+		for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+			String className = element.getClassName();
+			
+			if (!isClassOrNested(className, Thread.class)
+				&& !isClassOrNested(className, WaitTimer.class)
+				&& !isClassOrNested(className, AdaptiveWebDriverWait.class)
+				&& !isClassOrNested(className, WebDriverUtils.class)
+				&& !className.startsWith("org.openqa.selenium.support.ui.")) {
+				return element.toString();
+			}
+		}
+		
+		return UNKNOWN_CALL_SITE;
+	}
+	
+	private static boolean isClassOrNested(String className, Class<?> type) {
+		return className.equals(type.getName()) || className.startsWith(type.getName() + "$");
+	}
+}
@@ -17,9 +17,14 @@ package uk.co.blackpepper.support.selenium;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoAlertPresentException;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
@@ -27,11 +32,63 @@ import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 public final class WebDriverUtils {
 	
+	/**
+	 * Works around <a href="https://code.google.com/p/selenium/issues/detail?id=3544">Selenium issue 3544</a>.
+	 */
+	public static final RetryPolicy DEFAULT_ALERT_RETRY_POLICY = RetryPolicy.attempts(4)
+		.withInitialDelay(250, TimeUnit.MILLISECONDS)
+		.retryingOn(WebDriverException.class)
+		.abortingOn(NoAlertPresentException.class);
+	
+	private static final Map<WebDriver, Long> IMPLICIT_WAITS = Collections.synchronizedMap(
+		new WeakHashMap<WebDriver, Long>());
+	
+	/**
+	 * JavaScript function {@code isShown(element)} that approximates {@link WebElement#isDisplayed()}.
+	 */
+	static final String IS_SHOWN_FUNCTION = ""
+		+ "function isShown(element) {"
+		+ "  var style = window.getComputedStyle(element);"
+		+ "  if (style.visibility == 'hidden' || style.visibility == 'collapse') return false;"
+		+ "  for (var node = element; node && node.nodeType == 1; node = node.parentNode) {"
+		+ "    style = window.getComputedStyle(node);"
+		+ "    if (style.display == 'none' || style.opacity == '0') return false;"
+		+ "  }"
+		+ "  return true;"
+		+ "}";
+	
+	private static final String GET_TEXT_SCRIPT = "/* WebDriverUtils.getText */"
+		+ IS_SHOWN_FUNCTION
+		+ "var elements = arguments[0], result = [];"
+		+ "for (var i = 0; i < elements.length; i++) {"
+		+ "  var element = elements[i], text = '';"
+		+ "  if (isShown(element)) {"
+		+ "    text = element.innerText !== undefined ? element.innerText : element.textContent;"
+		+ "    text = text.replace(/\\u00a0/g, ' ').replace(/^[ \\t]+|[ \\t]+$/gm, '').replace(/^\\s+|\\s+$/g, '');"
+		+ "  }"
+		+ "  result.push(text);"
+		+ "}"
+		+ "return result;";
+	
+	private static volatile RetryPolicy alertRetryPolicy = DEFAULT_ALERT_RETRY_POLICY;
+	
+	private static volatile WaitTelemetry waitTelemetry;
+	
 	private WebDriverUtils() {
 		throw new AssertionError();
 	}
@@ -46,6 +103,51 @@ public final class WebDriverUtils {
 		return element;
 	}
 	
+	/**
+	 * Finds the first element without blocking for any implicit wait set by
+	 * {@link #setImplicitWait(WebDriver, long, TimeUnit)}.
+	 */
+	public static Optional<WebElement> findOptionalElement(SearchContext context, By by) {
+		CommandScope scope = CommandScope.enter("WebDriverUtils.findOptionalElement");
+		try {
+			WebDriver driver = getDriver(context);
+			long implicitWait = driver == null ? 0 : getImplicitWait(driver, TimeUnit.NANOSECONDS).or(0L);
+			
+			if (implicitWait == 0) {
+				return Optional.fromNullable(Iterables.getFirst(context.findElements(by), null));
+			}
+			
+			driver.manage().timeouts().implicitlyWait(0, TimeUnit.NANOSECONDS);
+			try {
+				return Optional.fromNullable(Iterables.getFirst(context.findElements(by), null));
+			}
+			finally {
+				driver.manage().timeouts().implicitlyWait(implicitWait, TimeUnit.NANOSECONDS);
+			}
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static void setImplicitWait(WebDriver driver, long time, TimeUnit unit) {
+		driver.manage().timeouts().implicitlyWait(time, unit);
+		IMPLICIT_WAITS.put(driver, unit.toNanos(time));
+	}
+	
+	/**
+	 * @return the wait last set by {@link #setImplicitWait(WebDriver, long, TimeUnit)}, or absent if unknown
+	 */
+	public static Optional<Long> getImplicitWait(WebDriver driver, TimeUnit unit) {
+		Long implicitWait = IMPLICIT_WAITS.get(driver);
+		
+		if (implicitWait == null) {
+			return Optional.absent();
+		}
+		
+		return Optional.of(unit.convert(implicitWait, TimeUnit.NANOSECONDS));
+	}
+	
 	/**
 	 * @deprecated Use {@link SearchContext#findElements(By)} with {@link List#isEmpty()} instead.
 	 */
@@ -60,6 +162,13 @@ public final class WebDriverUtils {
 	}
 
 	public static boolean until(WebDriverWait wait, ExpectedCondition<?> condition) {
+		WaitTelemetry telemetry = waitTelemetry;
+		
+		// Adaptive waits record themselves
+		if (telemetry != null && !(wait instanceof AdaptiveWebDriverWait)) {
+			return recordUntil(telemetry, wait, condition);
+		}
+		
 		try {
 			wait.until(condition);
 			return true;
@@ -68,57 +177,186 @@ public final class WebDriverUtils {
 			return false;
 		}
 	}
+	
+	public static WaitTelemetry getWaitTelemetry() {
+		return waitTelemetry;
+	}
+	
+	/**
+	 * @param telemetry
+	 *            the telemetry, or {@code null} to stop recording waits
+	 */
+	public static void setWaitTelemetry(WaitTelemetry telemetry) {
+		waitTelemetry = telemetry;
+	}
 
 	public static List<String> getText(Collection<WebElement> elements) {
-		List<String> texts = new ArrayList<>();
-		
-		for (WebElement element : elements) {
-			texts.add(element.getText());
+		CommandScope scope = CommandScope.enter("WebDriverUtils.getText");
+		try {
+			List<String> texts = new ArrayList<>();
+			
+			for (WebElement element : elements) {
+				texts.add(element.getText());
+			}
+			
+			return texts;
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	/**
+	 * Gets the text of each element, reading up to {@code batchSize} elements per script when possible. Scripted
+	 * reads only approximate {@link WebElement#getText()}.
+	 */
+	public static List<String> getText(Collection<WebElement> elements, int batchSize) {
+		CommandScope scope = CommandScope.enter("WebDriverUtils.getText");
+		try {
+			checkArgument(batchSize > 0, "batchSize must be positive");
+			
+			List<String> texts = new ArrayList<>();
+			
+			if (elements.isEmpty()) {
+				return texts;
+			}
+			
+			JavascriptExecutor executor = JavascriptExecutors.forContext(elements.iterator().next());
+			
+			if (executor == null) {
+				for (WebElement element : elements) {
+					texts.add(element.getText());
+				}
+				
+				return texts;
+			}
+			
+			for (List<WebElement> batch : Iterables.partition(elements, batchSize)) {
+				for (Object text : (List<?>) executor.executeScript(GET_TEXT_SCRIPT, batch)) {
+					texts.add((String) text);
+				}
+			}
+			
+			return texts;
+		}
+		finally {
+			scope.close();
 		}
-		
-		return texts;
 	}
 	
 	public static void acceptAlert(WebDriver driver) {
-		// The loop here is to work around the intermittent issue described by:
-		// https://code.google.com/p/selenium/issues/detail?id=3544
-		int tries = 4;
-		while (tries > 0) {
+		acceptAlert(driver, alertRetryPolicy);
+	}
+	
+	/**
+	 * @throws IllegalStateException
+	 *             if the alert could not be accepted within the policy
+	 */
+	public static void acceptAlert(final WebDriver driver, RetryPolicy retryPolicy) {
+		CommandScope scope = CommandScope.enter("WebDriverUtils.acceptAlert");
+		try {
 			try {
-				driver.switchTo().alert().accept();
-				return;
+				retryPolicy.execute(new Runnable() {
+					@Override
+					public void run() {
+						driver.switchTo().alert().accept();
+					}
+				});
 			}
 			catch (NoAlertPresentException exception) {
 				throw exception;
 			}
 			catch (WebDriverException exception) {
-				tries--;
-				pause(250L);
+				throw new IllegalStateException("Unable to accept alert", exception);
 			}
 		}
-		
-		throw new IllegalStateException("Unable to accept alert");
+		finally {
+			scope.close();
+		}
 	}
 	
 	public static void dismissAlert(WebDriver driver) {
-		// The loop here is to work around the intermittent issue described by:
-		// https://code.google.com/p/selenium/issues/detail?id=3544
-		int tries = 4;
-		while (tries > 0) {
+		dismissAlert(driver, alertRetryPolicy);
+	}
+	
+	/**
+	 * @throws IllegalStateException
+	 *             if the alert could not be dismissed within the policy
+	 */
+	public static void dismissAlert(final WebDriver driver, RetryPolicy retryPolicy) {
+		CommandScope scope = CommandScope.enter("WebDriverUtils.dismissAlert");
+		try {
 			try {
-				driver.switchTo().alert().dismiss();
-				return;
+				retryPolicy.execute(new Runnable() {
+					@Override
+					public void run() {
+						driver.switchTo().alert().dismiss();
+					}
+				});
 			}
 			catch (NoAlertPresentException exception) {
 				throw exception;
 			}
 			catch (WebDriverException exception) {
-				tries--;
-				pause(250L);
+				throw new IllegalStateException("Unable to dismiss alert", exception);
 			}
 		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	public static RetryPolicy getAlertRetryPolicy() {
+		return alertRetryPolicy;
+	}
+	
+	/**
+	 * Defaults to {@link #DEFAULT_ALERT_RETRY_POLICY}.
+	 */
+	public static void setAlertRetryPolicy(RetryPolicy retryPolicy) {
+		alertRetryPolicy = checkNotNull(retryPolicy, "retryPolicy");
+	}
+	
+	private static boolean recordUntil(WaitTelemetry telemetry, WebDriverWait wait,
+		final ExpectedCondition<?> condition) {
+		final WaitTimer timer = WaitTimer.start(telemetry, Clock.SYSTEM, condition);
 		
-		throw new IllegalStateException("Unable to dismiss alert");
+		try {
+			wait.until(new ExpectedCondition<Object>() {
+				@Override
+				public Object apply(WebDriver driver) {
+					timer.poll();
+					return condition.apply(driver);
+				}
+				
+				@Override
+				public String toString() {
+					return condition.toString();
+				}
+			});
+			
+			timer.finish(Outcome.SATISFIED);
+			return true;
+		}
+		catch (TimeoutException exception) {
+			timer.finish(Outcome.TIMED_OUT);
+			return false;
+		}
+		finally {
+			timer.finish(Outcome.FAILED);
+		}
+	}
+	
+	private static WebDriver getDriver(SearchContext context) {
+		if (context instanceof WebDriver) {
+			return (WebDriver) context;
+		}
+		
+		if (context instanceof WrapsDriver) {
+			return ((WrapsDriver) context).getWrappedDriver();
+		}
+		
+		return null;
 	}
 	
 	/**
@@ -126,16 +364,21 @@ public final class WebDriverUtils {
 	 */
 	@Deprecated
 	public static void pause(long millis) {
-		long endTime = System.currentTimeMillis();
-		long sleepTime = millis;
+		pause(millis, AdaptiveWebDriverWait.getDefaultClock(), AdaptiveWebDriverWait.getDefaultSleeper());
+	}
+	
+	@VisibleForTesting
+	static void pause(long millis, Clock clock, Sleeper sleeper) {
+		long endTime = clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		long sleepTime = TimeUnit.MILLISECONDS.toNanos(millis);
 		while (sleepTime > 0) {
 			try {
-				Thread.sleep(sleepTime);
+				sleeper.sleep(sleepTime);
 			}
 			catch (InterruptedException exception) {
 				// Not a lot we can do really
 			}
-			sleepTime = endTime - System.currentTimeMillis();
+			sleepTime = endTime - clock.nanoTime();
 		}
 	}
 }
@@ -22,6 +22,8 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import uk.co.blackpepper.support.selenium.CommandScope;
+
 public final class Bootstrap {
 	
 	private Bootstrap() {
@@ -29,13 +31,19 @@ public final class Bootstrap {
 	}
 	
 	public static List<String> getDropdownMenuOptionLabels(WebDriver driver, String dropdownMenuId) {
-		List<WebElement> elements = driver.findElement(By.id(dropdownMenuId)).findElements(By.tagName("li"));
-		List<String> options = new ArrayList<>();
-		
-		for (WebElement element : elements) {
-			options.add(element.getText());
+		CommandScope scope = CommandScope.enter("Bootstrap.getDropdownMenuOptionLabels");
+		try {
+			List<WebElement> elements = driver.findElement(By.id(dropdownMenuId)).findElements(By.tagName("li"));
+			List<String> options = new ArrayList<>();
+			
+			for (WebElement element : elements) {
+				options.add(element.getText());
+			}
+			
+			return options;
+		}
+		finally {
+			scope.close();
 		}
-		
-		return options;
 	}
 }
@@ -22,10 +22,12 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.google.common.base.Predicate;
 
+import uk.co.blackpepper.support.selenium.AdaptiveWebDriverWait;
+import uk.co.blackpepper.support.selenium.CommandScope;
+
 public final class AutoComplete {
 	
 	private static final long ITEM_TIME_OUT = 1;
@@ -35,31 +37,49 @@ public final class AutoComplete {
 	}
 	
 	public static boolean isVisible(WebDriver driver) {
+		CommandScope scope = CommandScope.enter("AutoComplete.isVisible");
 		try {
-			waitForSuggestions(driver);
-			return true;
+			try {
+				waitForSuggestions(driver);
+				return true;
+			}
+			catch (TimeoutException exception) {
+				return false;
+			}
 		}
-		catch (TimeoutException exception) {
-			return false;
+		finally {
+			scope.close();
 		}
 	}
 	
 	public static List<String> getSuggestions(WebDriver driver) {
-		waitForSuggestions(driver);
-		
-		List<String> suggestions = new ArrayList<>();
-		
-		for (WebElement element : driver.findElements(bySuggestions())) {
-			suggestions.add(element.getText());
+		CommandScope scope = CommandScope.enter("AutoComplete.getSuggestions");
+		try {
+			waitForSuggestions(driver);
+			
+			List<String> suggestions = new ArrayList<>();
+			
+			for (WebElement element : driver.findElements(bySuggestions())) {
+				suggestions.add(element.getText());
+			}
+			
+			return suggestions;
+		}
+		finally {
+			scope.close();
 		}
-		
-		return suggestions;
 	}
 	
 	public static void clickSuggestion(WebDriver driver, String suggestion) {
-		waitForSuggestions(driver);
-		
-		findSuggestion(driver, suggestion).click();
+		CommandScope scope = CommandScope.enter("AutoComplete.clickSuggestion");
+		try {
+			waitForSuggestions(driver);
+			
+			findSuggestion(driver, suggestion).click();
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	private static WebElement findSuggestion(WebDriver driver, String suggestion) {
@@ -73,7 +93,7 @@ public final class AutoComplete {
 	}
 	
 	private static void waitForSuggestions(WebDriver driver) {
-		new WebDriverWait(driver, ITEM_TIME_OUT).until(new Predicate<WebDriver>() {
+		new AdaptiveWebDriverWait(driver, ITEM_TIME_OUT).until(new Predicate<WebDriver>() {
 			@Override
 			public boolean apply(WebDriver driver) {
 				for (WebElement element : driver.findElements(byAutoComplete())) {
@@ -26,10 +26,12 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.google.common.base.Predicate;
 
+import uk.co.blackpepper.support.selenium.AdaptiveWebDriverWait;
+import uk.co.blackpepper.support.selenium.CommandScope;
+
 public final class DatePicker {
 
 	private static final long ITEM_TIME_OUT = 1;
@@ -39,47 +41,71 @@ public final class DatePicker {
 	}
 	
 	public static boolean isVisible(WebDriver driver) {
+		CommandScope scope = CommandScope.enter("DatePicker.isVisible");
 		try {
-			waitForDatePicker(driver);
-			return true;
+			try {
+				waitForDatePicker(driver);
+				return true;
+			}
+			catch (TimeoutException exception) {
+				return false;
+			}
 		}
-		catch (TimeoutException exception) {
-			return false;
+		finally {
+			scope.close();
 		}
 	}
 	
 	public static void clickDayOfMonth(WebDriver driver, int day) {
-		waitForDatePicker(driver);
-		
-		WebElement dayButton;
+		CommandScope scope = CommandScope.enter("DatePicker.clickDayOfMonth");
 		try {
-			dayButton = driver.findElement(By.linkText(String.valueOf(day)));
+			waitForDatePicker(driver);
+			
+			WebElement dayButton;
+			try {
+				dayButton = driver.findElement(By.linkText(String.valueOf(day)));
+			}
+			catch (NoSuchElementException noSuchElementException) {
+				throw new IllegalArgumentException(String.format("Day of month not found: %d", day));
+			}
+			
+			dayButton.click();
 		}
-		catch (NoSuchElementException noSuchElementException) {
-			throw new IllegalArgumentException(String.format("Day of month not found: %d", day));
+		finally {
+			scope.close();
 		}
-		
-		dayButton.click();
 	}
 	
 	public static Date getDate(WebDriver driver) {
-		waitForDatePicker(driver);
-		
-		int year = getYear(driver);
-		int month = getMonth(driver);
-		int day = getDay(driver);
-		
-		return getDate(year, month, day);
+		CommandScope scope = CommandScope.enter("DatePicker.getDate");
+		try {
+			waitForDatePicker(driver);
+			
+			int year = getYear(driver);
+			int month = getMonth(driver);
+			int day = getDay(driver);
+			
+			return getDate(year, month, day);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static boolean nextMonthIsEnabled(WebDriver driver, String elementId) {
-		show(driver, elementId);
-		
-		waitForDatePicker(driver);
-		
-		WebElement nextMonth = driver.findElement(By.className("ui-datepicker-next"));
-		
-		return !nextMonth.getAttribute("class").contains("ui-state-disabled");
+		CommandScope scope = CommandScope.enter("DatePicker.nextMonthIsEnabled");
+		try {
+			show(driver, elementId);
+			
+			waitForDatePicker(driver);
+			
+			WebElement nextMonth = driver.findElement(By.className("ui-datepicker-next"));
+			
+			return !nextMonth.getAttribute("class").contains("ui-state-disabled");
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	private static void show(WebDriver driver, String elementId) {
@@ -116,7 +142,7 @@ public final class DatePicker {
 	}
 	
 	private static void waitForDatePicker(WebDriver driver) {
-		new WebDriverWait(driver, ITEM_TIME_OUT).until(new Predicate<WebDriver>() {
+		new AdaptiveWebDriverWait(driver, ITEM_TIME_OUT).until(new Predicate<WebDriver>() {
 			@Override
 			public boolean apply(WebDriver driver) {
 				for (WebElement element : driver.findElements(By.id("ui-datepicker-div"))) {
@@ -22,6 +22,8 @@ import org.openqa.selenium.interactions.Actions;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import uk.co.blackpepper.support.selenium.CommandScope;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 public final class Slider {
@@ -31,9 +33,15 @@ public final class Slider {
 	}
 	
 	public static void dragHandle(WebDriver driver, WebElement slider, int percent) {
-		WebElement sliderHandle = getSliderHandle(slider);
-		
-		dragSliderByAmount(driver, sliderHandle, getDragAmount(slider, percent));
+		CommandScope scope = CommandScope.enter("Slider.dragHandle");
+		try {
+			WebElement sliderHandle = getSliderHandle(slider);
+			
+			dragSliderByAmount(driver, sliderHandle, getDragAmount(slider, percent));
+		}
+		finally {
+			scope.close();
+		}
 	}
 	
 	private static void dragSliderByAmount(WebDriver driver, WebElement sliderHandle, int dragAmount) {
@@ -21,12 +21,14 @@ import java.util.List;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
 
+import uk.co.blackpepper.support.selenium.AdaptiveWebDriverWait;
+import uk.co.blackpepper.support.selenium.CommandScope;
+
 import static org.openqa.selenium.support.ui.ExpectedConditions.stalenessOf;
 
 import static uk.co.blackpepper.support.selenium.WebElementUtils.escapeKeys;
@@ -60,148 +62,254 @@ public final class Select2 {
 	}
 
 	public static WebElement getInput(WebDriver driver, String id) {
-		return driver.findElement(byInput(id));
+		CommandScope scope = CommandScope.enter("Select2.getInput");
+		try {
+			return driver.findElement(byInput(id));
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static List<String> getValues(WebDriver driver, String id) {
-		List<WebElement> elements = driver.findElements(byChoices(id));
+		CommandScope scope = CommandScope.enter("Select2.getValues");
+		try {
+			List<String> values = new ArrayList<>();
 
-		return Lists.transform(elements, new Function<WebElement, String>() {
-			@Override
-			public String apply(WebElement element) {
-				return element.getText();
+			for (WebElement element : driver.findElements(byChoices(id))) {
+				values.add(element.getText());
 			}
-		});
+
+			return values;
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static List<Select2Suggestion> getSuggestions(WebDriver driver, String id) {
-		List<WebElement> options = driver.findElements(byItems());
+		CommandScope scope = CommandScope.enter("Select2.getSuggestions");
+		try {
+			List<WebElement> options = driver.findElements(byItems());
+
+			if (options.isEmpty()) {
+				WebElement field = driver.findElement(byChoice(id));
+				field.click();
+				options = driver.findElements(byItems());
+			}
 
-		if (options.isEmpty()) {
-			WebElement field = driver.findElement(byChoice(id));
-			field.click();
-			options = driver.findElements(byItems());
+			return Lists.transform(options, new Function<WebElement, Select2Suggestion>() {
+				@Override
+				public Select2Suggestion apply(WebElement input) {
+					return new Select2Suggestion(input);
+				}
+			});
+		}
+		finally {
+			scope.close();
 		}
-
-		return Lists.transform(options, new Function<WebElement, Select2Suggestion>() {
-			@Override
-			public Select2Suggestion apply(WebElement input) {
-				return new Select2Suggestion(input);
-			}
-		});
 	}
 
 	public static List<String> getDropdownItemNames(WebDriver driver, String id) {
-		WebElement field = driver.findElement(byChoice(id));
-		field.click();
+		CommandScope scope = CommandScope.enter("Select2.getDropdownItemNames");
+		try {
+			WebElement field = driver.findElement(byChoice(id));
+			field.click();
 
-		return getItemNames(driver);
+			return getItemNames(driver);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static List<String> getItemNames(WebDriver driver) {
-		List<WebElement> options = getItems(driver);
+		CommandScope scope = CommandScope.enter("Select2.getItemNames");
+		try {
+			List<String> names = new ArrayList<>();
 
-		return Lists.transform(options, new Function<WebElement, String>() {
-			@Override
-			public String apply(WebElement input) {
-				return input.getText();
+			for (WebElement option : getItems(driver)) {
+				names.add(option.getText());
 			}
-		});
+
+			return names;
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static List<WebElement> getItems(WebDriver driver) {
-		waitForItems(driver);
-		List<WebElement> options = driver.findElements(byItems());
+		CommandScope scope = CommandScope.enter("Select2.getItems");
+		try {
+			waitForItems(driver);
+			List<WebElement> options = driver.findElements(byItems());
 
-		return options;
+			return options;
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void setValues(WebDriver driver, String id, Iterable<String> values) {
-		clear(driver, id);
-		addValues(driver, id, values);
+		CommandScope scope = CommandScope.enter("Select2.setValues");
+		try {
+			clear(driver, id);
+			addValues(driver, id, values);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void addValues(WebDriver driver, String id, Iterable<String> values) {
-		for (String value : values) {
-			addValue(driver, id, value);
+		CommandScope scope = CommandScope.enter("Select2.addValues");
+		try {
+			for (String value : values) {
+				addValue(driver, id, value);
+			}
+		}
+		finally {
+			scope.close();
 		}
 	}
 
 	public static void addValue(WebDriver driver, String id, String value) {
-		WebElement input = driver.findElement(byInput(id));
+		CommandScope scope = CommandScope.enter("Select2.addValue");
+		try {
+			WebElement input = driver.findElement(byInput(id));
 
-		input.sendKeys(escapeKeys(value));
-		waitForItem(driver, value);
-		clickItem(driver, value);
+			input.sendKeys(escapeKeys(value));
+			waitForItem(driver, value);
+			clickItem(driver, value);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void addPartialValue(WebDriver driver, String id, String partialValue, String value) {
-		WebElement input = driver.findElement(byInput(id));
+		CommandScope scope = CommandScope.enter("Select2.addPartialValue");
+		try {
+			WebElement input = driver.findElement(byInput(id));
 
-		input.sendKeys(escapeKeys(partialValue));
-		waitForItem(driver, value);
-		clickItem(driver, value);
+			input.sendKeys(escapeKeys(partialValue));
+			waitForItem(driver, value);
+			clickItem(driver, value);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void setDropdownSearchText(WebDriver driver, String id, String searchText) {
-		WebElement select2 = driver.findElement(byChoice(id));
-		select2.click();
+		CommandScope scope = CommandScope.enter("Select2.setDropdownSearchText");
+		try {
+			WebElement select2 = driver.findElement(byChoice(id));
+			select2.click();
 
-		WebElement input = driver.findElement(By.cssSelector(SELECT2_DROPDOWN_INPUT_SELECTOR));
+			WebElement input = driver.findElement(By.cssSelector(SELECT2_DROPDOWN_INPUT_SELECTOR));
 
-		input.sendKeys(escapeKeys(searchText));
+			input.sendKeys(escapeKeys(searchText));
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void setSearchText(WebDriver driver, String id, String partialValue) {
-		WebElement input = driver.findElement(byInput(id));
+		CommandScope scope = CommandScope.enter("Select2.setSearchText");
+		try {
+			WebElement input = driver.findElement(byInput(id));
 
-		input.sendKeys(escapeKeys(partialValue));
-		waitForItem(driver, partialValue);
+			input.sendKeys(escapeKeys(partialValue));
+			waitForItem(driver, partialValue);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static void clear(WebDriver driver, String id) {
-		List<WebElement> elements = driver.findElements(byCloseChoices(id));
+		CommandScope scope = CommandScope.enter("Select2.clear");
+		try {
+			List<WebElement> elements = driver.findElements(byCloseChoices(id));
 
-		for (WebElement element : elements) {
-			element.click();
-			new WebDriverWait(driver, CLEAR_TIME_OUT).until(stalenessOf(element));
+			for (WebElement element : elements) {
+				element.click();
+				new AdaptiveWebDriverWait(driver, CLEAR_TIME_OUT).until(stalenessOf(element));
+			}
+		}
+		finally {
+			scope.close();
 		}
 	}
 
 	public static void clickItem(WebDriver driver, String value) {
-		waitForItem(driver, value);
-		WebElement item = findItem(driver, value);
+		CommandScope scope = CommandScope.enter("Select2.clickItem");
+		try {
+			waitForItem(driver, value);
+			WebElement item = findItem(driver, value);
 
-		if (item == null) {
-			throw new IllegalArgumentException("Select2 item not found: " + value);
-		}
+			if (item == null) {
+				throw new IllegalArgumentException("Select2 item not found: " + value);
+			}
 
-		item.click();
+			item.click();
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static Select2Suggestion getHighlightedSuggestion(WebDriver driver, String id) {
-		waitForDropDown(driver);
+		CommandScope scope = CommandScope.enter("Select2.getHighlightedSuggestion");
+		try {
+			waitForDropDown(driver);
 
-		WebElement suggestion = getHighlightedItem(driver, id);
+			WebElement suggestion = getHighlightedItem(driver, id);
 
-		return suggestion == null ? null : new Select2Suggestion(suggestion);
+			return suggestion == null ? null : new Select2Suggestion(suggestion);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static WebElement getHighlightedItem(WebDriver driver, String id) {
-		waitForItems(driver);
+		CommandScope scope = CommandScope.enter("Select2.getHighlightedItem");
+		try {
+			waitForItems(driver);
 
-		List<WebElement> webElements = driver.findElements(By.cssSelector(HIGHLIGHTED_ITEM_SELECTOR));
+			List<WebElement> webElements = driver.findElements(By.cssSelector(HIGHLIGHTED_ITEM_SELECTOR));
 
-		return webElements.size() == 0 ? null : webElements.get(0);
+			return webElements.size() == 0 ? null : webElements.get(0);
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static boolean isSelectionLimitMessageVisible(WebDriver driver) {
-		return !driver.findElements(By.cssSelector(".select2-selection-limit")).isEmpty();
+		CommandScope scope = CommandScope.enter("Select2.isSelectionLimitMessageVisible");
+		try {
+			return !driver.findElements(By.cssSelector(".select2-selection-limit")).isEmpty();
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	public static Boolean isTooFewCharactersMessageVisible(WebDriver driver) {
-		// TODO: Ensure that element text matches: "Please enter %d more character"
-		return !driver.findElements(By.cssSelector(".select2-no-results")).isEmpty();
+		CommandScope scope = CommandScope.enter("Select2.isTooFewCharactersMessageVisible");
+		try {
+			// TODO: Ensure that element text matches: "Please enter %d more character"
+			return !driver.findElements(By.cssSelector(".select2-no-results")).isEmpty();
+		}
+		finally {
+			scope.close();
+		}
 	}
 
 	private static List<Select2Suggestion> getSuggestedItems(WebDriver driver) {
@@ -231,7 +339,7 @@ public final class Select2 {
 	}
 
 	private static void waitForItem(WebDriver driver, String value) {
-		new WebDriverWait(driver, ITEM_TIME_OUT).until(itemIsVisible(driver, value));
+		new AdaptiveWebDriverWait(driver, ITEM_TIME_OUT).until(itemIsVisible(driver, value));
 	}
 
 	private static Predicate<WebDriver> itemIsVisible(WebDriver driver, final String value) {
@@ -249,7 +357,7 @@ public final class Select2 {
 	}
 
 	private static void waitForDropDown(WebDriver driver) {
-		new WebDriverWait(driver, ITEM_TIME_OUT).until(dropDownIsVisible(driver));
+		new AdaptiveWebDriverWait(driver, ITEM_TIME_OUT).until(dropDownIsVisible(driver));
 	}
 
 	private static Predicate<WebDriver> dropDownIsVisible(WebDriver driver) {
@@ -267,7 +375,7 @@ public final class Select2 {
 	}
 
 	private static void waitForItems(WebDriver driver) {
-		new WebDriverWait(driver, ITEM_TIME_OUT).until(itemsIsVisible(driver));
+		new AdaptiveWebDriverWait(driver, ITEM_TIME_OUT).until(itemsIsVisible(driver));
 	}
 
 	private static Predicate<WebDriver> itemsIsVisible(WebDriver driver) {
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveWebDriverWaitTest {
+	
+	@Test
+	public void untilWithTrueConditionReturnsValue() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, String> condition = newCondition();
+		when(condition.apply(driver)).thenReturn("x");
+		
+		String actual = new AdaptiveWebDriverWait(driver, 1).until(condition);
+		
+		assertThat(actual, is("x"));
+	}
+	
+	@Test
+	public void untilWithEventuallyTrueConditionPollsUntilTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false, null, true);
+		
+		Boolean actual = new AdaptiveWebDriverWait(driver, 1).until(condition);
+		
+		assertThat(actual, is(true));
+		verify(condition, times(3)).apply(driver);
+	}
+	
+	@Test
+	public void untilWithEventuallyTrueConditionPollsQuickly() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false, false, true);
+		VirtualTime time = new VirtualTime();
+		
+		newWait(driver, time).until(condition);
+		
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(lessThan(30L)));
+	}
+	
+	@Test
+	public void untilWithFalseConditionBacksOffToPollingInterval() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			newWait(driver, time).until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			// Polls at ~10, 20, 40, 80, 160, 320, then every 500ms over 10 seconds
+			assertThat(time.getSleepCount(), is(both(greaterThan(20L)).and(lessThan(45L))));
+		}
+	}
+	
+	@Test
+	public void untilWithFalseConditionTimesOutAtTimeout() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			newWait(driver, time).until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(10000L));
+		}
+	}
+	
+	@Test
+	public void untilWithPredicateWaitsUntilTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		Predicate<WebDriver> predicate = mock(Predicate.class);
+		when(predicate.apply(driver)).thenReturn(false, true);
+		
+		new AdaptiveWebDriverWait(driver, 1).until(predicate);
+		
+		verify(predicate, times(2)).apply(driver);
+	}
+	
+	@Test
+	public void untilWithNotFoundExceptionIgnoresException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenThrow(new NoSuchElementException("x")).thenReturn(true);
+		
+		Boolean actual = new AdaptiveWebDriverWait(driver, 1).until(condition);
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void untilWithOtherExceptionThrowsException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenThrow(new IllegalStateException());
+		
+		new AdaptiveWebDriverWait(driver, 1).until(condition);
+	}
+	
+	@Test
+	public void untilWithIgnoredExceptionIgnoresException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenThrow(new IllegalStateException()).thenReturn(true);
+		
+		Boolean actual = new AdaptiveWebDriverWait(driver, 1).ignoring(IllegalStateException.class).until(condition);
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void untilWithFalseConditionThrowsTimeoutException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		when(condition.toString()).thenReturn("x");
+		
+		try {
+			newWait(driver, new VirtualTime()).until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			assertThat(exception.getMessage(), containsString("waiting for x"));
+		}
+	}
+	
+	@Test
+	public void untilWithFalseConditionAndMessageThrowsTimeoutException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		
+		try {
+			newWait(driver, new VirtualTime()).withMessage("x").until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			assertThat(exception.getMessage(), containsString(": x"));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void withBackoffLessThanOneThrowsException() {
+		new AdaptiveWebDriverWait(mock(WebDriver.class), 1).withBackoff(0.5);
+	}
+	
+	@Test(expected = WebDriverException.class)
+	public void untilWhenInterruptedThrowsException() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		Thread.currentThread().interrupt();
+		
+		try {
+			new AdaptiveWebDriverWait(driver, 1).until(condition);
+		}
+		finally {
+			Thread.interrupted();
+		}
+	}
+	
+	@Test
+	public void untilWithTelemetryAndTrueConditionRecordsSatisfied() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false, true);
+		when(condition.toString()).thenReturn("x");
+		VirtualTime time = new VirtualTime();
+		WaitTelemetry telemetry = new WaitTelemetry();
+		
+		newWait(driver, time).withTelemetry(telemetry).until(condition);
+		
+		WaitRecord record = telemetry.getRecords().get(0);
+		assertThat(record.getCondition(), is("x"));
+		assertThat(record.getCallSite(), containsString(AdaptiveWebDriverWaitTest.class.getName() + "."));
+		assertThat(record.getElapsed(TimeUnit.NANOSECONDS), is(time.getElapsed(TimeUnit.NANOSECONDS)));
+		assertThat(record.getPolls(), is(2));
+		assertThat(record.getOutcome(), is(Outcome.SATISFIED));
+	}
+	
+	@Test
+	public void untilWithTelemetryAndFalseConditionRecordsTimedOut() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		WaitTelemetry telemetry = new WaitTelemetry();
+		
+		try {
+			newWait(driver, new VirtualTime()).withTelemetry(telemetry).until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			WaitRecord record = telemetry.getRecords().get(0);
+			assertThat(record.getElapsed(TimeUnit.MILLISECONDS), is(10000L));
+			assertThat(record.getOutcome(), is(Outcome.TIMED_OUT));
+		}
+	}
+	
+	@Test
+	public void untilWithTelemetryAndThrowingConditionRecordsFailed() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenThrow(new WebDriverException());
+		WaitTelemetry telemetry = new WaitTelemetry();
+		
+		try {
+			newWait(driver, new VirtualTime()).withTelemetry(telemetry).until(condition);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			assertThat(telemetry.getRecords().get(0).getOutcome(), is(Outcome.FAILED));
+		}
+	}
+	
+	@Test
+	public void untilWithWaitTelemetryRecords() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(true);
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WebDriverUtils.setWaitTelemetry(telemetry);
+		
+		try {
+			newWait(driver, new VirtualTime()).until(condition);
+		}
+		finally {
+			WebDriverUtils.setWaitTelemetry(null);
+		}
+		
+		assertThat(telemetry.getRecords(), hasSize(1));
+	}
+	
+	@Test
+	public void untilWithDefaultTimeUsesDefaultTime() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false);
+		VirtualTime time = new VirtualTime();
+		AdaptiveWebDriverWait.setDefaultTime(time, time);
+		
+		try {
+			new AdaptiveWebDriverWait(driver, 10).until(condition);
+			fail();
+		}
+		catch (TimeoutException exception) {
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(10000L));
+		}
+		finally {
+			AdaptiveWebDriverWait.setDefaultTime(Clock.SYSTEM, Sleeper.SYSTEM);
+		}
+	}
+	
+	@Test
+	public void setDefaultTimeAfterCreatingWaitDoesNotAffectWait() {
+		WebDriver driver = mock(WebDriver.class);
+		Function<WebDriver, Boolean> condition = newCondition();
+		when(condition.apply(driver)).thenReturn(false, true);
+		AdaptiveWebDriverWait wait = new AdaptiveWebDriverWait(driver, 1);
+		VirtualTime time = new VirtualTime();
+		AdaptiveWebDriverWait.setDefaultTime(time, time);
+		
+		try {
+			wait.until(condition);
+		}
+		finally {
+			AdaptiveWebDriverWait.setDefaultTime(Clock.SYSTEM, Sleeper.SYSTEM);
+		}
+		
+		assertThat(time.getSleepCount(), is(0L));
+	}
+	
+	private static AdaptiveWebDriverWait newWait(WebDriver driver, VirtualTime time) {
+		return new AdaptiveWebDriverWait(driver, time, time, 10, 500);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <V> Function<WebDriver, V> newCondition() {
+		return mock(Function.class);
+	}
+}
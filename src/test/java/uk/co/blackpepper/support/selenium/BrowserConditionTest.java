@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.allOf;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.present;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.textEquals;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.visible;
+
+public class BrowserConditionTest {
+	
+	@Test
+	public void constructorCompilesScript() {
+		BrowserCondition condition = new BrowserCondition(present(By.id("x")), false);
+		
+		assertThat(condition.getScript(), containsString("return !!(findAll(p[0]).length > 0);"));
+	}
+	
+	@Test
+	public void constructorWithCustomLocatorDoesNotCompileScript() {
+		BrowserCondition condition = new BrowserCondition(present(newCustomLocator()), false);
+		
+		assertThat(condition.getScript(), is(nullValue()));
+	}
+	
+	@Test
+	public void applyExecutesOneScriptWithArguments() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		BrowserPredicate predicate = allOf(visible(By.id("x")), textEquals(By.cssSelector("p"), "y"));
+		BrowserCondition condition = new BrowserCondition(predicate, false);
+		
+		condition.apply((WebDriver) driver);
+		
+		verify(driver).executeScript(condition.getScript(),
+			asList(asList("id", "x"), asList("cssSelector", "p"), "y"));
+	}
+	
+	@Test
+	public void applyWhenScriptReturnsTrueReturnsTrue() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(true);
+		
+		assertThat(new BrowserCondition(present(By.id("x")), false).apply((WebDriver) driver), is(true));
+	}
+	
+	@Test
+	public void applyWhenScriptReturnsFalseReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(false);
+		
+		assertThat(new BrowserCondition(present(By.id("x")), false).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void applyWithoutJavascriptEvaluatesPredicate() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(mock(WebElement.class)));
+		
+		assertThat(new BrowserCondition(present(By.id("x")), false).apply(driver), is(true));
+	}
+	
+	@Test
+	public void applyWithCustomLocatorEvaluatesPredicate() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		By locator = newCustomLocator();
+		when(((WebDriver) driver).findElements(locator)).thenReturn(asList(mock(WebElement.class)));
+		
+		assertThat(new BrowserCondition(present(locator), false).apply((WebDriver) driver), is(true));
+		verify(driver, never()).executeScript(anyString(), anyVararg());
+	}
+	
+	@Test
+	public void applyWhenAsyncExecutesAsyncScriptWithTimeSlice() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		BrowserCondition condition = new BrowserCondition(present(By.id("x")), true);
+		
+		condition.apply((WebDriver) driver);
+		
+		verify(driver).executeAsyncScript(eq(condition.getScript()), eq(asList(asList("id", "x"))), eq(1000L),
+			eq(100L));
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptReturnsTrueReturnsTrue() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(true);
+		
+		assertThat(new BrowserCondition(present(By.id("x")), true).apply((WebDriver) driver), is(true));
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptTimesOutReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenThrow(new TimeoutException());
+		
+		assertThat(new BrowserCondition(present(By.id("x")), true).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void toStringReturnsPredicateDescription() {
+		BrowserCondition condition = new BrowserCondition(present(By.id("x")), false);
+		
+		assertThat(condition.toString(), is("presence of element located by By.id: x"));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static By newCustomLocator() {
+		return new By() {
+			@Override
+			public List<WebElement> findElements(SearchContext context) {
+				return Collections.emptyList();
+			}
+		};
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.allOf;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.anyOf;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.attributeEquals;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.countAtLeast;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.not;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.present;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.textEquals;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.urlMatches;
+import static uk.co.blackpepper.support.selenium.BrowserPredicate.visible;
+
+public class BrowserPredicateTest {
+	
+	@Test
+	public void presentCompilesExpression() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = present(By.id("x")).compile(args);
+		
+		assertThat(actual, is("findAll(p[0]).length > 0"));
+		assertThat(args, is((Object) asList((Object) asList("id", "x"))));
+	}
+	
+	@Test
+	public void presentEvaluateWithElementReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(mock(WebElement.class)));
+		
+		assertThat(present(By.id("x")).evaluate(driver), is(true));
+	}
+	
+	@Test
+	public void presentEvaluateWithNoElementsReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		
+		assertThat(present(By.id("x")).evaluate(driver), is(false));
+	}
+	
+	@Test
+	public void visibleCompilesExpression() {
+		assertThat(visible(By.xpath("//p")).compile(new ArrayList<>()), is("anyVisible(findAll(p[0]))"));
+	}
+	
+	@Test
+	public void visibleEvaluateWithDisplayedElementReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(element.isDisplayed()).thenReturn(true);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(mock(WebElement.class), element));
+		
+		assertThat(visible(By.id("x")).evaluate(driver), is(true));
+	}
+	
+	@Test
+	public void visibleEvaluateWithStaleElementReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(element.isDisplayed()).thenThrow(new StaleElementReferenceException("x"));
+		when(driver.findElements(By.id("x"))).thenReturn(asList(element));
+		
+		assertThat(visible(By.id("x")).evaluate(driver), is(false));
+	}
+	
+	@Test
+	public void textEqualsCompilesExpression() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = textEquals(By.id("x"), "y").compile(args);
+		
+		assertThat(actual, is("textOf(findAll(p[0])) === p[1]"));
+		assertThat(args.get(1), is((Object) "y"));
+	}
+	
+	@Test
+	public void textEqualsEvaluateWithEqualTextReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(element.getText()).thenReturn("y");
+		when(driver.findElements(By.id("x"))).thenReturn(asList(element));
+		
+		assertThat(textEquals(By.id("x"), "y").evaluate(driver), is(true));
+	}
+	
+	@Test
+	public void textEqualsEvaluateWithNoElementsReturnsFalse() {
+		assertThat(textEquals(By.id("x"), "y").evaluate(mock(WebDriver.class)), is(false));
+	}
+	
+	@Test
+	public void attributeEqualsCompilesExpression() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = attributeEquals(By.id("x"), "class", "y").compile(args);
+		
+		assertThat(actual, is("attributeOf(findAll(p[0]), p[1]) === p[2]"));
+		assertThat(args.subList(1, 3), is(asList((Object) "class", "y")));
+	}
+	
+	@Test
+	public void attributeEqualsEvaluateWithNullAttributeReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(mock(WebElement.class)));
+		
+		assertThat(attributeEquals(By.id("x"), "class", "y").evaluate(driver), is(false));
+	}
+	
+	@Test
+	public void countAtLeastCompilesExpression() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = countAtLeast(By.id("x"), 2).compile(args);
+		
+		assertThat(actual, is("findAll(p[0]).length >= p[1]"));
+		assertThat(args.get(1), is((Object) 2L));
+	}
+	
+	@Test
+	public void countAtLeastEvaluateWithEnoughElementsReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(mock(WebElement.class), mock(WebElement.class)));
+		
+		assertThat(countAtLeast(By.id("x"), 2).evaluate(driver), is(true));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void countAtLeastWithNegativeCountThrowsException() {
+		countAtLeast(By.id("x"), -1);
+	}
+	
+	@Test
+	public void urlMatchesCompilesAnchoredExpression() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = urlMatches(Pattern.compile("http://x/.*", Pattern.CASE_INSENSITIVE)).compile(args);
+		
+		assertThat(actual, is("new RegExp(p[0], p[1]).test(window.location.href)"));
+		assertThat(args, is(asList((Object) "^(?:http://x/.*)$", "i")));
+	}
+	
+	@Test
+	public void urlMatchesEvaluateWithMatchingUrlReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://x/y");
+		
+		assertThat(urlMatches(Pattern.compile("http://x/.*")).evaluate(driver), is(true));
+	}
+	
+	@Test
+	public void urlMatchesEvaluateWithPartiallyMatchingUrlReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://x/y");
+		
+		assertThat(urlMatches(Pattern.compile("http://x")).evaluate(driver), is(false));
+	}
+	
+	@Test
+	public void allOfCompilesConjunction() {
+		List<Object> args = new ArrayList<>();
+		
+		String actual = allOf(present(By.id("x")), visible(By.id("y"))).compile(args);
+		
+		assertThat(actual, is("((findAll(p[0]).length > 0) && (anyVisible(findAll(p[1]))))"));
+		assertThat(args, is(asList((Object) asList("id", "x"), asList("id", "y"))));
+	}
+	
+	@Test
+	public void allOfEvaluateWithFalseDoesNotEvaluateLaterPredicates() {
+		WebDriver driver = mock(WebDriver.class);
+		
+		boolean actual = allOf(present(By.id("x")), present(By.id("y"))).evaluate(driver);
+		
+		assertThat(actual, is(false));
+		verify(driver, never()).findElements(By.id("y"));
+	}
+	
+	@Test
+	public void allOfWithCustomLocatorCompilesToNull() {
+		assertThat(allOf(present(By.id("x")), present(newCustomLocator())).compile(new ArrayList<>()),
+			is(nullValue()));
+	}
+	
+	@Test
+	public void anyOfCompilesDisjunction() {
+		String actual = anyOf(present(By.id("x")), present(By.id("y"))).compile(new ArrayList<>());
+		
+		assertThat(actual, is("((findAll(p[0]).length > 0) || (findAll(p[1]).length > 0))"));
+	}
+	
+	@Test
+	public void anyOfEvaluateWithTrueReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(By.id("y"))).thenReturn(asList(mock(WebElement.class)));
+		
+		assertThat(anyOf(present(By.id("x")), present(By.id("y"))).evaluate(driver), is(true));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void anyOfWithNoPredicatesThrowsException() {
+		anyOf();
+	}
+	
+	@Test
+	public void notCompilesNegation() {
+		assertThat(not(present(By.id("x"))).compile(new ArrayList<>()), is("!(findAll(p[0]).length > 0)"));
+	}
+	
+	@Test
+	public void notEvaluateWithFalseReturnsTrue() {
+		assertThat(not(present(By.id("x"))).evaluate(mock(WebDriver.class)), is(true));
+	}
+	
+	@Test
+	public void toStringReturnsDescription() {
+		BrowserPredicate predicate = allOf(visible(By.id("x")), anyOf(textEquals(By.id("y"), "z"),
+			not(urlMatches(Pattern.compile("u")))));
+		
+		assertThat(predicate.toString(), is("(visibility of element located by By.id: x and (text of element located "
+			+ "by By.id: y to be \"z\" or not (URL to match \"u\")))"));
+	}
+	
+	private static By newCustomLocator() {
+		return new By() {
+			@Override
+			public List<WebElement> findElements(SearchContext context) {
+				return Collections.emptyList();
+			}
+		};
+	}
+}
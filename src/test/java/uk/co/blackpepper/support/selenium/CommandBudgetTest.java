@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class CommandBudgetTest {
+	
+	@Test
+	public void getCommandCountReturnsCommandsIssued() {
+		CommandBudget budget = CommandBudget.of(mock(WebDriver.class));
+		
+		budget.getDriver().getTitle();
+		budget.getDriver().getCurrentUrl();
+		
+		assertThat(budget.getCommandCount(), is(2L));
+	}
+	
+	@Test
+	public void assertAtMostWithinBudgetPasses() {
+		CommandBudget budget = CommandBudget.of(mock(WebDriver.class));
+		
+		budget.getDriver().getTitle();
+		
+		budget.assertAtMost(1);
+	}
+	
+	@Test
+	public void assertAtMostOverBudgetThrowsError() {
+		CommandBudget budget = CommandBudget.of(mock(WebDriver.class));
+		budget.getDriver().getTitle();
+		budget.getDriver().getTitle();
+		
+		try {
+			budget.assertAtMost(1);
+			fail();
+		}
+		catch (AssertionError exception) {
+			assertThat(exception.getMessage(), startsWith("Expected at most 1 driver commands but 2 were issued"));
+		}
+	}
+	
+	@Test
+	public void assertAtMostWithCommandOverBudgetThrowsError() {
+		CommandBudget budget = CommandBudget.of(mock(WebDriver.class));
+		budget.getDriver().getTitle();
+		budget.getDriver().getCurrentUrl();
+		
+		try {
+			budget.assertAtMost("getTitle", 0);
+			fail();
+		}
+		catch (AssertionError exception) {
+			assertThat(exception.getMessage(), startsWith("Expected at most 0 getTitle commands but 1 were issued"));
+		}
+	}
+	
+	@Test
+	public void resetStartsCountingAfresh() {
+		CommandBudget budget = CommandBudget.of(mock(WebDriver.class));
+		budget.getDriver().getTitle();
+		
+		budget.reset();
+		
+		budget.assertAtMost(0);
+	}
+}
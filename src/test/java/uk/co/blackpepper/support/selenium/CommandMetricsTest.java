@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+public class CommandMetricsTest {
+	
+	@Test
+	public void recordOutsideScopeRecordsUnscoped() {
+		VirtualTime time = new VirtualTime();
+		CommandMetrics metrics = new CommandMetrics(time);
+		
+		long startNanos = time.nanoTime();
+		time.advance(5, TimeUnit.MILLISECONDS);
+		metrics.record("click", startNanos);
+		
+		LatencyHistogram histogram = metrics.get(CommandMetrics.UNSCOPED, "click");
+		assertThat(histogram.getCount(), is(1L));
+		assertThat(histogram.getTotal(TimeUnit.MILLISECONDS), is(5L));
+	}
+	
+	@Test
+	public void recordInScopeRecordsScope() {
+		CommandMetrics metrics = new CommandMetrics(new VirtualTime());
+		
+		CommandScope scope = CommandScope.enter("x");
+		try {
+			metrics.record("click", 0);
+		}
+		finally {
+			scope.close();
+		}
+		
+		assertThat(metrics.getHelpers(), containsInAnyOrder("x"));
+		assertThat(metrics.getHelper("x").getCount(), is(1L));
+	}
+	
+	@Test
+	public void getCommandAggregatesHelpers() {
+		CommandMetrics metrics = new CommandMetrics(new VirtualTime());
+		metrics.record("click", 0);
+		CommandScope scope = CommandScope.enter("x");
+		try {
+			metrics.record("click", 0);
+			metrics.record("getText", 0);
+		}
+		finally {
+			scope.close();
+		}
+		
+		assertThat(metrics.getCommand("click").getCount(), is(2L));
+		assertThat(metrics.getCommands(), containsInAnyOrder("click", "getText"));
+		assertThat(metrics.getCommandCount(), is(3L));
+	}
+	
+	@Test
+	public void resetClearsMetrics() {
+		CommandMetrics metrics = new CommandMetrics(new VirtualTime());
+		metrics.record("click", 0);
+		
+		metrics.reset();
+		
+		assertThat(metrics.getCommandCount(), is(0L));
+	}
+	
+	@Test
+	public void reportListsMostExpensiveHelperFirst() {
+		VirtualTime time = new VirtualTime();
+		CommandMetrics metrics = new CommandMetrics(time);
+		recordInScope(metrics, time, "cheap", 1);
+		recordInScope(metrics, time, "expensive", 100);
+		
+		String report = metrics.report();
+		
+		assertThat(report, startsWith("helper / command"));
+		assertThat(report.indexOf("expensive"), is(lessThan(report.indexOf("cheap"))));
+	}
+	
+	private static void recordInScope(CommandMetrics metrics, VirtualTime time, String helper, long millis) {
+		CommandScope scope = CommandScope.enter(helper);
+		try {
+			long startNanos = time.nanoTime();
+			time.advance(millis, TimeUnit.MILLISECONDS);
+			metrics.record("click", startNanos);
+		}
+		finally {
+			scope.close();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CommandScopeTest {
+	
+	@Test
+	public void currentOutsideScopeReturnsNull() {
+		assertThat(CommandScope.current(), is(nullValue()));
+	}
+	
+	@Test
+	public void currentInScopeReturnsName() {
+		CommandScope scope = CommandScope.enter("x");
+		try {
+			assertThat(CommandScope.current(), is("x"));
+		}
+		finally {
+			scope.close();
+		}
+	}
+	
+	@Test
+	public void currentInNestedScopeReturnsOutermostName() {
+		CommandScope outer = CommandScope.enter("x");
+		try {
+			CommandScope inner = CommandScope.enter("y");
+			try {
+				assertThat(CommandScope.current(), is("x"));
+			}
+			finally {
+				inner.close();
+			}
+		}
+		finally {
+			outer.close();
+		}
+	}
+	
+	@Test
+	public void closeExitsScope() {
+		CommandScope.enter("x").close();
+		
+		assertThat(CommandScope.current(), is(nullValue()));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void closeWhenNotInnermostThrowsException() {
+		CommandScope outer = CommandScope.enter("x");
+		CommandScope inner = CommandScope.enter("y");
+		try {
+			outer.close();
+		}
+		finally {
+			inner.close();
+			outer.close();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class CompositeConditionTest {
+
+	private final VirtualTime time = new VirtualTime();
+	
+	private final List<String> applied = new ArrayList<>();
+	
+	@Test
+	public void applyWithoutClockAppliesConditionsInOrder() {
+		CompositeCondition condition = new CompositeCondition(true, null, costing("a", 10, true),
+			costing("b", 1, true));
+		
+		condition.apply(mock(WebDriver.class));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(applied, is(asList("a", "b", "a", "b")));
+	}
+	
+	@Test
+	public void applyWithClockAppliesCheapestConditionsFirst() {
+		CompositeCondition condition = new CompositeCondition(true, time, costing("a", 10, true),
+			costing("b", 1, true), costing("c", 5, true));
+		condition.apply(mock(WebDriver.class));
+		applied.clear();
+		
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(applied, is(asList("b", "c", "a")));
+	}
+	
+	@Test
+	public void applyWithClockAppliesUnmeasuredConditionsFirst() {
+		CompositeCondition condition = new CompositeCondition(true, time, costing("a", 1, false),
+			costing("b", 10, true));
+		condition.apply(mock(WebDriver.class));
+		applied.clear();
+		
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(applied, is(asList("b", "a")));
+	}
+	
+	@Test
+	public void applyWithClockMeasuresCosts() {
+		CompositeCondition condition = new CompositeCondition(false, time, costing("a", 4, false),
+			costing("b", 8, false));
+		
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.getCosts()[0], is(TimeUnit.MILLISECONDS.toNanos(4)));
+		assertThat(condition.getCosts()[1], is(TimeUnit.MILLISECONDS.toNanos(8)));
+	}
+	
+	@Test
+	public void applyWithClockSmoothsCosts() {
+		final long[] millis = {4, 8};
+		CompositeCondition condition = new CompositeCondition(true, time, new ExpectedCondition<Boolean>() {
+			private int calls;
+			
+			@Override
+			public Boolean apply(WebDriver driver) {
+				time.advance(millis[calls++], TimeUnit.MILLISECONDS);
+				return true;
+			}
+		});
+		
+		condition.apply(mock(WebDriver.class));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.getCosts()[0], is(TimeUnit.MILLISECONDS.toNanos(5)));
+	}
+	
+	@Test
+	public void toStringAfterReorderingListsConditionsInOrderGiven() {
+		CompositeCondition condition = new CompositeCondition(true, time, costing("a", 10, true),
+			costing("b", 1, false));
+		condition.apply(mock(WebDriver.class));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.toString(), is("all of (a, b). Unsatisfied: b"));
+	}
+	
+	private ExpectedCondition<Boolean> costing(final String name, final long millis, final boolean result) {
+		return new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply(WebDriver driver) {
+				applied.add(name);
+				time.advance(millis, TimeUnit.MILLISECONDS);
+				return result;
+			}
+			
+			@Override
+			public String toString() {
+				return name;
+			}
+		};
+	}
+}
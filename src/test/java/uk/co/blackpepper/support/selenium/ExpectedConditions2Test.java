@@ -15,9 +15,13 @@
  */
 package uk.co.blackpepper.support.selenium;
 
+import java.util.regex.Pattern;
+
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
@@ -25,13 +29,22 @@ import org.openqa.selenium.support.ui.ExpectedCondition;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import static uk.co.blackpepper.support.selenium.ExpectedConditions2.allOf;
 import static uk.co.blackpepper.support.selenium.ExpectedConditions2.and;
+import static uk.co.blackpepper.support.selenium.ExpectedConditions2.anyOf;
+import static uk.co.blackpepper.support.selenium.ExpectedConditions2.not;
 import static uk.co.blackpepper.support.selenium.ExpectedConditions2.urlIs;
+import static uk.co.blackpepper.support.selenium.ExpectedConditions2.urlMatches;
+import static uk.co.blackpepper.support.selenium.ExpectedConditions2.urlStartsWith;
 import static uk.co.blackpepper.support.selenium.ExpectedConditions2.visibilityOfElementLocated;
 
 public class ExpectedConditions2Test {
@@ -98,6 +111,66 @@ public class ExpectedConditions2Test {
 		assertThat(condition.toString(), is("URL to be \"x\". Current URL: \"y\""));
 	}
 	
+	@Test
+	public void urlStartsWithApplyWithPrefixedUrlReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://x/y");
+		
+		Boolean actual = urlStartsWith("http://x/").apply(driver);
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void urlStartsWithApplyWithUnprefixedUrlReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://y/x");
+		
+		Boolean actual = urlStartsWith("http://x/").apply(driver);
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void urlStartsWithToStringReturnsMessage() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("y");
+		ExpectedCondition<Boolean> condition = urlStartsWith("x");
+		condition.apply(driver);
+		
+		assertThat(condition.toString(), is("URL to start with \"x\". Current URL: \"y\""));
+	}
+	
+	@Test
+	public void urlMatchesApplyWithMatchingUrlReturnsTrue() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://x/y/1");
+		
+		Boolean actual = urlMatches(Pattern.compile("http://x/y/\\d+")).apply(driver);
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void urlMatchesApplyWithPartiallyMatchingUrlReturnsFalse() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("http://x/y/1/z");
+		
+		Boolean actual = urlMatches(Pattern.compile("http://x/y/\\d+")).apply(driver);
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void urlMatchesToStringReturnsMessage() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("y");
+		ExpectedCondition<Boolean> condition = urlMatches(Pattern.compile("x.*"));
+		condition.apply(driver);
+		
+		assertThat(condition.toString(), is("URL to match \"x.*\". Current URL: \"y\""));
+	}
+	
 	@Test
 	public void andApplyWithTrueAndTrueReturnsTrue() {
 		Boolean actual = and(constant(true), constant(true)).apply(mock(WebDriver.class));
@@ -133,6 +206,200 @@ public class ExpectedConditions2Test {
 		assertEquals("x and y", condition.toString());
 	}
 
+	@Test
+	public void andApplyWithFalseDoesNotApplySecondCondition() {
+		ExpectedCondition<Boolean> condition2 = constant(true);
+		
+		and(constant(false), condition2).apply(mock(WebDriver.class));
+		
+		verify(condition2, never()).apply(any(WebDriver.class));
+	}
+	
+	@Test
+	public void andApplyWithNullReturnsFalse() {
+		Boolean actual = and(constant((Boolean) null), constant(true)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void allOfApplyWithAllSatisfiedReturnsTrue() {
+		Boolean actual = allOf(constant(true), constant("x"), constant(true)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void allOfApplyWithFalseReturnsFalse() {
+		Boolean actual = allOf(constant(true), constant(false), constant(true)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void allOfApplyWithNullReturnsFalse() {
+		Boolean actual = allOf(constant(true), constant((Object) null)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void allOfApplyAppliesConditionsInOrder() {
+		WebDriver driver = mock(WebDriver.class);
+		ExpectedCondition<Boolean> condition1 = constant(true);
+		ExpectedCondition<Boolean> condition2 = constant(true);
+		
+		allOf(condition1, condition2).apply(driver);
+		
+		InOrder inOrder = inOrder(condition1, condition2);
+		inOrder.verify(condition1).apply(driver);
+		inOrder.verify(condition2).apply(driver);
+	}
+	
+	@Test
+	public void allOfApplyWithFalseDoesNotApplyLaterConditions() {
+		ExpectedCondition<Boolean> condition3 = constant(true);
+		
+		allOf(constant(true), constant(false), condition3).apply(mock(WebDriver.class));
+		
+		verify(condition3, never()).apply(any(WebDriver.class));
+	}
+	
+	@Test
+	public void allOfApplyWithExceptionThrowsException() {
+		StaleElementReferenceException exception = new StaleElementReferenceException("x");
+		ExpectedCondition<Boolean> condition = allOf(constant(true), throwing(exception));
+		
+		try {
+			condition.apply(mock(WebDriver.class));
+			fail();
+		}
+		catch (StaleElementReferenceException actual) {
+			assertThat(actual, is(exception));
+		}
+	}
+	
+	@Test
+	public void allOfToStringReturnsMessage() {
+		ExpectedCondition<Boolean> condition = allOf(string("x"), string("y"));
+		
+		assertThat(condition.toString(), is("all of (x, y)"));
+	}
+	
+	@Test
+	public void allOfToStringAfterApplyWithFalseReturnsUnsatisfiedCondition() {
+		ExpectedCondition<Boolean> condition = allOf(constant(true, "x"), constant(false, "y"), constant(false, "z"));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.toString(), is("all of (x, y, z). Unsatisfied: y"));
+	}
+	
+	@Test
+	public void allOfToStringAfterApplyWithTrueReturnsMessage() {
+		ExpectedCondition<Boolean> condition = allOf(constant(true, "x"), constant(true, "y"));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.toString(), is("all of (x, y)"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void allOfWithNoConditionsThrowsException() {
+		allOf();
+	}
+	
+	@Test
+	public void anyOfApplyWithTrueReturnsTrue() {
+		Boolean actual = anyOf(constant(false), constant(true)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void anyOfApplyWithNonBooleanReturnsTrue() {
+		Boolean actual = anyOf(constant((Object) null), constant("x")).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void anyOfApplyWithAllUnsatisfiedReturnsFalse() {
+		Boolean actual = anyOf(constant(false), constant((Object) null)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void anyOfApplyWithTrueDoesNotApplyLaterConditions() {
+		ExpectedCondition<Boolean> condition2 = constant(true);
+		
+		anyOf(constant(true), condition2).apply(mock(WebDriver.class));
+		
+		verify(condition2, never()).apply(any(WebDriver.class));
+	}
+	
+	@Test
+	public void anyOfApplyWithExceptionAndTrueReturnsTrue() {
+		ExpectedCondition<Boolean> condition = anyOf(throwing(new StaleElementReferenceException("x")), constant(true));
+		
+		assertThat(condition.apply(mock(WebDriver.class)), is(true));
+	}
+	
+	@Test
+	public void anyOfApplyWithExceptionAndFalseThrowsException() {
+		StaleElementReferenceException exception = new StaleElementReferenceException("x");
+		ExpectedCondition<Boolean> condition = anyOf(throwing(exception), constant(false));
+		
+		try {
+			condition.apply(mock(WebDriver.class));
+			fail();
+		}
+		catch (StaleElementReferenceException actual) {
+			assertThat(actual, is(exception));
+		}
+	}
+	
+	@Test
+	public void anyOfToStringAfterApplyWithAllUnsatisfiedReturnsMessage() {
+		ExpectedCondition<Boolean> condition = anyOf(constant(false, "x"), constant(false, "y"));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.toString(), is("any of (x, y). None satisfied"));
+	}
+	
+	@Test
+	public void anyOfToStringAfterApplyWithTrueReturnsMessage() {
+		ExpectedCondition<Boolean> condition = anyOf(constant(false, "x"), constant(true, "y"));
+		condition.apply(mock(WebDriver.class));
+		
+		assertThat(condition.toString(), is("any of (x, y)"));
+	}
+	
+	@Test
+	public void notApplyWithFalseReturnsTrue() {
+		Boolean actual = not(constant(false)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void notApplyWithNullReturnsTrue() {
+		Boolean actual = not(constant((Object) null)).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(true));
+	}
+	
+	@Test
+	public void notApplyWithNonBooleanReturnsFalse() {
+		Boolean actual = not(constant("x")).apply(mock(WebDriver.class));
+		
+		assertThat(actual, is(false));
+	}
+	
+	@Test
+	public void notToStringReturnsMessage() {
+		assertThat(not(string("x")).toString(), is("not (x)"));
+	}
+
 	private static WebElement newDisplayedElement() {
 		WebElement element = mock(WebElement.class);
 		when(element.isDisplayed()).thenReturn(true);
@@ -151,9 +418,21 @@ public class ExpectedConditions2Test {
 		return condition;
 	}
 
-	private static ExpectedCondition<Boolean> constant(boolean value) {
-		ExpectedCondition<Boolean> condition = mock(ExpectedCondition.class);
+	private static <T> ExpectedCondition<T> constant(T value) {
+		ExpectedCondition<T> condition = mock(ExpectedCondition.class);
 		when(condition.apply(any(WebDriver.class))).thenReturn(value);
 		return condition;
 	}
+	
+	private static <T> ExpectedCondition<T> constant(T value, String string) {
+		ExpectedCondition<T> condition = constant(value);
+		when(condition.toString()).thenReturn(string);
+		return condition;
+	}
+	
+	private static ExpectedCondition<Boolean> throwing(RuntimeException exception) {
+		ExpectedCondition<Boolean> condition = mock(ExpectedCondition.class);
+		when(condition.apply(any(WebDriver.class))).thenThrow(exception);
+		return condition;
+	}
 }
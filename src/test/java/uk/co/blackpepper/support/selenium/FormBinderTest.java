@@ -0,0 +1,283 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.collect.ImmutableMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class FormBinderTest {
+	
+	@Test
+	public void ofReturnsCachedBinder() {
+		FormBinder<Bean> actual = FormBinder.of(Bean.class);
+		
+		assertThat(actual, is(sameInstance(FormBinder.of(Bean.class))));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void ofWithUnsupportedAnnotatedPropertyThrowsException() {
+		FormBinder.of(UnsupportedBean.class);
+	}
+	
+	@Test
+	public void readSetsProperties() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			newControl("text", "text", "x", false),
+			newControl("flag", "checkbox", "on", true),
+			newControl("number", "text", "1", false),
+			newControl("colour", "radio", "RED", false),
+			newControl("colour", "radio", "GREEN", true),
+			newControl("other-name", "text", "y", false)
+		));
+		
+		Bean actual = FormBinder.of(Bean.class).read(newElementWithDriver(driver), new Bean());
+		
+		assertThat(actual.getText(), is("x"));
+		assertThat(actual.isFlag(), is(true));
+		assertThat(actual.getNumber(), is(1));
+		assertThat(actual.getColour(), is(Colour.GREEN));
+		assertThat(actual.getRenamed(), is("y"));
+	}
+	
+	@Test
+	public void readWithMissingControlLeavesProperty() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		Bean bean = new Bean();
+		bean.setText("x");
+		
+		Bean actual = FormBinder.of(Bean.class).read(newElementWithDriver(driver), bean);
+		
+		assertThat(actual.getText(), is("x"));
+	}
+	
+	@Test
+	public void readWithEmptyValueSetsNull() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			newControl("colour", "radio", "RED", false)
+		));
+		Bean bean = new Bean();
+		bean.setColour(Colour.RED);
+		
+		Bean actual = FormBinder.of(Bean.class).read(newElementWithDriver(driver), bean);
+		
+		assertThat(actual.getColour(), is(nullValue()));
+	}
+	
+	@Test
+	public void writeFillsForm() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		Bean bean = new Bean();
+		bean.setText("x");
+		bean.setFlag(true);
+		bean.setNumber(1);
+		bean.setColour(Colour.GREEN);
+		bean.setRenamed("y");
+		
+		FormBinder.of(Bean.class).write(bean, form);
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(ImmutableMap.of(
+			"colour", "GREEN", "flag", true, "number", "1", "other-name", "y", "text", "x"
+		)));
+	}
+	
+	@Test
+	public void writeWithNullPropertyDoesNotWriteControl() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		
+		FormBinder.of(Bean.class).write(new Bean(), form);
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(ImmutableMap.of(
+			"flag", false, "number", "0"
+		)));
+	}
+	
+	@Test
+	public void writeWithNonPublicBeanFillsForm() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		NonPublicBean bean = new NonPublicBean();
+		bean.setText("x");
+		
+		FormBinder.of(NonPublicBean.class).write(bean, form);
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(ImmutableMap.of(
+			"text", "x"
+		)));
+	}
+	
+	@Test
+	public void writeWhenGetterThrowsExceptionThrowsException() {
+		IllegalStateException exception = new IllegalStateException();
+		
+		try {
+			FormBinder.of(ThrowingBean.class).write(new ThrowingBean(exception), mock(WebElement.class));
+			fail();
+		}
+		catch (IllegalStateException actual) {
+			assertThat(actual, is(sameInstance(exception)));
+		}
+	}
+	
+	private static Map<String, Object> newControl(String name, String type, String value, boolean checked) {
+		return ImmutableMap.<String, Object>of("name", name, "type", type, "values", singletonList(value),
+			"checked", checked, "disabled", false);
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebElement newElementWithDriver(JavascriptExecutor driver) {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+		when(((WrapsDriver) element).getWrappedDriver()).thenReturn((WebDriver) driver);
+		return element;
+	}
+	
+	public enum Colour {
+		RED,
+		GREEN
+	}
+	
+	public static class Bean {
+		
+		private String text;
+		
+		private boolean flag;
+		
+		private int number;
+		
+		private Colour colour;
+		
+		@FormControlName("other-name")
+		private String renamed;
+		
+		public String getText() {
+			return text;
+		}
+		
+		public void setText(String text) {
+			this.text = text;
+		}
+		
+		public boolean isFlag() {
+			return flag;
+		}
+		
+		public void setFlag(boolean flag) {
+			this.flag = flag;
+		}
+		
+		public int getNumber() {
+			return number;
+		}
+		
+		public void setNumber(int number) {
+			this.number = number;
+		}
+		
+		public Colour getColour() {
+			return colour;
+		}
+		
+		public void setColour(Colour colour) {
+			this.colour = colour;
+		}
+		
+		public String getRenamed() {
+			return renamed;
+		}
+		
+		public void setRenamed(String renamed) {
+			this.renamed = renamed;
+		}
+	}
+	
+	public static class UnsupportedBean {
+		
+		@FormControlName("x")
+		private Object value;
+		
+		public Object getValue() {
+			return value;
+		}
+		
+		public void setValue(Object value) {
+			this.value = value;
+		}
+	}
+	
+	private static class NonPublicBean {
+		
+		private String text;
+		
+		public String getText() {
+			return text;
+		}
+		
+		public void setText(String text) {
+			this.text = text;
+		}
+	}
+	
+	public static class ThrowingBean {
+		
+		private final RuntimeException exception;
+		
+		public ThrowingBean(RuntimeException exception) {
+			this.exception = exception;
+		}
+		
+		public String getText() {
+			throw exception;
+		}
+		
+		public void setText(String text) {
+			throw exception;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.collect.ImmutableMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class FormChangeTrackerTest {
+	
+	@Test
+	public void installWithJavascriptExecutesScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement form = newElementWithDriver(driver);
+		
+		FormChangeTracker.install(form);
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(true), anyString());
+	}
+	
+	@Test
+	public void installTwiceWithJavascriptUsesDistinctIds() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement form = newElementWithDriver(driver);
+		
+		FormChangeTracker.install(form);
+		FormChangeTracker.install(form);
+		
+		ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+		verify(driver, times(2)).executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(true),
+			ids.capture());
+		assertThat(ids.getAllValues().get(0), is(not(ids.getAllValues().get(1))));
+	}
+	
+	@Test
+	public void drainWithJavascriptReturnsChangedControls() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement form = newElementWithDriver(driver);
+		FormChangeTracker tracker = FormChangeTracker.install(form);
+		when(driver.executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(false), anyString()))
+			.thenReturn(singletonList(
+				ImmutableMap.of("name", "x", "type", "text", "values", singletonList("y"), "checked", false,
+					"disabled", false)
+			));
+		
+		List<FormControl> actual = tracker.drain();
+		
+		assertThat(actual, contains(new FormControl("x", "text", "y", false, false)));
+	}
+	
+	@Test
+	public void drainWithJavascriptReturnsSelectedValuesOfMultipleSelect() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement form = newElementWithDriver(driver);
+		FormChangeTracker tracker = FormChangeTracker.install(form);
+		when(driver.executeScript(anyString(), eq(form), eq("input, select, textarea"), eq(false), anyString()))
+			.thenReturn(singletonList(
+				ImmutableMap.of("name", "x", "type", "select-multiple", "values", asList("y", "z"), "checked", false,
+					"disabled", false)
+			));
+		
+		List<FormControl> actual = tracker.drain();
+		
+		assertThat(actual, contains(new FormControl("x", "select-multiple", asList("y", "z"), false, false)));
+	}
+	
+	@Test
+	public void drainWithoutJavascriptReturnsChangedControls() {
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector("input, select, textarea")))
+			.thenReturn(Collections.<WebElement>emptyList())
+			.thenReturn(singletonList(newControl("x", "text", "y")));
+		FormChangeTracker tracker = FormChangeTracker.install(form);
+		
+		List<FormControl> actual = tracker.drain();
+		
+		assertThat(actual, contains(new FormControl("x", "text", "y", false, true)));
+	}
+	
+	@Test
+	public void drainWithoutJavascriptTwiceReturnsOnlyNewChanges() {
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector("input, select, textarea")))
+			.thenReturn(Collections.<WebElement>emptyList())
+			.thenReturn(singletonList(newControl("x", "text", "y")));
+		FormChangeTracker tracker = FormChangeTracker.install(form);
+		tracker.drain();
+		
+		List<FormControl> actual = tracker.drain();
+		
+		assertThat(actual, is(empty()));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebElement newElementWithDriver(JavascriptExecutor driver) {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+		when(((WrapsDriver) element).getWrappedDriver()).thenReturn((WebDriver) driver);
+		return element;
+	}
+	
+	private static WebElement newControl(String name, String type, String value) {
+		WebElement control = mock(WebElement.class);
+		when(control.getAttribute("name")).thenReturn(name);
+		when(control.getAttribute("type")).thenReturn(type);
+		when(control.getAttribute("value")).thenReturn(value);
+		return control;
+	}
+}
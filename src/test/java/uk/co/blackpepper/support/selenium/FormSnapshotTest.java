@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FormSnapshotTest {
+	
+	@Test
+	public void diffWithSameControlsReturnsEmptyList() {
+		FormSnapshot previous = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		FormSnapshot current = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, is(empty()));
+	}
+	
+	@Test
+	public void diffWithChangedValueReturnsControl() {
+		FormSnapshot previous = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		FormSnapshot current = new FormSnapshot(singletonList(new FormControl("x", "text", "z", false, false)));
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, contains(new FormControl("x", "text", "z", false, false)));
+	}
+	
+	@Test
+	public void diffWithChangedDisabledReturnsControl() {
+		FormSnapshot previous = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		FormSnapshot current = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, true)));
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, contains(new FormControl("x", "text", "y", false, true)));
+	}
+	
+	@Test
+	public void diffWithChangedRadioReturnsChangedRadios() {
+		FormSnapshot previous = new FormSnapshot(asList(
+			new FormControl("x", "radio", "a", true, false),
+			new FormControl("x", "radio", "b", false, false),
+			new FormControl("x", "radio", "c", false, false)
+		));
+		FormSnapshot current = new FormSnapshot(asList(
+			new FormControl("x", "radio", "a", false, false),
+			new FormControl("x", "radio", "b", true, false),
+			new FormControl("x", "radio", "c", false, false)
+		));
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, contains(new FormControl("x", "radio", "a", false, false),
+			new FormControl("x", "radio", "b", true, false)));
+	}
+	
+	@Test
+	public void diffWithAddedControlReturnsControl() {
+		FormSnapshot previous = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		FormSnapshot current = new FormSnapshot(asList(new FormControl("x", "text", "y", false, false),
+			new FormControl("x", "text", "z", false, false)));
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, contains(new FormControl("x", "text", "z", false, false)));
+	}
+	
+	@Test
+	public void diffWithRemovedControlReturnsEmptyList() {
+		FormSnapshot previous = new FormSnapshot(singletonList(new FormControl("x", "text", "y", false, false)));
+		FormSnapshot current = new FormSnapshot(Collections.<FormControl>emptyList());
+		
+		List<FormControl> actual = current.diff(previous);
+		
+		assertThat(actual, is(empty()));
+	}
+}
@@ -15,15 +15,26 @@
  */
 package uk.co.blackpepper.support.selenium;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Booleans;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 
 import static org.hamcrest.Matchers.contains;
@@ -31,29 +42,293 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isEmptyString;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import static com.google.common.collect.Lists.newArrayList;
 
+import static uk.co.blackpepper.support.selenium.FormUtils.classMembership;
+import static uk.co.blackpepper.support.selenium.FormUtils.fillForm;
 import static uk.co.blackpepper.support.selenium.FormUtils.getControlValue;
+import static uk.co.blackpepper.support.selenium.FormUtils.getDefaultValueSetter;
+import static uk.co.blackpepper.support.selenium.FormUtils.getFormGroupErrors;
 import static uk.co.blackpepper.support.selenium.FormUtils.getOptionLabels;
+import static uk.co.blackpepper.support.selenium.FormUtils.getOptions;
 import static uk.co.blackpepper.support.selenium.FormUtils.getOptionValues;
 import static uk.co.blackpepper.support.selenium.FormUtils.getRadioValue;
 import static uk.co.blackpepper.support.selenium.FormUtils.hasClass;
+import static uk.co.blackpepper.support.selenium.FormUtils.hasClasses;
 import static uk.co.blackpepper.support.selenium.FormUtils.hasError;
 import static uk.co.blackpepper.support.selenium.FormUtils.hasFormGroupError;
 import static uk.co.blackpepper.support.selenium.FormUtils.isEnabled;
+import static uk.co.blackpepper.support.selenium.FormUtils.readForm;
+import static uk.co.blackpepper.support.selenium.FormUtils.setCheckboxGroup;
 import static uk.co.blackpepper.support.selenium.FormUtils.setCheckboxValue;
 import static uk.co.blackpepper.support.selenium.FormUtils.setControlValue;
+import static uk.co.blackpepper.support.selenium.FormUtils.setDefaultValueSetter;
 import static uk.co.blackpepper.support.selenium.FormUtils.setRadioValue;
+import static uk.co.blackpepper.support.selenium.FormUtils.setSelectedValues;
 
 public class FormUtilsTest {
 	
+	@Test
+	public void readFormWithJavascriptReturnsControls() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			ImmutableMap.of("name", "x", "type", "text", "values", singletonList("y"), "checked", false,
+				"disabled", false),
+			ImmutableMap.of("name", "z", "type", "checkbox", "values", singletonList("on"), "checked", true,
+				"disabled", true)
+		));
+		WebElement form = newElementWithDriver(driver);
+		
+		List<FormControl> actual = readForm(form);
+		
+		assertThat(actual, contains(new FormControl("x", "text", "y", false, false),
+			new FormControl("z", "checkbox", "on", true, true)));
+	}
+	
+	@Test
+	public void readFormWithJavascriptReturnsSelectedValuesOfMultipleSelect() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList(
+			ImmutableMap.of("name", "x", "type", "select-multiple", "values", asList("y", "z"), "checked", false,
+				"disabled", false)
+		));
+		WebElement form = newElementWithDriver(driver);
+		
+		List<FormControl> actual = readForm(form);
+		
+		assertThat(actual.get(0).getValues(), contains("y", "z"));
+	}
+	
+	@Test
+	public void readFormWithJavascriptDoesNotFindElements() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		
+		readForm(form);
+		
+		verify(form, never()).findElements(any(By.class));
+	}
+	
+	@Test
+	public void readFormWithJavascriptIssuesOneCommand() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		when(((WebDriver) driver).findElement(By.id("x"))).thenReturn(mock(WebElement.class));
+		CommandBudget budget = CommandBudget.of((WebDriver) driver);
+		WebElement form = budget.getDriver().findElement(By.id("x"));
+		budget.reset();
+		
+		readForm(form);
+		
+		budget.assertAtMost(1);
+	}
+	
+	@Test
+	public void readFormWithoutJavascriptReturnsControls() {
+		WebElement control = newControl("x", "text", "y");
+		when(control.isEnabled()).thenReturn(true);
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector("input, select, textarea"))).thenReturn(singletonList(control));
+		
+		List<FormControl> actual = readForm(form);
+		
+		assertThat(actual, contains(new FormControl("x", "text", "y", false, false)));
+	}
+	
+	@Test
+	public void readFormWithoutJavascriptReturnsSelectedValuesOfMultipleSelect() {
+		WebElement option1 = newOption("y", "");
+		when(option1.isSelected()).thenReturn(true);
+		WebElement option2 = newOption("z", "");
+		when(option2.isSelected()).thenReturn(true);
+		WebElement select = newSelect(option1, newOption("w", ""), option2);
+		when(select.getAttribute("name")).thenReturn("x");
+		when(select.getAttribute("type")).thenReturn("select-multiple");
+		when(select.getAttribute("multiple")).thenReturn("true");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector("input, select, textarea"))).thenReturn(singletonList(select));
+		
+		List<FormControl> actual = readForm(form);
+		
+		assertThat(actual.get(0).getValues(), contains("y", "z"));
+	}
+	
+	@Test
+	public void readFormWithoutJavascriptIgnoresUnnamedControls() {
+		WebElement control = newControl(null, "text", "y");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector("input, select, textarea"))).thenReturn(singletonList(control));
+		
+		List<FormControl> actual = readForm(form);
+		
+		assertThat(actual, is(empty()));
+	}
+	
+	@Test
+	public void fillFormWithJavascriptExecutesScriptWithValues() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		
+		fillForm(form, ImmutableMap.of("x", "y", "z", true, "w", asList("v", "u")));
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("input, select, textarea"),
+			eq(ImmutableMap.of("x", "y", "z", true, "w", asList("v", "u"))));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fillFormWithJavascriptAndUnknownControlThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList("x"));
+		WebElement form = newElementWithDriver(driver);
+		
+		fillForm(form, ImmutableMap.of("x", "y"));
+	}
+	
+	@Test
+	public void fillFormWithJavascriptAndUnknownSelectValueThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList("x=z"));
+		WebElement form = newElementWithDriver(driver);
+		
+		try {
+			fillForm(form, ImmutableMap.of("x", "z"));
+			fail();
+		}
+		catch (IllegalArgumentException exception) {
+			assertThat(exception.getMessage(), is("Unknown controls or values: x=z"));
+		}
+	}
+	
+	@Test
+	public void fillFormWithJavascriptAndUnmatchedCheckboxValueThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList("x=w"));
+		WebElement form = newElementWithDriver(driver);
+		
+		try {
+			fillForm(form, ImmutableMap.of("x", asList("y", "w")));
+			fail();
+		}
+		catch (IllegalArgumentException exception) {
+			assertThat(exception.getMessage(), is("Unknown controls or values: x=w"));
+		}
+	}
+	
+	@Test
+	public void fillFormWithKeystrokeNameClearsAndSetsValue() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement control = mock(WebElement.class);
+		WebElement form = newElementWithDriver(driver);
+		when(form.findElement(By.name("x"))).thenReturn(control);
+		
+		fillForm(form, ImmutableMap.of("x", "y"), singleton("x"));
+		
+		InOrder order = inOrder(control);
+		order.verify(control).clear();
+		order.verify(control).sendKeys("y");
+		verify(driver, never()).executeScript(anyString(), anyVararg());
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptSetsTextValue() {
+		WebElement control = newControl("x", "text", "");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(singletonList(control));
+		
+		fillForm(form, ImmutableMap.of("x", "y"));
+		
+		verify(control).sendKeys("y");
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptSetsCheckboxValue() {
+		WebElement checkbox = newControl("x", "checkbox", "on");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(singletonList(checkbox));
+		
+		fillForm(form, ImmutableMap.of("x", true));
+		
+		verify(checkbox).click();
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptSetsRadioValue() {
+		WebElement radio1 = newControl("x", "radio", "y");
+		WebElement radio2 = newControl("x", "radio", "z");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(asList(radio1, radio2));
+		
+		fillForm(form, ImmutableMap.of("x", "z"));
+		
+		verify(radio2).click();
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptSetsCheckboxGroupValues() {
+		WebElement checkbox1 = newControl("x", "checkbox", "y");
+		WebElement checkbox2 = newControl("x", "checkbox", "z");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(asList(checkbox1, checkbox2));
+		
+		fillForm(form, ImmutableMap.of("x", asList("z")));
+		
+		verify(checkbox1, never()).click();
+		verify(checkbox2).click();
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptAndUnknownSelectValueThrowsException() {
+		WebElement select = newSelect(newOption("y", ""));
+		when(select.getAttribute("type")).thenReturn("select-one");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(singletonList(select));
+		
+		try {
+			fillForm(form, ImmutableMap.of("x", "z"));
+			fail();
+		}
+		catch (IllegalArgumentException exception) {
+			assertThat(exception.getMessage(), is("Unknown option values: z"));
+		}
+	}
+	
+	@Test
+	public void fillFormWithoutJavascriptAndUnmatchedCheckboxValueThrowsException() {
+		WebElement checkbox = newControl("x", "checkbox", "y");
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(singletonList(checkbox));
+		
+		try {
+			fillForm(form, ImmutableMap.of("x", asList("y", "w")));
+			fail();
+		}
+		catch (IllegalArgumentException exception) {
+			assertThat(exception.getMessage(), is("Unknown checkbox values: w"));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void fillFormWithoutJavascriptAndUnknownControlThrowsException() {
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.name("x"))).thenReturn(Collections.<WebElement>emptyList());
+		
+		fillForm(form, ImmutableMap.of("x", "y"));
+	}
+	
 	@Test
 	public void getControlValueReturnsValue() {
 		WebElement element = mock(WebElement.class);
@@ -79,6 +354,33 @@ public class FormUtilsTest {
 		order.verify(element).sendKeys("x");
 	}
 	
+	@Test
+	public void setControlValueWithValueSetterSetsValue() {
+		WebElement control = mock(WebElement.class);
+		ValueSetter valueSetter = mock(ValueSetter.class);
+		
+		setControlValue(control, "x", valueSetter);
+		
+		verify(valueSetter).setValue(control, "x");
+	}
+	
+	@Test
+	public void setControlValueUsesDefaultValueSetter() {
+		WebElement control = mock(WebElement.class);
+		ValueSetter valueSetter = mock(ValueSetter.class);
+		ValueSetter previous = getDefaultValueSetter();
+		setDefaultValueSetter(valueSetter);
+		
+		try {
+			setControlValue(control, "x");
+		}
+		finally {
+			setDefaultValueSetter(previous);
+		}
+		
+		verify(valueSetter).setValue(control, "x");
+	}
+	
 	@Test
 	public void setCheckboxValueWhenUncheckedWithCheckedClicksCheckbox() {
 		WebElement checkbox = newCheckbox();
@@ -115,6 +417,51 @@ public class FormUtilsTest {
 		verify(checkbox).click();
 	}
 
+	@Test
+	public void setCheckboxGroupWithJavascriptExecutesScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement form = newElementWithDriver(driver);
+		
+		setCheckboxGroup(form, "x", ImmutableSet.of("y", "z"));
+		
+		verify(driver).executeScript(anyString(), eq(form), eq("x"), eq(asList("y", "z")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setCheckboxGroupWithJavascriptAndUnknownValueThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList("y"));
+		
+		setCheckboxGroup(newElementWithDriver(driver), "x", singleton("y"));
+	}
+	
+	@Test
+	public void setCheckboxGroupWithoutJavascriptTogglesCheckboxes() {
+		WebElement checkbox1 = newControl("x", "checkbox", "y");
+		WebElement checkbox2 = newControl("x", "checkbox", "z");
+		when(checkbox2.isSelected()).thenReturn(true);
+		WebElement checkbox3 = newControl("x", "checkbox", "w");
+		when(checkbox3.isSelected()).thenReturn(true);
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.cssSelector("input[type=checkbox][name=\"x\"]")))
+			.thenReturn(asList(checkbox1, checkbox2, checkbox3));
+		
+		setCheckboxGroup(context, "x", ImmutableSet.of("y", "w"));
+		
+		verify(checkbox1).click();
+		verify(checkbox2).click();
+		verify(checkbox3, never()).click();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setCheckboxGroupWithoutJavascriptAndUnknownValueThrowsException() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(any(By.class))).thenReturn(Collections.<WebElement>emptyList());
+		
+		setCheckboxGroup(context, "x", singleton("y"));
+	}
+	
 	@Test
 	public void getRadioValueWithSelectedRadioReturnsValue() {
 		WebElement radio = newSelectedRadioWithValue("x");
@@ -143,6 +490,58 @@ public class FormUtilsTest {
 		assertThat(actual, isEmptyString());
 	}
 	
+	@Test
+	public void getRadioValueByNameWithCheckedRadioReturnsValue() {
+		WebElement radio = newRadioWithValue("x");
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.cssSelector("input[type=radio][name=\"y\"]:checked")))
+			.thenReturn(singletonList(radio));
+		
+		String actual = getRadioValue(context, "y");
+		
+		assertThat(actual, is("x"));
+	}
+	
+	@Test
+	public void getRadioValueByNameWithoutCheckedRadioReturnsEmptyString() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(any(By.class))).thenReturn(Collections.<WebElement>emptyList());
+		
+		String actual = getRadioValue(context, "y");
+		
+		assertThat(actual, isEmptyString());
+	}
+	
+	@Test
+	public void getRadioValueByNameEscapesName() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(any(By.class))).thenReturn(Collections.<WebElement>emptyList());
+		
+		getRadioValue(context, "x\"y");
+		
+		verify(context).findElements(By.cssSelector("input[type=radio][name=\"x\\\"y\"]:checked"));
+	}
+	
+	@Test
+	public void setRadioValueByNameClicksRadio() {
+		WebElement radio = mock(WebElement.class);
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.cssSelector("input[type=radio][name=\"x\"][value=\"y\"]")))
+			.thenReturn(singletonList(radio));
+		
+		setRadioValue(context, "x", "y");
+		
+		verify(radio).click();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setRadioValueByNameWithUnknownValueThrowsException() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(any(By.class))).thenReturn(Collections.<WebElement>emptyList());
+		
+		setRadioValue(context, "x", "y");
+	}
+	
 	@Test
 	public void setRadioValueWithValueClicksRadio() {
 		WebElement radio = newRadioWithValue("x");
@@ -169,6 +568,94 @@ public class FormUtilsTest {
 		setRadioValue(singletonList(radio), "y");
 	}
 	
+	@Test
+	public void setSelectedValuesWithJavascriptExecutesScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(emptyList());
+		WebElement select = newElementWithDriver(driver);
+		
+		setSelectedValues(select, ImmutableSet.of("x", "y"));
+		
+		verify(driver).executeScript(anyString(), eq(select), eq(asList("x", "y")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setSelectedValuesWithJavascriptAndUnknownValueThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList("x"));
+		
+		setSelectedValues(newElementWithDriver(driver), singleton("x"));
+	}
+	
+	@Test
+	public void setSelectedValuesWithoutJavascriptTogglesOptions() {
+		WebElement option1 = newOption("x", "");
+		WebElement option2 = newOption("y", "");
+		when(option2.isSelected()).thenReturn(true);
+		WebElement option3 = newOption("z", "");
+		WebElement select = newSelect(option1, option2, option3);
+		
+		setSelectedValues(select, ImmutableSet.of("x"));
+		
+		verify(option1).click();
+		verify(option2).click();
+		verify(option3, never()).click();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setSelectedValuesWithoutJavascriptAndUnknownValueThrowsException() {
+		setSelectedValues(newSelect(newOption("x", "")), singleton("y"));
+	}
+	
+	@Test
+	public void getOptionsWithJavascriptReturnsOptions() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			ImmutableMap.of("value", "x", "label", "y", "selected", true, "disabled", false),
+			ImmutableMap.of("value", "z", "label", "w", "selected", false, "disabled", true)
+		));
+		WebElement select = newElementWithDriver(driver);
+		
+		List<SelectOption> actual = getOptions(select);
+		
+		assertThat(actual, contains(new SelectOption("x", "y", true, false), new SelectOption("z", "w", false, true)));
+	}
+	
+	@Test
+	public void getOptionsWithoutJavascriptReturnsOptions() {
+		WebElement option = newOption("x", "y");
+		when(option.isSelected()).thenReturn(true);
+		when(option.isEnabled()).thenReturn(true);
+		
+		List<SelectOption> actual = getOptions(newSelect(option));
+		
+		assertThat(actual, contains(new SelectOption("x", "y", true, false)));
+	}
+	
+	@Test
+	public void getOptionValuesWithJavascriptReturnsValues() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			ImmutableMap.of("value", "x", "label", "", "selected", false, "disabled", false),
+			ImmutableMap.of("value", "y", "label", "", "selected", false, "disabled", false)
+		));
+		
+		List<String> actual = getOptionValues(newElementWithDriver(driver));
+		
+		assertThat(actual, contains("x", "y"));
+	}
+	
+	@Test
+	public void getOptionValuesReadsEachOptionOnce() {
+		WebElement option = newOption("x", "");
+		
+		List<String> actual = getOptionValues(newSelect(option));
+		actual.toString();
+		actual.get(0);
+		
+		verify(option).getAttribute("value");
+	}
+	
 	@Test
 	public void getOptionValuesReturnsValues() {
 		WebElement select = newSelect(newOption("x", ""), newOption("y", ""));
@@ -185,6 +672,19 @@ public class FormUtilsTest {
 		assertThat(actual, is(empty()));
 	}
 
+	@Test
+	public void getOptionLabelsWithJavascriptReturnsLabels() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(
+			ImmutableMap.of("value", "", "label", "x", "selected", false, "disabled", false),
+			ImmutableMap.of("value", "", "label", "y", "selected", false, "disabled", false)
+		));
+		
+		List<String> actual = getOptionLabels(newElementWithDriver(driver));
+		
+		assertThat(actual, contains("x", "y"));
+	}
+	
 	@Test
 	public void getOptionLabelsReturnsLabels() {
 		WebElement select = newSelect(newOption("", "x"), newOption("", "y"));
@@ -216,6 +716,45 @@ public class FormUtilsTest {
 		assertThat(isEnabled(element), is(false));
 	}
 	
+	@Test
+	public void getFormGroupErrorsWithJavascriptReturnsErrors() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement control = mock(WebElement.class);
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(singletonList(
+			ImmutableMap.of("control", control, "name", "x", "helpText", "y")
+		));
+		
+		List<FormGroupError> actual = getFormGroupErrors(newElementWithDriver(driver));
+		
+		assertThat(actual, contains(new FormGroupError(control, "x", "y")));
+	}
+	
+	@Test
+	public void getFormGroupErrorsWithoutJavascriptReturnsErrors() {
+		WebElement control = newControl("x", "text", "");
+		WebElement helpBlock = mock(WebElement.class);
+		when(helpBlock.getText()).thenReturn("y");
+		WebElement formGroup = mock(WebElement.class);
+		when(formGroup.findElements(By.cssSelector(".help-block"))).thenReturn(singletonList(helpBlock));
+		when(formGroup.findElements(By.cssSelector("input, select, textarea"))).thenReturn(singletonList(control));
+		WebElement form = mock(WebElement.class);
+		when(form.findElements(By.cssSelector(".form-group.has-error"))).thenReturn(singletonList(formGroup));
+		
+		List<FormGroupError> actual = getFormGroupErrors(form);
+		
+		assertThat(actual, contains(new FormGroupError(control, "x", "y")));
+	}
+	
+	@Test
+	public void hasFormGroupErrorWithJavascriptReturnsScriptResult() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(true);
+		WebElement field = newElementWithDriver(driver);
+		
+		assertThat(hasFormGroupError(field), is(true));
+		verify(field, never()).findElements(any(By.class));
+	}
+	
 	@Test
 	public void hasFormGroupErrorWithErrorReturnsTrue() {
 		WebElement formGroup = newElementWithClass("has-error");
@@ -264,6 +803,85 @@ public class FormUtilsTest {
 		assertThat(hasClass(newElementWithClass("x"), "y"), is(false));
 	}
 
+	@Test
+	public void hasClassesWithJavascriptReturnsScriptResults() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(true, false));
+		
+		boolean[] actual = hasClasses(newElementWithDriver(driver), "x", "y");
+		
+		assertThat(Booleans.asList(actual), contains(true, false));
+	}
+	
+	@Test
+	public void hasClassesWithoutJavascriptReturnsMembership() {
+		WebElement element = newElementWithClass("x  z");
+		
+		boolean[] actual = hasClasses(element, "x", "y", "z");
+		
+		assertThat(Booleans.asList(actual), contains(true, false, true));
+		verify(element).getAttribute("class");
+	}
+	
+	@Test
+	public void classMembershipWithJavascriptReturnsScriptResults() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(false, true));
+		List<WebElement> elements = asList(newElementWithDriver(driver), newElementWithDriver(driver));
+		
+		BitSet actual = classMembership(elements, "x");
+		
+		assertThat(actual, is(bitSet(1)));
+		verify(driver).executeScript(anyString(), eq(elements), eq("x"));
+	}
+	
+	@Test
+	public void classMembershipWithoutJavascriptReturnsMembership() {
+		WebElement element1 = newElementWithClass("x");
+		WebElement element2 = newElementWithClass("y");
+		WebElement element3 = newElementWithClass("x");
+		List<WebElement> elements = asList(element1, element2, element3);
+		
+		BitSet actual = classMembership(elements, "x");
+		
+		assertThat(actual, is(bitSet(0, 2)));
+	}
+	
+	@Test
+	public void classMembershipWithNoElementsReturnsEmptyBitSet() {
+		BitSet actual = classMembership(Collections.<WebElement>emptyList(), "x");
+		
+		assertThat(actual.isEmpty(), is(true));
+	}
+	
+	private static BitSet bitSet(int... indexes) {
+		BitSet bitSet = new BitSet();
+		
+		for (int index : indexes) {
+			bitSet.set(index);
+		}
+		
+		return bitSet;
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebElement newElementWithDriver(JavascriptExecutor driver) {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+		when(((WrapsDriver) element).getWrappedDriver()).thenReturn((WebDriver) driver);
+		return element;
+	}
+	
+	private static WebElement newControl(String name, String type, String value) {
+		WebElement control = mock(WebElement.class);
+		when(control.getAttribute("name")).thenReturn(name);
+		when(control.getAttribute("type")).thenReturn(type);
+		when(control.getAttribute("value")).thenReturn(value);
+		return control;
+	}
+	
 	private static WebElement newElementWithClass(String cssClass) {
 		WebElement element = mock(WebElement.class);
 		when(element.getAttribute("class")).thenReturn(cssClass);
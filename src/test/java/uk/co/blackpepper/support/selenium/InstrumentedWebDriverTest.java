@@ -0,0 +1,370 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.Options;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.WebDriver.Timeouts;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.interactions.HasInputDevices;
+import org.openqa.selenium.interactions.Keyboard;
+import org.openqa.selenium.interactions.Mouse;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import uk.co.blackpepper.support.selenium.select2.Select2;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class InstrumentedWebDriverTest {
+	
+	@Test
+	public void instrumentWithJavascriptDriverReturnsJavascriptExecutor() {
+		WebDriver driver = (WebDriver) newJavascriptDriver();
+		
+		WebDriver actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics());
+		
+		assertThat(actual, is(instanceOf(JavascriptExecutor.class)));
+	}
+	
+	@Test
+	public void instrumentWithoutJavascriptDriverReturnsNonJavascriptExecutor() {
+		WebDriver actual = InstrumentedWebDriver.instrument(mock(WebDriver.class), new CommandMetrics());
+		
+		assertThat(actual, is(not(instanceOf(JavascriptExecutor.class))));
+	}
+	
+	@Test
+	public void instrumentWithInputDevicesDriverReturnsHasInputDevices() {
+		WebDriver actual = InstrumentedWebDriver.instrument(newInputDevicesDriver(), new CommandMetrics());
+		
+		assertThat(actual, is(instanceOf(HasInputDevices.class)));
+		assertThat(actual, is(not(instanceOf(JavascriptExecutor.class))));
+	}
+	
+	@Test
+	public void instrumentWithJavascriptAndInputDevicesDriverReturnsBoth() {
+		WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class,
+			HasInputDevices.class));
+		
+		WebDriver actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics());
+		
+		assertThat(actual, is(instanceOf(JavascriptExecutor.class)));
+		assertThat(actual, is(instanceOf(HasInputDevices.class)));
+	}
+	
+	@Test
+	public void instrumentWithoutInputDevicesDriverReturnsNonHasInputDevices() {
+		WebDriver actual = InstrumentedWebDriver.instrument(mock(WebDriver.class), new CommandMetrics());
+		
+		assertThat(actual, is(not(instanceOf(HasInputDevices.class))));
+	}
+	
+	@Test
+	public void getTitleRecordsCommand() {
+		WebDriver driver = mock(WebDriver.class);
+		VirtualTime time = new VirtualTime();
+		CommandMetrics metrics = new CommandMetrics(time);
+		
+		InstrumentedWebDriver.instrument(driver, metrics).getTitle();
+		
+		assertThat(metrics.get(CommandMetrics.UNSCOPED, "getTitle").getCount(), is(1L));
+	}
+	
+	@Test
+	public void findElementWrapsElement() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(driver.findElement(By.id("x"))).thenReturn(element);
+		
+		WebElement actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics()).findElement(By.id("x"));
+		
+		assertThat(actual, is(instanceOf(InstrumentedWebElement.class)));
+		assertThat(((WrapsElement) actual).getWrappedElement(), is(sameInstance(element)));
+	}
+	
+	@Test
+	public void findElementsWrapsElements() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(driver.findElements(By.id("x"))).thenReturn(asList(element));
+		
+		List<WebElement> actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics())
+			.findElements(By.id("x"));
+		
+		assertThat(actual, contains(instanceOf(InstrumentedWebElement.class)));
+	}
+	
+	@Test
+	public void findElementWhenNotFoundRecordsCommand() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElement(any(By.class))).thenThrow(new NoSuchElementException("x"));
+		CommandMetrics metrics = new CommandMetrics();
+		
+		try {
+			InstrumentedWebDriver.instrument(driver, metrics).findElement(By.id("x"));
+			fail();
+		}
+		catch (NoSuchElementException exception) {
+			assertThat(metrics.getCommand("findElement").getCount(), is(1L));
+		}
+	}
+	
+	@Test
+	public void findElementInHelperRecordsHelper() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElement(any(By.class))).thenReturn(mock(WebElement.class));
+		CommandMetrics metrics = new CommandMetrics();
+		
+		Select2.getInput(InstrumentedWebDriver.instrument(driver, metrics), "x");
+		
+		assertThat(metrics.get("Select2.getInput", "findElement").getCount(), is(1L));
+	}
+	
+	@Test
+	public void executeScriptInDelegatingHelperRecordsOutermostHelper() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(Collections.emptyList());
+		when(((WebDriver) driver).findElement(By.id("x"))).thenReturn(mock(WebElement.class));
+		CommandMetrics metrics = new CommandMetrics();
+		WebElement form = InstrumentedWebDriver.instrument((WebDriver) driver, metrics).findElement(By.id("x"));
+		
+		FormUtils.fillForm(form, Collections.singletonMap("x", "y"));
+		
+		assertThat(metrics.get("FormUtils.fillForm", "executeScript").getCount(), is(1L));
+		assertThat(metrics.getHelpers(), containsInAnyOrder(CommandMetrics.UNSCOPED, "FormUtils.fillForm"));
+	}
+	
+	@Test
+	public void executeScriptInNetworkActivityRecordsHelper() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		CommandMetrics metrics = new CommandMetrics();
+		
+		NetworkActivity.install(InstrumentedWebDriver.instrument((WebDriver) driver, metrics));
+		
+		assertThat(metrics.get("NetworkActivity.install", "executeScript").getCount(), is(1L));
+	}
+	
+	@Test
+	public void executeScriptInConditionRecordsFactoryMethod() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		CommandMetrics metrics = new CommandMetrics();
+		
+		MutationConditions.presenceOfElementLocated(By.id("x"))
+			.apply(InstrumentedWebDriver.instrument((WebDriver) driver, metrics));
+		
+		assertThat(metrics.get("MutationConditions.presenceOfElementLocated", "executeAsyncScript").getCount(),
+			is(1L));
+	}
+	
+	@Test
+	public void executeScriptUnwrapsArguments() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element = mock(WebElement.class);
+		when(((WebDriver) driver).findElement(By.id("x"))).thenReturn(element);
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument((WebDriver) driver,
+			new CommandMetrics());
+		WebElement instrumentedElement = instrumentedDriver.findElement(By.id("x"));
+		
+		((JavascriptExecutor) instrumentedDriver).executeScript("x", instrumentedElement,
+			asList(instrumentedElement));
+		
+		verify(driver).executeScript("x", element, asList(element));
+	}
+	
+	@Test
+	public void executeScriptWrapsResult() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element = mock(WebElement.class);
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(element,
+			Collections.singletonMap("element", element)));
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument((WebDriver) driver,
+			new CommandMetrics());
+		
+		List<?> actual = (List<?>) ((JavascriptExecutor) instrumentedDriver).executeScript("x");
+		
+		assertThat(actual.get(0), is(instanceOf(InstrumentedWebElement.class)));
+		assertThat(((Map<?, ?>) actual.get(1)).get("element"), is(instanceOf(InstrumentedWebElement.class)));
+	}
+	
+	@Test
+	public void executeScriptRecordsCommand() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		CommandMetrics metrics = new CommandMetrics();
+		
+		((JavascriptExecutor) InstrumentedWebDriver.instrument((WebDriver) driver, metrics)).executeScript("x");
+		
+		assertThat(metrics.getCommand("executeScript").getCount(), is(1L));
+	}
+	
+	@Test
+	public void switchToFrameReturnsInstrumentedDriver() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.switchTo()).thenReturn(mock(TargetLocator.class));
+		CommandMetrics metrics = new CommandMetrics();
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument(driver, metrics);
+		
+		WebDriver actual = instrumentedDriver.switchTo().frame(0);
+		
+		assertThat(actual, is(sameInstance((WebDriver) instrumentedDriver)));
+		assertThat(metrics.getCommand("switchTo.frame").getCount(), is(1L));
+	}
+	
+	@Test
+	public void switchToFrameUnwrapsElement() {
+		WebDriver driver = mock(WebDriver.class);
+		TargetLocator targetLocator = mock(TargetLocator.class);
+		when(driver.switchTo()).thenReturn(targetLocator);
+		WebElement frame = mock(WebElement.class);
+		when(driver.findElement(By.id("x"))).thenReturn(frame);
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument(driver, new CommandMetrics());
+		
+		instrumentedDriver.switchTo().frame(instrumentedDriver.findElement(By.id("x")));
+		
+		verify(targetLocator).frame(eq(frame));
+	}
+	
+	@Test
+	public void findElementWithLocatableElementReturnsWrappedCoordinates() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = newLocatableElement();
+		when(driver.findElement(By.id("x"))).thenReturn(element);
+		
+		WebElement actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics()).findElement(By.id("x"));
+		
+		assertThat(((Locatable) actual).getCoordinates(), is(sameInstance(((Locatable) element).getCoordinates())));
+	}
+	
+	@Test
+	public void findElementWithoutLocatableElementReturnsNonLocatable() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElement(By.id("x"))).thenReturn(mock(WebElement.class));
+		
+		WebElement actual = InstrumentedWebDriver.instrument(driver, new CommandMetrics()).findElement(By.id("x"));
+		
+		assertThat(actual, is(not(instanceOf(Locatable.class))));
+	}
+	
+	@Test
+	public void actionsRecordsMouseCommands() {
+		WebDriver driver = newInputDevicesDriver();
+		Mouse mouse = ((HasInputDevices) driver).getMouse();
+		WebElement element = newLocatableElement();
+		when(driver.findElement(By.id("x"))).thenReturn(element);
+		CommandMetrics metrics = new CommandMetrics();
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument(driver, metrics);
+		
+		new Actions(instrumentedDriver).click(instrumentedDriver.findElement(By.id("x"))).perform();
+		
+		verify(mouse).click(((Locatable) element).getCoordinates());
+		assertThat(metrics.getCommand("mouse.click").getCount(), is(1L));
+	}
+	
+	@Test
+	public void actionsRecordsKeyboardCommands() {
+		WebDriver driver = newInputDevicesDriver();
+		Keyboard keyboard = ((HasInputDevices) driver).getKeyboard();
+		CommandMetrics metrics = new CommandMetrics();
+		
+		new Actions(InstrumentedWebDriver.instrument(driver, metrics)).sendKeys("x").perform();
+		
+		verify(keyboard).sendKeys("x");
+		assertThat(metrics.getCommand("keyboard.sendKeys").getCount(), is(1L));
+	}
+	
+	@Test
+	public void manageTimeoutsImplicitlyWaitRecordsCommand() {
+		WebDriver driver = mock(WebDriver.class);
+		Timeouts timeouts = whenTimeouts(driver);
+		CommandMetrics metrics = new CommandMetrics();
+		
+		InstrumentedWebDriver.instrument(driver, metrics).manage().timeouts().implicitlyWait(1, TimeUnit.SECONDS);
+		
+		verify(timeouts).implicitlyWait(1, TimeUnit.SECONDS);
+		assertThat(metrics.getCommand("manage.timeouts.implicitlyWait").getCount(), is(1L));
+	}
+	
+	@Test
+	public void findOptionalElementWithImplicitWaitRecordsTimeouts() {
+		WebDriver driver = mock(WebDriver.class);
+		whenTimeouts(driver);
+		CommandMetrics metrics = new CommandMetrics();
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument(driver, metrics);
+		WebDriverUtils.setImplicitWait(instrumentedDriver, 1, TimeUnit.SECONDS);
+		
+		WebDriverUtils.findOptionalElement(instrumentedDriver, By.id("x"));
+		
+		assertThat(metrics.get("WebDriverUtils.findOptionalElement", "manage.timeouts.implicitlyWait").getCount(),
+			is(2L));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebDriver newInputDevicesDriver() {
+		WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(HasInputDevices.class));
+		Keyboard keyboard = mock(Keyboard.class);
+		when(((HasInputDevices) driver).getKeyboard()).thenReturn(keyboard);
+		Mouse mouse = mock(Mouse.class);
+		when(((HasInputDevices) driver).getMouse()).thenReturn(mouse);
+		return driver;
+	}
+	
+	private static WebElement newLocatableElement() {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(Locatable.class));
+		Coordinates coordinates = mock(Coordinates.class);
+		when(((Locatable) element).getCoordinates()).thenReturn(coordinates);
+		return element;
+	}
+	
+	private static Timeouts whenTimeouts(WebDriver driver) {
+		Options options = mock(Options.class);
+		when(driver.manage()).thenReturn(options);
+		Timeouts timeouts = mock(Timeouts.class);
+		when(options.timeouts()).thenReturn(timeouts);
+		return timeouts;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InstrumentedWebElementTest {
+	
+	@Test
+	public void clickClicksElement() {
+		WebElement element = mock(WebElement.class);
+		
+		newInstrumentedElement(element, new CommandMetrics()).click();
+		
+		verify(element).click();
+	}
+	
+	@Test
+	public void clickRecordsCommand() {
+		CommandMetrics metrics = new CommandMetrics();
+		
+		newInstrumentedElement(mock(WebElement.class), metrics).click();
+		
+		assertThat(metrics.getCommand("click").getCount(), is(1L));
+	}
+	
+	@Test
+	public void getTextReturnsText() {
+		WebElement element = mock(WebElement.class);
+		when(element.getText()).thenReturn("x");
+		CommandMetrics metrics = new CommandMetrics();
+		
+		assertThat(newInstrumentedElement(element, metrics).getText(), is("x"));
+		assertThat(metrics.getCommand("getText").getCount(), is(1L));
+	}
+	
+	@Test
+	public void findElementWrapsElement() {
+		WebElement element = mock(WebElement.class);
+		when(element.findElement(By.id("x"))).thenReturn(mock(WebElement.class));
+		
+		WebElement actual = newInstrumentedElement(element, new CommandMetrics()).findElement(By.id("x"));
+		
+		assertThat(actual, is(instanceOf(InstrumentedWebElement.class)));
+	}
+	
+	@Test
+	public void getWrappedDriverReturnsInstrumentedDriver() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElement(By.id("x"))).thenReturn(mock(WebElement.class));
+		InstrumentedWebDriver instrumentedDriver = InstrumentedWebDriver.instrument(driver, new CommandMetrics());
+		
+		WebElement actual = instrumentedDriver.findElement(By.id("x"));
+		
+		assertThat(((WrapsDriver) actual).getWrappedDriver(), is(sameInstance((WebDriver) instrumentedDriver)));
+	}
+	
+	@Test
+	public void equalsWithSameWrappedElementReturnsTrue() {
+		WebElement element = mock(WebElement.class);
+		CommandMetrics metrics = new CommandMetrics();
+		
+		assertThat(newInstrumentedElement(element, metrics).equals(newInstrumentedElement(element, metrics)),
+			is(true));
+	}
+	
+	private static WebElement newInstrumentedElement(WebElement element, CommandMetrics metrics) {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElement(By.id("x"))).thenReturn(element);
+		
+		return InstrumentedWebDriver.instrument(driver, metrics).findElement(By.id("x"));
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class JavascriptLocatorTest {
+	
+	@Test
+	public void ofWithIdReturnsLocator() {
+		assertLocator(By.id("x"), "id", "x");
+	}
+	
+	@Test
+	public void ofWithNameReturnsLocator() {
+		assertLocator(By.name("x"), "name", "x");
+	}
+	
+	@Test
+	public void ofWithClassNameReturnsLocator() {
+		assertLocator(By.className("x"), "className", "x");
+	}
+	
+	@Test
+	public void ofWithTagNameReturnsLocator() {
+		assertLocator(By.tagName("x"), "tagName", "x");
+	}
+	
+	@Test
+	public void ofWithCssSelectorReturnsLocator() {
+		assertLocator(By.cssSelector("a:not(.b) > c"), "cssSelector", "a:not(.b) > c");
+	}
+	
+	@Test
+	public void ofWithXPathReturnsLocator() {
+		assertLocator(By.xpath("//a[@b='c: d']"), "xpath", "//a[@b='c: d']");
+	}
+	
+	@Test
+	public void ofWithLinkTextReturnsLocator() {
+		assertLocator(By.linkText("x"), "linkText", "x");
+	}
+	
+	@Test
+	public void ofWithPartialLinkTextReturnsLocator() {
+		assertLocator(By.partialLinkText("x"), "partialLinkText", "x");
+	}
+	
+	@Test
+	public void ofWithCustomLocatorReturnsNull() {
+		By by = new By() {
+			@Override
+			public List<WebElement> findElements(SearchContext context) {
+				return Collections.emptyList();
+			}
+			
+			@Override
+			public String toString() {
+				return "By.id: x";
+			}
+		};
+		
+		assertThat(JavascriptLocator.of(by), is(nullValue()));
+	}
+	
+	@Test
+	public void toArgumentReturnsTypeAndValue() {
+		assertThat(JavascriptLocator.of(By.name("x")).toArgument(), contains("name", "x"));
+	}
+	
+	private static void assertLocator(By by, String expectedType, String expectedValue) {
+		JavascriptLocator locator = JavascriptLocator.of(by);
+		
+		assertThat(locator.getType(), is(expectedType));
+		assertThat(locator.getValue(), is(expectedValue));
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+	
+	@Test
+	public void recordAccumulatesLatencies() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(30));
+		
+		assertThat(histogram.getCount(), is(2L));
+		assertThat(histogram.getTotal(TimeUnit.MILLISECONDS), is(40L));
+		assertThat(histogram.getMean(TimeUnit.MILLISECONDS), is(20L));
+		assertThat(histogram.getMin(TimeUnit.MILLISECONDS), is(10L));
+		assertThat(histogram.getMax(TimeUnit.MILLISECONDS), is(30L));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void recordWithNegativeLatencyThrowsException() {
+		new LatencyHistogram().record(-1);
+	}
+	
+	@Test
+	public void getPercentileReturnsBucketUpperBound() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+		}
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(5000));
+		
+		assertThat(histogram.getPercentile(50, TimeUnit.MICROSECONDS), is(128L));
+		assertThat(histogram.getPercentile(100, TimeUnit.MICROSECONDS), is(5000L));
+	}
+	
+	@Test
+	public void getPercentileWhenEmptyReturnsZero() {
+		assertThat(new LatencyHistogram().getPercentile(50, TimeUnit.MICROSECONDS), is(0L));
+	}
+	
+	@Test
+	public void mergeAddsLatencies() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+		LatencyHistogram other = new LatencyHistogram();
+		other.record(TimeUnit.MILLISECONDS.toNanos(30));
+		
+		histogram.merge(other);
+		
+		assertThat(histogram.getCount(), is(2L));
+		assertThat(histogram.getMin(TimeUnit.MILLISECONDS), is(10L));
+		assertThat(histogram.getMax(TimeUnit.MILLISECONDS), is(30L));
+	}
+	
+	@Test
+	public void copyIsIndependent() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		LatencyHistogram copy = histogram.copy();
+		
+		histogram.record(1);
+		
+		assertThat(copy.getCount(), is(0L));
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import static uk.co.blackpepper.support.selenium.MutationConditions.invisibilityOfElementLocated;
+import static uk.co.blackpepper.support.selenium.MutationConditions.presenceOfElementLocated;
+import static uk.co.blackpepper.support.selenium.MutationConditions.textToBePresentInElementLocated;
+import static uk.co.blackpepper.support.selenium.MutationConditions.visibilityOfElementLocated;
+
+public class MutationConditionsTest {
+	
+	@Test
+	public void presenceOfElementLocatedReturnsElementFromScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element = mock(WebElement.class);
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(element);
+		
+		WebElement actual = presenceOfElementLocated(By.id("x")).apply((WebDriver) driver);
+		
+		assertThat(actual, is(sameInstance(element)));
+	}
+	
+	@Test
+	public void presenceOfElementLocatedPassesLocatorToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		
+		presenceOfElementLocated(By.cssSelector("div > p")).apply((WebDriver) driver);
+		
+		verify(driver).executeAsyncScript(anyString(), eq(asList("cssSelector", "div > p")), eq("presence"), any(),
+			eq(1000L), eq(100L));
+	}
+	
+	@Test
+	public void presenceOfElementLocatedWhenScriptTimesOutReturnsNull() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenThrow(new TimeoutException());
+		
+		assertThat(presenceOfElementLocated(By.id("x")).apply((WebDriver) driver), is(nullValue()));
+	}
+	
+	@Test
+	public void presenceOfElementLocatedWithoutJavascriptFindsElement() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(driver.findElement(By.id("x"))).thenReturn(element);
+		
+		assertThat(presenceOfElementLocated(By.id("x")).apply(driver), is(sameInstance(element)));
+	}
+	
+	@Test
+	public void presenceOfElementLocatedWithCustomLocatorFindsElement() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element = mock(WebElement.class);
+		By locator = new By() {
+			@Override
+			public List<WebElement> findElements(SearchContext context) {
+				return Collections.emptyList();
+			}
+		};
+		when(((WebDriver) driver).findElement(locator)).thenReturn(element);
+		
+		assertThat(presenceOfElementLocated(locator).apply((WebDriver) driver), is(sameInstance(element)));
+	}
+	
+	@Test
+	public void visibilityOfElementLocatedReturnsElementFromScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element = mock(WebElement.class);
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(element);
+		
+		WebElement actual = visibilityOfElementLocated(By.id("x")).apply((WebDriver) driver);
+		
+		assertThat(actual, is(sameInstance(element)));
+	}
+	
+	@Test
+	public void invisibilityOfElementLocatedWhenScriptReturnsTrueReturnsTrue() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(true);
+		
+		assertThat(invisibilityOfElementLocated(By.id("x")).apply((WebDriver) driver), is(true));
+	}
+	
+	@Test
+	public void invisibilityOfElementLocatedWhenScriptReturnsNullReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		
+		assertThat(invisibilityOfElementLocated(By.id("x")).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void textToBePresentInElementLocatedPassesTextToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(true);
+		
+		boolean actual = textToBePresentInElementLocated(By.id("x"), "y").apply((WebDriver) driver);
+		
+		assertThat(actual, is(true));
+		verify(driver).executeAsyncScript(anyString(), eq(asList("id", "x")), eq("text"), eq("y"), eq(1000L),
+			eq(100L));
+	}
+	
+	@Test
+	public void toStringDescribesCondition() {
+		assertThat(visibilityOfElementLocated(By.id("x")).toString(), is("visibility of element located by By.id: x"));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import static uk.co.blackpepper.support.selenium.NetworkActivity.getPendingRequests;
+import static uk.co.blackpepper.support.selenium.NetworkActivity.install;
+import static uk.co.blackpepper.support.selenium.NetworkActivity.networkIdle;
+
+public class NetworkActivityTest {
+	
+	@Test
+	public void installExecutesScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		
+		install((WebDriver) driver);
+		
+		verify(driver).executeScript(contains("XMLHttpRequest.prototype.send"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void installWithoutJavascriptThrowsException() {
+		install(mock(WebDriver.class));
+	}
+	
+	@Test
+	public void getPendingRequestsReturnsCount() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString())).thenReturn(2L);
+		
+		assertThat(getPendingRequests((WebDriver) driver), is(2));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void getPendingRequestsWhenNotInstalledThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString())).thenReturn(-1L);
+		
+		getPendingRequests((WebDriver) driver);
+	}
+	
+	@Test
+	public void networkIdlePassesDurationToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(true);
+		
+		boolean actual = networkIdle(1, TimeUnit.SECONDS).apply((WebDriver) driver);
+		
+		assertThat(actual, is(true));
+		verify(driver).executeAsyncScript(anyString(), eq(1000L), eq(1000L), eq(10L));
+	}
+	
+	@Test
+	public void networkIdleWhenBusyReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(false);
+		
+		assertThat(networkIdle(500, TimeUnit.MILLISECONDS).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void networkIdleWhenScriptTimesOutReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenThrow(new TimeoutException());
+		
+		assertThat(networkIdle(500, TimeUnit.MILLISECONDS).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void networkIdleWhenNotInstalledThrowsException() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		
+		networkIdle(500, TimeUnit.MILLISECONDS).apply((WebDriver) driver);
+	}
+	
+	@Test
+	public void networkIdleToStringDescribesCondition() {
+		assertThat(networkIdle(1, TimeUnit.SECONDS).toString(), is("network to be idle for 1000 ms"));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+}
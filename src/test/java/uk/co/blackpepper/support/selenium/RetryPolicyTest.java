@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+
+import com.google.common.base.Supplier;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryPolicyTest {
+	
+	@Test
+	public void executeWithSuccessfulActionReturnsResult() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenReturn("x");
+		
+		assertThat(RetryPolicy.attempts(3).execute(action), is("x"));
+		verify(action).get();
+	}
+	
+	@Test
+	public void executeWithEventuallySuccessfulActionRetries() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new WebDriverException()).thenReturn("x");
+		
+		assertThat(RetryPolicy.attempts(3).execute(action), is("x"));
+		verify(action, times(2)).get();
+	}
+	
+	@Test
+	public void executeWithFailingActionThrowsLastException() {
+		Supplier<String> action = newAction();
+		WebDriverException lastException = new WebDriverException();
+		when(action.get()).thenThrow(new WebDriverException(), lastException);
+		
+		try {
+			RetryPolicy.attempts(2).execute(action);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			assertThat(exception, is(sameInstance(lastException)));
+			verify(action, times(2)).get();
+		}
+	}
+	
+	@Test
+	public void executeWithNonRetryableExceptionThrowsImmediately() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new IllegalStateException());
+		
+		try {
+			RetryPolicy.attempts(3).retryingOn(WebDriverException.class).execute(action);
+			fail();
+		}
+		catch (IllegalStateException exception) {
+			verify(action).get();
+		}
+	}
+	
+	@Test
+	public void executeWithAbortingExceptionThrowsImmediately() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new NoSuchElementException(""));
+		
+		try {
+			RetryPolicy.attempts(3).retryingOn(WebDriverException.class).abortingOn(NoSuchElementException.class)
+				.execute(action);
+			fail();
+		}
+		catch (NoSuchElementException exception) {
+			verify(action).get();
+		}
+	}
+	
+	@Test
+	public void executeWithBackoffIncreasesDelay() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new WebDriverException());
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			RetryPolicy.attempts(4).withInitialDelay(100, TimeUnit.MILLISECONDS).withBackoff(2).withTime(time, time)
+				.execute(action);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(100L + 200L + 400L));
+		}
+	}
+	
+	@Test
+	public void executeWithMaxElapsedStopsBeforeExceedingIt() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new WebDriverException());
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			RetryPolicy.attempts(10).withInitialDelay(100, TimeUnit.MILLISECONDS).withBackoff(2)
+				.withMaxElapsed(500, TimeUnit.MILLISECONDS).withTime(time, time).execute(action);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			verify(action, times(3)).get();
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(300L));
+		}
+	}
+	
+	@Test
+	public void executeNotifiesListener() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new StaleElementReferenceException("")).thenReturn("x");
+		VirtualTime time = new VirtualTime();
+		RetryListener listener = mock(RetryListener.class);
+		
+		RetryPolicy.attempts(3).withInitialDelay(50, TimeUnit.MILLISECONDS).withTime(time, time).withListener(listener)
+			.execute(action);
+		
+		verify(listener).called(2, TimeUnit.MILLISECONDS.toNanos(50), true);
+	}
+	
+	@Test
+	public void executeWithFailingActionNotifiesListener() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new WebDriverException());
+		RetryListener listener = mock(RetryListener.class);
+		
+		try {
+			RetryPolicy.attempts(2).withTime(new VirtualTime(), new VirtualTime()).withListener(listener)
+				.execute(action);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			verify(listener).called(2, 0, false);
+		}
+	}
+	
+	@Test
+	public void executeWhenInterruptedThrowsException() {
+		Supplier<String> action = newAction();
+		when(action.get()).thenThrow(new WebDriverException());
+		Sleeper sleeper = new Sleeper() {
+			@Override
+			public void sleep(long nanos) throws InterruptedException {
+				throw new InterruptedException();
+			}
+		};
+		
+		try {
+			RetryPolicy.attempts(3).withInitialDelay(1, TimeUnit.SECONDS).withTime(Clock.SYSTEM, sleeper)
+				.execute(action);
+			fail();
+		}
+		catch (WebDriverException exception) {
+			verify(action).get();
+			assertThat(Thread.currentThread().isInterrupted(), is(true));
+		}
+		finally {
+			Thread.interrupted();
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void attemptsWithZeroThrowsException() {
+		RetryPolicy.attempts(0);
+	}
+	
+	@Test
+	public void withersReturnEqualPolicies() {
+		RetryPolicy policy = RetryPolicy.attempts(3).withInitialDelay(1, TimeUnit.SECONDS);
+		
+		assertThat(policy, is(RetryPolicy.attempts(3).withInitialDelay(1000, TimeUnit.MILLISECONDS)));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Supplier<String> newAction() {
+		return mock(Supplier.class);
+	}
+}
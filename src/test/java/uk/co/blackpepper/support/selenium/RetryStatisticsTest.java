@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RetryStatisticsTest {
+	
+	@Test
+	public void calledAccumulatesCalls() {
+		RetryStatistics statistics = new RetryStatistics();
+		
+		statistics.called(1, TimeUnit.MILLISECONDS.toNanos(10), true);
+		statistics.called(3, TimeUnit.MILLISECONDS.toNanos(500), false);
+		
+		assertThat(statistics.getCalls(), is(2L));
+		assertThat(statistics.getFailures(), is(1L));
+		assertThat(statistics.getRetriedCalls(), is(1L));
+		assertThat(statistics.getAttempts(), is(4L));
+		assertThat(statistics.getMaxAttempts(), is(3));
+		assertThat(statistics.getElapsed(TimeUnit.MILLISECONDS), is(510L));
+		assertThat(statistics.getMaxElapsed(TimeUnit.MILLISECONDS), is(500L));
+	}
+	
+	@Test
+	public void resetClearsStatistics() {
+		RetryStatistics statistics = new RetryStatistics();
+		statistics.called(2, 1, false);
+		
+		statistics.reset();
+		
+		assertThat(statistics.getCalls(), is(0L));
+		assertThat(statistics.getAttempts(), is(0L));
+		assertThat(statistics.getMaxElapsed(TimeUnit.NANOSECONDS), is(0L));
+	}
+}
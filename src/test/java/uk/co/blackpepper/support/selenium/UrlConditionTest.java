@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class UrlConditionTest {
+	
+	@Test
+	public void applyWhenSyncDoesNotExecuteScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		
+		UrlCondition.is("x", false).apply((WebDriver) driver);
+		
+		verify(driver, never()).executeAsyncScript(anyString(), anyVararg());
+		verify((WebDriver) driver).getCurrentUrl();
+	}
+	
+	@Test
+	public void applyWhenAsyncPassesUrlToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(true, "x"));
+		
+		UrlCondition.is("x", true).apply((WebDriver) driver);
+		
+		verify(driver).executeAsyncScript(anyString(), eq("equals"), eq("x"), eq(""), eq(1000L));
+	}
+	
+	@Test
+	public void applyWhenAsyncPassesPrefixToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(true, "xy"));
+		
+		UrlCondition.startsWith("x", true).apply((WebDriver) driver);
+		
+		verify(driver).executeAsyncScript(anyString(), eq("prefix"), eq("x"), eq(""), eq(1000L));
+	}
+	
+	@Test
+	public void applyWhenAsyncPassesAnchoredPatternToScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(true, "x"));
+		
+		UrlCondition.matches(Pattern.compile("x.*", Pattern.CASE_INSENSITIVE), true).apply((WebDriver) driver);
+		
+		verify(driver).executeAsyncScript(anyString(), eq("regex"), eq("^(?:x.*)$"), eq("i"), eq(1000L));
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptReturnsTrueReturnsTrue() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(true, "x"));
+		
+		assertThat(UrlCondition.is("x", true).apply((WebDriver) driver), is(true));
+		verify((WebDriver) driver, never()).getCurrentUrl();
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptReturnsFalseReturnsFalse() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(false, "y"));
+		
+		assertThat(UrlCondition.is("x", true).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void toStringWhenAsyncReturnsUrlFromScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenReturn(asList(false, "y"));
+		UrlCondition condition = UrlCondition.is("x", true);
+		condition.apply((WebDriver) driver);
+		
+		assertThat(condition.toString(), is("URL to be \"x\". Current URL: \"y\""));
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptTimesOutChecksCurrentUrl() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenThrow(new TimeoutException());
+		when(((WebDriver) driver).getCurrentUrl()).thenReturn("x");
+		
+		assertThat(UrlCondition.is("x", true).apply((WebDriver) driver), is(true));
+	}
+	
+	@Test
+	public void applyWhenAsyncScriptFailsChecksCurrentUrl() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeAsyncScript(anyString(), anyVararg())).thenThrow(new WebDriverException("unloaded"));
+		when(((WebDriver) driver).getCurrentUrl()).thenReturn("y");
+		
+		assertThat(UrlCondition.is("x", true).apply((WebDriver) driver), is(false));
+	}
+	
+	@Test
+	public void applyWhenAsyncWithoutJavascriptChecksCurrentUrl() {
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.getCurrentUrl()).thenReturn("x/y");
+		
+		assertThat(UrlCondition.startsWith("x/", true).apply(driver), is(true));
+	}
+	
+	@Test
+	public void applyWithNullCurrentUrlReturnsFalse() {
+		assertThat(UrlCondition.is("x", false).apply(mock(WebDriver.class)), is(false));
+	}
+	
+	@Test
+	public void toJavascriptSourceAnchorsPattern() {
+		assertThat(UrlCondition.toJavascriptSource(Pattern.compile("a|b")), is("^(?:a|b)$"));
+	}
+	
+	@Test
+	public void toJavascriptFlagsWithoutFlagsReturnsEmpty() {
+		assertThat(UrlCondition.toJavascriptFlags(Pattern.compile("a")), is(""));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import static uk.co.blackpepper.support.selenium.ValueSetters.chunked;
+import static uk.co.blackpepper.support.selenium.ValueSetters.keystrokes;
+import static uk.co.blackpepper.support.selenium.ValueSetters.script;
+
+public class ValueSettersTest {
+	
+	@Test
+	public void keystrokesClearsAndSetsValue() {
+		WebElement control = mock(WebElement.class);
+		
+		keystrokes().setValue(control, "x");
+		
+		InOrder order = inOrder(control);
+		order.verify(control).clear();
+		order.verify(control).sendKeys("x");
+	}
+	
+	@Test
+	public void scriptWithJavascriptExecutesScript() {
+		JavascriptExecutor driver = mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+		WebElement control = newElementWithDriver((WebDriver) driver);
+		
+		script().setValue(control, "x");
+		
+		verify(driver).executeScript(anyString(), eq(control), eq("x"));
+		verify(control, never()).sendKeys("x");
+	}
+	
+	@Test
+	public void scriptWithoutJavascriptClearsAndSetsValue() {
+		WebElement control = mock(WebElement.class);
+		
+		script().setValue(control, "x");
+		
+		InOrder order = inOrder(control);
+		order.verify(control).clear();
+		order.verify(control).sendKeys("x");
+	}
+	
+	@Test
+	public void chunkedClearsAndSetsValueInChunks() {
+		WebElement control = mock(WebElement.class);
+		
+		chunked(2).setValue(control, "abcde");
+		
+		InOrder order = inOrder(control);
+		order.verify(control).clear();
+		order.verify(control).sendKeys("ab");
+		order.verify(control).sendKeys("cd");
+		order.verify(control).sendKeys("e");
+	}
+	
+	@Test
+	public void chunkedDoesNotSplitSurrogatePair() {
+		WebElement control = mock(WebElement.class);
+		
+		chunked(2).setValue(control, "a\uD83D\uDE00b");
+		
+		InOrder order = inOrder(control);
+		order.verify(control).sendKeys("a");
+		order.verify(control).sendKeys("\uD83D\uDE00");
+		order.verify(control).sendKeys("b");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void chunkedWithZeroChunkSizeThrowsException() {
+		chunked(0);
+	}
+	
+	private static WebElement newElementWithDriver(WebDriver driver) {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+		when(((WrapsDriver) element).getWrappedDriver()).thenReturn(driver);
+		return element;
+	}
+}
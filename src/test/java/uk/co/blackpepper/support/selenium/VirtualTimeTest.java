@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VirtualTimeTest {
+	
+	@Test
+	public void nanoTimeInitiallyReturnsZero() {
+		assertThat(new VirtualTime().nanoTime(), is(0L));
+	}
+	
+	@Test
+	public void sleepAdvancesTime() {
+		VirtualTime time = new VirtualTime();
+		
+		time.sleep(5);
+		
+		assertThat(time.nanoTime(), is(5L));
+	}
+	
+	@Test
+	public void sleepIncrementsSleepCount() {
+		VirtualTime time = new VirtualTime();
+		
+		time.sleep(5);
+		time.sleep(5);
+		
+		assertThat(time.getSleepCount(), is(2L));
+	}
+	
+	@Test
+	public void advanceAdvancesTime() {
+		VirtualTime time = new VirtualTime();
+		
+		time.advance(1, TimeUnit.SECONDS);
+		
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(1000L));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void sleepWithNegativeDurationThrowsException() {
+		new VirtualTime().sleep(-1);
+	}
+}
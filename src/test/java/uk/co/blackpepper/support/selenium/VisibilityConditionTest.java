@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class VisibilityConditionTest {
+	
+	@Test
+	public void applyPassesAllLocatorsToOneScript() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(Collections.emptyList());
+		
+		new VisibilityCondition(true, By.id("x"), By.xpath("//p")).apply((WebDriver) driver);
+		
+		verify(driver).executeScript(anyString(), eq(asList(asList("id", "x"), asList("xpath", "//p"))));
+	}
+	
+	@Test
+	public void applyWhenAllWithAllVisibleReturnsIndices() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(0L, 1L));
+		
+		List<Integer> actual = new VisibilityCondition(true, By.id("x"), By.id("y")).apply((WebDriver) driver);
+		
+		assertThat(actual, is(asList(0, 1)));
+	}
+	
+	@Test
+	public void applyWhenAllWithSomeVisibleReturnsNull() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(1L));
+		
+		List<Integer> actual = new VisibilityCondition(true, By.id("x"), By.id("y")).apply((WebDriver) driver);
+		
+		assertThat(actual, is(nullValue()));
+	}
+	
+	@Test
+	public void applyWhenAnyWithSomeVisibleReturnsVisibleIndices() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(1L, 2L));
+		
+		List<Integer> actual = new VisibilityCondition(false, By.id("x"), By.id("y"), By.id("z"))
+			.apply((WebDriver) driver);
+		
+		assertThat(actual, is(asList(1, 2)));
+	}
+	
+	@Test
+	public void applyWhenAnyWithNoneVisibleReturnsNull() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(Collections.emptyList());
+		
+		List<Integer> actual = new VisibilityCondition(false, By.id("x"), By.id("y")).apply((WebDriver) driver);
+		
+		assertThat(actual, is(nullValue()));
+	}
+	
+	@Test
+	public void applyWithoutJavascriptChecksEachLocator() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = newDisplayedElement();
+		when(driver.findElements(By.id("y"))).thenReturn(asList(element));
+		
+		List<Integer> actual = new VisibilityCondition(false, By.id("x"), By.id("y")).apply(driver);
+		
+		assertThat(actual, is(asList(1)));
+	}
+	
+	@Test
+	public void applyWithoutJavascriptWithStaleElementIgnoresElement() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement staleElement = mock(WebElement.class);
+		when(staleElement.isDisplayed()).thenThrow(new StaleElementReferenceException("x"));
+		WebElement element = newDisplayedElement();
+		when(driver.findElements(By.id("x"))).thenReturn(asList(staleElement, element));
+		
+		List<Integer> actual = new VisibilityCondition(true, By.id("x")).apply(driver);
+		
+		assertThat(actual, is(asList(0)));
+	}
+	
+	@Test
+	public void applyWithCustomLocatorChecksEachLocator() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		By locator = newCustomLocator();
+		WebElement element = newDisplayedElement();
+		when(((WebDriver) driver).findElements(locator)).thenReturn(asList(element));
+		
+		List<Integer> actual = new VisibilityCondition(true, locator).apply((WebDriver) driver);
+		
+		assertThat(actual, is(asList(0)));
+		verify(driver, never()).executeScript(anyString(), anyVararg());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorWithNoLocatorsThrowsException() {
+		new VisibilityCondition(true);
+	}
+	
+	@Test
+	public void toStringReturnsMessage() {
+		VisibilityCondition condition = new VisibilityCondition(true, By.id("x"), By.id("y"));
+		
+		assertThat(condition.toString(), is("visibility of all of (By.id: x, By.id: y)"));
+	}
+	
+	@Test
+	public void toStringAfterApplyReturnsInvisibleLocators() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(asList(1L));
+		VisibilityCondition condition = new VisibilityCondition(false, By.id("x"), By.id("y"), By.id("z"));
+		condition.apply((WebDriver) driver);
+		
+		assertThat(condition.toString(), is("visibility of any of (By.id: x, By.id: y, By.id: z). "
+			+ "Not visible: By.id: x, By.id: z"));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebElement newDisplayedElement() {
+		WebElement element = mock(WebElement.class);
+		when(element.isDisplayed()).thenReturn(true);
+		return element;
+	}
+	
+	private static By newCustomLocator() {
+		return new By() {
+			@Override
+			public List<WebElement> findElements(SearchContext context) {
+				return Collections.emptyList();
+			}
+		};
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class WaitRecordTest {
+	
+	@Test
+	public void getElapsedReturnsElapsedInUnit() {
+		WaitRecord record = new WaitRecord("x", null, "y", TimeUnit.MILLISECONDS.toNanos(1500), 1, Outcome.SATISFIED);
+		
+		assertThat(record.getElapsed(TimeUnit.MILLISECONDS), is(1500L));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void newWaitRecordWithNegativeElapsedThrowsException() {
+		new WaitRecord("x", null, "y", -1, 1, Outcome.SATISFIED);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void newWaitRecordWithNegativePollsThrowsException() {
+		new WaitRecord("x", null, "y", 1, -1, Outcome.SATISFIED);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void newWaitRecordWithNullConditionThrowsException() {
+		new WaitRecord(null, null, "y", 1, 1, Outcome.SATISFIED);
+	}
+	
+	@Test
+	public void equalsWithEqualRecordReturnsTrue() {
+		WaitRecord record = new WaitRecord("x", "h", "y", 1, 2, Outcome.TIMED_OUT);
+		
+		assertThat(record.equals(new WaitRecord("x", "h", "y", 1, 2, Outcome.TIMED_OUT)), is(true));
+	}
+	
+	@Test
+	public void equalsWithDifferentOutcomeReturnsFalse() {
+		WaitRecord record = new WaitRecord("x", "h", "y", 1, 2, Outcome.TIMED_OUT);
+		
+		assertThat(record.equals(new WaitRecord("x", "h", "y", 1, 2, Outcome.FAILED)), is(false));
+	}
+	
+	@Test
+	public void hashCodeWithEqualRecordIsEqual() {
+		WaitRecord record = new WaitRecord("x", null, "y", 1, 2, Outcome.SATISFIED);
+		
+		assertThat(record.hashCode(), is(new WaitRecord("x", null, "y", 1, 2, Outcome.SATISFIED).hashCode()));
+	}
+	
+	@Test
+	public void toStringContainsCondition() {
+		WaitRecord record = new WaitRecord("x", null, "y", 1, 2, Outcome.SATISFIED);
+		
+		assertThat(record.toString(), containsString("condition=x"));
+		assertThat(record.toString(), not(containsString("condition=y")));
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class WaitTelemetryTest {
+	
+	@Test
+	public void recordKeepsRecordsOldestFirst() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WaitRecord record1 = newRecord("a", 2);
+		WaitRecord record2 = newRecord("b", 1);
+		
+		telemetry.record(record1);
+		telemetry.record(record2);
+		
+		assertThat(telemetry.getRecords(), contains(record1, record2));
+	}
+	
+	@Test
+	public void recordWhenFullDiscardsOldest() {
+		WaitTelemetry telemetry = new WaitTelemetry(2);
+		WaitRecord record2 = newRecord("b", 1);
+		WaitRecord record3 = newRecord("c", 1);
+		
+		telemetry.record(newRecord("a", 1));
+		telemetry.record(record2);
+		telemetry.record(record3);
+		
+		assertThat(telemetry.getRecords(), contains(record2, record3));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void newWaitTelemetryWithZeroCapacityThrowsException() {
+		new WaitTelemetry(0);
+	}
+	
+	@Test
+	public void getSlowestReturnsSlowestFirst() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WaitRecord fast = newRecord("a", 1);
+		WaitRecord slow = newRecord("b", 3);
+		WaitRecord medium = newRecord("c", 2);
+		telemetry.record(fast);
+		telemetry.record(slow);
+		telemetry.record(medium);
+		
+		assertThat(telemetry.getSlowest(2), contains(slow, medium));
+	}
+	
+	@Test
+	public void getSlowestWithCountGreaterThanSizeReturnsAll() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WaitRecord record = newRecord("a", 1);
+		telemetry.record(record);
+		
+		assertThat(telemetry.getSlowest(5), contains(record));
+	}
+	
+	@Test
+	public void getTotalElapsedReturnsSum() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(newRecord("a", 1));
+		telemetry.record(newRecord("b", 2));
+		
+		assertThat(telemetry.getTotalElapsed(TimeUnit.MILLISECONDS), is(3L));
+	}
+	
+	@Test
+	public void resetClearsRecords() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(newRecord("a", 1));
+		
+		telemetry.reset();
+		
+		assertThat(telemetry.getRecords(), is(empty()));
+	}
+	
+	@Test
+	public void reportListsSlowestWaitsWithSource() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(new WaitRecord("fast", null, "Fast.java:1", 1000000, 1, Outcome.SATISFIED));
+		telemetry.record(new WaitRecord("slow", "Select2.addValue", "Slow.java:2", 2500000, 7, Outcome.TIMED_OUT));
+		
+		String actual = telemetry.report(1);
+		
+		assertThat(actual, containsString("2.500      7 TIMED_OUT  slow"));
+		assertThat(actual, containsString("at Slow.java:2 (Select2.addValue)"));
+		assertThat(actual, not(containsString("fast")));
+		assertThat(actual, containsString("3.500"));
+		assertThat(actual, containsString("total of 2 waits"));
+	}
+	
+	@Test
+	public void toCsvExportsRecords() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(new WaitRecord("x", null, "A.java:1", 1500000, 2, Outcome.SATISFIED));
+		
+		assertThat(telemetry.toCsv(), is("condition,helper,callSite,elapsedMillis,polls,outcome\n"
+			+ "x,,A.java:1,1.500,2,SATISFIED\n"));
+	}
+	
+	@Test
+	public void toCsvEscapesValues() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(new WaitRecord("text \"a, b\"", "h", "A.java:1", 0, 1, Outcome.FAILED));
+		
+		assertThat(telemetry.toCsv(), containsString("\"text \"\"a, b\"\"\",h,"));
+	}
+	
+	@Test
+	public void toJsonExportsRecords() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(new WaitRecord("x", null, "A.java:1", 1500000, 2, Outcome.SATISFIED));
+		telemetry.record(new WaitRecord("y", "h", "B.java:2", 0, 1, Outcome.FAILED));
+		
+		assertThat(telemetry.toJson(), is("[\n"
+			+ "  {\"condition\": \"x\", \"helper\": null, \"callSite\": \"A.java:1\", \"elapsedMillis\": 1.500, "
+			+ "\"polls\": 2, \"outcome\": \"SATISFIED\"},\n"
+			+ "  {\"condition\": \"y\", \"helper\": \"h\", \"callSite\": \"B.java:2\", \"elapsedMillis\": 0.000, "
+			+ "\"polls\": 1, \"outcome\": \"FAILED\"}\n"
+			+ "]"));
+	}
+	
+	@Test
+	public void toJsonEscapesValues() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		telemetry.record(new WaitRecord("\"a\\b\"\n", null, "A.java:1", 0, 1, Outcome.SATISFIED));
+		
+		assertThat(telemetry.toJson(), containsString("\"condition\": \"\\\"a\\\\b\\\"\\n\""));
+	}
+	
+	@Test
+	public void toJsonWithNoRecordsReturnsEmptyArray() {
+		assertThat(new WaitTelemetry().toJson(), is("[]"));
+	}
+	
+	private static WaitRecord newRecord(String condition, long elapsedMillis) {
+		return new WaitRecord(condition, null, "X.java:1", TimeUnit.MILLISECONDS.toNanos(elapsedMillis), 1,
+			Outcome.SATISFIED);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Black Pepper Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.blackpepper.support.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class WaitTimerTest {
+	
+	@Test
+	public void finishRecordsWait() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		VirtualTime time = new VirtualTime();
+		WaitTimer timer = WaitTimer.start(telemetry, time, "x");
+		timer.poll();
+		timer.poll();
+		time.advance(5, TimeUnit.MILLISECONDS);
+		
+		timer.finish(Outcome.SATISFIED);
+		
+		WaitRecord record = telemetry.getRecords().get(0);
+		assertThat(record.getCondition(), is("x"));
+		assertThat(record.getHelper(), is(nullValue()));
+		assertThat(record.getCallSite(), containsString(WaitTimerTest.class.getName() + ".finishRecordsWait"));
+		assertThat(record.getElapsed(TimeUnit.MILLISECONDS), is(5L));
+		assertThat(record.getPolls(), is(2));
+		assertThat(record.getOutcome(), is(Outcome.SATISFIED));
+	}
+	
+	@Test
+	public void finishWhenFinishedDoesNotRecord() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WaitTimer timer = WaitTimer.start(telemetry, new VirtualTime(), "x");
+		timer.finish(Outcome.TIMED_OUT);
+		
+		timer.finish(Outcome.FAILED);
+		
+		assertThat(telemetry.getRecords(), hasSize(1));
+		assertThat(telemetry.getRecords().get(0).getOutcome(), is(Outcome.TIMED_OUT));
+	}
+	
+	@Test
+	public void finishInScopeRecordsHelper() {
+		WaitTelemetry telemetry = new WaitTelemetry();
+		WaitTimer timer;
+		CommandScope scope = CommandScope.enter("Select2.addValue");
+		try {
+			timer = WaitTimer.start(telemetry, new VirtualTime(), "x");
+		}
+		finally {
+			scope.close();
+		}
+		
+		timer.finish(Outcome.SATISFIED);
+		
+		assertThat(telemetry.getRecords().get(0).getHelper(), is("Select2.addValue"));
+	}
+	
+	@Test
+	public void finishWithNullTelemetryDoesNothing() {
+		WaitTimer timer = WaitTimer.start(null, new VirtualTime(), "x");
+		timer.poll();
+		
+		timer.finish(Outcome.SATISFIED);
+	}
+}
@@ -17,41 +17,68 @@ package uk.co.blackpepper.support.selenium;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.stubbing.OngoingStubbing;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoAlertPresentException;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.Options;
 import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.WebDriver.Timeouts;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.google.common.base.Optional;
+
+import uk.co.blackpepper.support.selenium.WaitRecord.Outcome;
+
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.acceptAlert;
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.dismissAlert;
+import static uk.co.blackpepper.support.selenium.WebDriverUtils.findOptionalElement;
+import static uk.co.blackpepper.support.selenium.WebDriverUtils.getImplicitWait;
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.getText;
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.quietFindElement;
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.safeFindElement;
+import static uk.co.blackpepper.support.selenium.WebDriverUtils.setImplicitWait;
+import static uk.co.blackpepper.support.selenium.WebDriverUtils.setWaitTelemetry;
 import static uk.co.blackpepper.support.selenium.WebDriverUtils.until;
 
 public class WebDriverUtilsTest {
@@ -106,6 +133,91 @@ public class WebDriverUtilsTest {
 		assertThat(actual, is(nullValue()));
 	}
 	
+	@Test
+	public void findOptionalElementWhenElementFoundReturnsElement() {
+		WebElement element = mock(WebElement.class);
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.id("x"))).thenReturn(singletonList(element));
+		
+		Optional<WebElement> actual = findOptionalElement(context, By.id("x"));
+		
+		assertThat(actual, is(Optional.of(element)));
+	}
+	
+	@Test
+	public void findOptionalElementWhenElementNotFoundReturnsAbsent() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.id("x"))).thenReturn(Collections.<WebElement>emptyList());
+		
+		Optional<WebElement> actual = findOptionalElement(context, By.id("x"));
+		
+		assertThat(actual, is(Optional.<WebElement>absent()));
+	}
+	
+	@Test
+	public void findOptionalElementDoesNotFindElement() {
+		SearchContext context = mock(SearchContext.class);
+		when(context.findElements(By.id("x"))).thenReturn(Collections.<WebElement>emptyList());
+		
+		findOptionalElement(context, By.id("x"));
+		
+		verify(context, never()).findElement(any(By.class));
+	}
+	
+	@Test
+	public void findOptionalElementWithImplicitWaitSuspendsImplicitWait() {
+		WebDriver driver = mock(WebDriver.class);
+		Timeouts timeouts = whenTimeouts(driver);
+		setImplicitWait(driver, 5, TimeUnit.SECONDS);
+		when(driver.findElements(By.id("x"))).thenReturn(Collections.<WebElement>emptyList());
+		
+		findOptionalElement(driver, By.id("x"));
+		
+		InOrder order = inOrder(timeouts, driver);
+		order.verify(timeouts).implicitlyWait(0, TimeUnit.NANOSECONDS);
+		order.verify(driver).findElements(By.id("x"));
+		order.verify(timeouts).implicitlyWait(TimeUnit.SECONDS.toNanos(5), TimeUnit.NANOSECONDS);
+	}
+	
+	@Test
+	public void findOptionalElementWithoutImplicitWaitDoesNotSetImplicitWait() {
+		WebDriver driver = mock(WebDriver.class);
+		Timeouts timeouts = whenTimeouts(driver);
+		when(driver.findElements(By.id("x"))).thenReturn(Collections.<WebElement>emptyList());
+		
+		findOptionalElement(driver, By.id("x"));
+		
+		verify(timeouts, never()).implicitlyWait(anyLong(), any(TimeUnit.class));
+	}
+	
+	@Test
+	public void setImplicitWaitSetsImplicitWait() {
+		WebDriver driver = mock(WebDriver.class);
+		Timeouts timeouts = whenTimeouts(driver);
+		
+		setImplicitWait(driver, 5, TimeUnit.SECONDS);
+		
+		verify(timeouts).implicitlyWait(5, TimeUnit.SECONDS);
+	}
+	
+	@Test
+	public void getImplicitWaitReturnsImplicitWait() {
+		WebDriver driver = mock(WebDriver.class);
+		whenTimeouts(driver);
+		setImplicitWait(driver, 5, TimeUnit.SECONDS);
+		
+		Optional<Long> actual = getImplicitWait(driver, TimeUnit.MILLISECONDS);
+		
+		assertThat(actual, is(Optional.of(5000L)));
+	}
+	
+	@Test
+	public void getImplicitWaitWhenNotSetReturnsAbsent() {
+		Optional<Long> actual = getImplicitWait(mock(WebDriver.class), TimeUnit.MILLISECONDS);
+		
+		assertThat(actual, is(Optional.<Long>absent()));
+	}
+	
 	@Test
 	public void untilWithConditionSatisfiedReturnsTrue() {
 		ExpectedCondition<Object> condition = mock(ExpectedCondition.class);
@@ -128,6 +240,65 @@ public class WebDriverUtilsTest {
 		assertThat(actual, is(false));
 	}
 	
+	@Test
+	public void untilWithWaitTelemetryAndConditionSatisfiedRecordsSatisfied() {
+		WebDriver driver = mock(WebDriver.class);
+		ExpectedCondition<Object> condition = mock(ExpectedCondition.class);
+		when(condition.apply(driver)).thenReturn(null, new Object());
+		when(condition.toString()).thenReturn("x");
+		WaitTelemetry telemetry = new WaitTelemetry();
+		setWaitTelemetry(telemetry);
+		
+		try {
+			until(new WebDriverWait(driver, 1, 1), condition);
+		}
+		finally {
+			setWaitTelemetry(null);
+		}
+		
+		WaitRecord record = telemetry.getRecords().get(0);
+		assertThat(record.getCondition(), is("x"));
+		assertThat(record.getCallSite(), containsString(WebDriverUtilsTest.class.getName() + "."));
+		assertThat(record.getPolls(), is(2));
+		assertThat(record.getOutcome(), is(Outcome.SATISFIED));
+	}
+	
+	@Test
+	public void untilWithWaitTelemetryAndConditionUnsatisfiedRecordsTimedOut() {
+		ExpectedCondition<Object> condition = mock(ExpectedCondition.class);
+		WebDriverWait wait = mock(WebDriverWait.class);
+		when(wait.until(any(ExpectedCondition.class))).thenThrow(new TimeoutException());
+		WaitTelemetry telemetry = new WaitTelemetry();
+		setWaitTelemetry(telemetry);
+		
+		try {
+			assertThat(until(wait, condition), is(false));
+		}
+		finally {
+			setWaitTelemetry(null);
+		}
+		
+		assertThat(telemetry.getRecords().get(0).getOutcome(), is(Outcome.TIMED_OUT));
+	}
+	
+	@Test
+	public void untilWithWaitTelemetryAndAdaptiveWaitRecordsOnce() {
+		WebDriver driver = mock(WebDriver.class);
+		ExpectedCondition<Object> condition = mock(ExpectedCondition.class);
+		when(condition.apply(driver)).thenReturn(new Object());
+		WaitTelemetry telemetry = new WaitTelemetry();
+		setWaitTelemetry(telemetry);
+		
+		try {
+			until(new AdaptiveWebDriverWait(driver, 1), condition);
+		}
+		finally {
+			setWaitTelemetry(null);
+		}
+		
+		assertThat(telemetry.getRecords(), hasSize(1));
+	}
+	
 	@Test
 	public void getTextWithNoElementsReturnsEmptyList() {
 		List<String> actual = getText(Collections.<WebElement>emptySet());
@@ -154,6 +325,77 @@ public class WebDriverUtilsTest {
 		assertThat(actual, contains("x", "y"));
 	}
 	
+	@Test
+	public void getTextWithJavascriptReadsEachElement() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element1 = newElementWithDriver(driver);
+		when(element1.getText()).thenReturn("x");
+		WebElement element2 = newElementWithDriver(driver);
+		when(element2.getText()).thenReturn("y");
+		
+		List<String> actual = getText(asList(element1, element2));
+		
+		assertThat(actual, contains("x", "y"));
+		verify(driver, never()).executeScript(anyString(), anyVararg());
+	}
+	
+	@Test
+	public void getTextWithBatchSizeAndNoJavascriptReadsEachElement() {
+		WebElement element1 = newElementWithText("x");
+		WebElement element2 = newElementWithText("y");
+		
+		List<String> actual = getText(asList(element1, element2), 2);
+		
+		assertThat(actual, contains("x", "y"));
+	}
+	
+	@Test
+	public void getTextWithBatchSizeAndJavascriptReturnsText() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element1 = newElementWithDriver(driver);
+		WebElement element2 = newElementWithDriver(driver);
+		when(driver.executeScript(anyString(), eq(asList(element1, element2)))).thenReturn(asList("x", "y"));
+		
+		List<String> actual = getText(asList(element1, element2), 2);
+		
+		assertThat(actual, contains("x", "y"));
+		verify(element1, never()).getText();
+	}
+	
+	@Test
+	public void getTextWithBatchSizeAndJavascriptReadsInBatches() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		WebElement element1 = newElementWithDriver(driver);
+		WebElement element2 = newElementWithDriver(driver);
+		WebElement element3 = newElementWithDriver(driver);
+		when(driver.executeScript(anyString(), eq(asList(element1, element2)))).thenReturn(asList("x", "y"));
+		when(driver.executeScript(anyString(), eq(asList(element3)))).thenReturn(asList("z"));
+		
+		List<String> actual = getText(asList(element1, element2, element3), 2);
+		
+		assertThat(actual, contains("x", "y", "z"));
+	}
+	
+	@Test
+	public void getTextWithBatchSizeAndJavascriptIssuesOneCommandPerBatch() {
+		JavascriptExecutor driver = newJavascriptDriver();
+		when(driver.executeScript(anyString(), anyVararg())).thenReturn(Collections.nCopies(500, "x"));
+		List<WebElement> elements = Collections.nCopies(1000, mock(WebElement.class));
+		when(((WebDriver) driver).findElements(By.id("x"))).thenReturn(elements);
+		CommandBudget budget = CommandBudget.of((WebDriver) driver);
+		List<WebElement> instrumentedElements = budget.getDriver().findElements(By.id("x"));
+		budget.reset();
+		
+		getText(instrumentedElements, 500);
+		
+		budget.assertAtMost(2);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void getTextWithZeroBatchSizeThrowsException() {
+		getText(Collections.<WebElement>emptySet(), 0);
+	}
+	
 	@Test
 	public void acceptAlertAcceptsAlert() {
 		WebDriver driver = mock(WebDriver.class);
@@ -180,7 +422,39 @@ public class WebDriverUtilsTest {
 		WebDriver driver = mock(WebDriver.class);
 		whenSwitchToAlert(driver).thenReturn(alert);
 
-		acceptAlert(driver);
+		acceptAlert(driver, newAlertRetryPolicy(new VirtualTime()));
+	}
+	
+	@Test
+	public void acceptAlertWhenWebDriverExceptionMakesFourAttempts() {
+		Alert alert = mock(Alert.class);
+		doThrow(new WebDriverException()).when(alert).accept();
+		WebDriver driver = mock(WebDriver.class);
+		whenSwitchToAlert(driver).thenReturn(alert);
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			acceptAlert(driver, newAlertRetryPolicy(time));
+			fail();
+		}
+		catch (IllegalStateException exception) {
+			verify(alert, times(4)).accept();
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(750L));
+		}
+	}
+	
+	@Test
+	public void acceptAlertWhenWebDriverExceptionRetries() {
+		Alert alert = mock(Alert.class);
+		doThrow(new WebDriverException()).doNothing().when(alert).accept();
+		WebDriver driver = mock(WebDriver.class);
+		whenSwitchToAlert(driver).thenReturn(alert);
+		VirtualTime time = new VirtualTime();
+		
+		acceptAlert(driver, newAlertRetryPolicy(time));
+		
+		verify(alert, times(2)).accept();
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(250L));
 	}
 	
 	@Test
@@ -209,7 +483,74 @@ public class WebDriverUtilsTest {
 		WebDriver driver = mock(WebDriver.class);
 		whenSwitchToAlert(driver).thenReturn(alert);
 
-		dismissAlert(driver);
+		dismissAlert(driver, newAlertRetryPolicy(new VirtualTime()));
+	}
+	
+	@Test
+	public void dismissAlertWhenWebDriverExceptionMakesFourAttempts() {
+		Alert alert = mock(Alert.class);
+		doThrow(new WebDriverException()).when(alert).dismiss();
+		WebDriver driver = mock(WebDriver.class);
+		whenSwitchToAlert(driver).thenReturn(alert);
+		VirtualTime time = new VirtualTime();
+		
+		try {
+			dismissAlert(driver, newAlertRetryPolicy(time));
+			fail();
+		}
+		catch (IllegalStateException exception) {
+			verify(alert, times(4)).dismiss();
+			assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(750L));
+		}
+	}
+	
+	@Test
+	public void dismissAlertWhenWebDriverExceptionRetries() {
+		Alert alert = mock(Alert.class);
+		doThrow(new WebDriverException()).doNothing().when(alert).dismiss();
+		WebDriver driver = mock(WebDriver.class);
+		whenSwitchToAlert(driver).thenReturn(alert);
+		VirtualTime time = new VirtualTime();
+		
+		dismissAlert(driver, newAlertRetryPolicy(time));
+		
+		verify(alert, times(2)).dismiss();
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(250L));
+	}
+	
+	@Test
+	public void pauseSleepsForDuration() {
+		VirtualTime time = new VirtualTime();
+		
+		WebDriverUtils.pause(100, time, time);
+		
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(100L));
+	}
+	
+	@Test
+	public void pauseWhenWokenEarlySleepsForRemainder() {
+		final VirtualTime time = new VirtualTime();
+		Sleeper sleeper = new Sleeper() {
+			@Override
+			public void sleep(long nanos) {
+				time.sleep(Math.min(nanos, TimeUnit.MILLISECONDS.toNanos(30)));
+			}
+		};
+		
+		WebDriverUtils.pause(100, time, sleeper);
+		
+		assertThat(time.getElapsed(TimeUnit.MILLISECONDS), is(100L));
+		assertThat(time.getSleepCount(), is(4L));
+	}
+	
+	private static JavascriptExecutor newJavascriptDriver() {
+		return mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+	}
+	
+	private static WebElement newElementWithDriver(JavascriptExecutor driver) {
+		WebElement element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+		when(((WrapsDriver) element).getWrappedDriver()).thenReturn((WebDriver) driver);
+		return element;
 	}
 	
 	private static WebElement newElementWithText(String text) {
@@ -218,6 +559,18 @@ public class WebDriverUtilsTest {
 		return element;
 	}
 
+	private static Timeouts whenTimeouts(WebDriver driver) {
+		Options options = mock(Options.class);
+		when(driver.manage()).thenReturn(options);
+		Timeouts timeouts = mock(Timeouts.class);
+		when(options.timeouts()).thenReturn(timeouts);
+		return timeouts;
+	}
+	
+	private static RetryPolicy newAlertRetryPolicy(VirtualTime time) {
+		return WebDriverUtils.DEFAULT_ALERT_RETRY_POLICY.withTime(time, time);
+	}
+	
 	private static OngoingStubbing<Alert> whenSwitchToAlert(WebDriver driver) {
 		TargetLocator targetLocator = mock(TargetLocator.class);
 		when(driver.switchTo()).thenReturn(targetLocator);
@@ -19,9 +19,12 @@ import java.util.List;
 
 import org.junit.Test;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import uk.co.blackpepper.support.selenium.CommandBudget;
+
 import static java.util.Arrays.asList;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -30,6 +33,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import static uk.co.blackpepper.support.selenium.bootstrap.Bootstrap.getDropdownMenuOptionLabels;
 
@@ -57,6 +61,19 @@ public class BootstrapTest {
 		assertThat(actual, contains("y"));
 	}
 
+	@Test
+	public void getDropdownMenuOptionLabelsWithJavascriptReturnsElementText() {
+		WebElement dropdownMenu = newDropdownMenuElement(newOption("y"), newOption("z"));
+		JavascriptExecutor driver = mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+		when(((WebDriver) driver).findElement(By.id("x"))).thenReturn(dropdownMenu);
+		CommandBudget budget = CommandBudget.of((WebDriver) driver);
+		
+		List<String> actual = getDropdownMenuOptionLabels(budget.getDriver(), "x");
+		
+		assertThat(actual, contains("y", "z"));
+		budget.assertAtMost(2 + 2);
+	}
+
 	private static WebElement newDropdownMenuElement(WebElement... options) {
 		WebElement dropdownMenu = mock(WebElement.class);
 		when(dropdownMenu.findElements(By.tagName("li"))).thenReturn(asList(options));
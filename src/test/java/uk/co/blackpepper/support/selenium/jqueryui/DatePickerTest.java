@@ -18,6 +18,7 @@ package uk.co.blackpepper.support.selenium.jqueryui;
 import java.util.Collections;
 import java.util.Date;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,6 +28,11 @@ import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import uk.co.blackpepper.support.selenium.AdaptiveWebDriverWait;
+import uk.co.blackpepper.support.selenium.Clock;
+import uk.co.blackpepper.support.selenium.Sleeper;
+import uk.co.blackpepper.support.selenium.VirtualTime;
+
 import static java.util.Arrays.asList;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -78,6 +84,24 @@ public class DatePickerTest {
 		assertThat(isVisible(driver), is(false));
 	}
 	
+	@Test
+	public void isVisibleWithUndisplayedElementWaitsUsingDefaultTime() {
+		WebElement element = newUndisplayedElement();
+		WebDriver driver = mock(WebDriver.class);
+		when(driver.findElements(any(By.class))).thenReturn(asList(element));
+		VirtualTime time = new VirtualTime();
+		AdaptiveWebDriverWait.setDefaultTime(time, time);
+		
+		try {
+			isVisible(driver);
+		}
+		finally {
+			AdaptiveWebDriverWait.setDefaultTime(Clock.SYSTEM, Sleeper.SYSTEM);
+		}
+		
+		assertThat(time.getElapsed(TimeUnit.SECONDS), is(1L));
+	}
+	
 	@Test
 	public void clickDayOfMonthWithValidDayClicksDay() {
 		WebDriver driver = mock(WebDriver.class);
@@ -21,12 +21,15 @@ import java.util.List;
 
 import org.junit.Test;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import uk.co.blackpepper.support.selenium.CommandBudget;
+
 import static java.util.Arrays.asList;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -38,6 +41,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class Select2Test {
 
@@ -146,6 +150,20 @@ public class Select2Test {
 		assertThat(actual, contains("x", "y"));
 	}
 
+	@Test
+	public void getItemNamesReadsTextOnce() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement element = newChoice("x");
+		when(driver.findElements(any(By.class))).thenReturn(asList(element));
+		expectResults(driver);
+		
+		List<String> actual = Select2.getItemNames(driver);
+		actual.get(0);
+		actual.get(0);
+		
+		verify(element).getText();
+	}
+
 	@Test(expected = TimeoutException.class)
 	public void getItemNamesWhenNoChoicesReturnsEmptyList() {
 		WebDriver driver = mock(WebDriver.class);
@@ -439,6 +457,33 @@ public class Select2Test {
 		assertThat(Select2.isTooFewCharactersMessageVisible(driver), is(false));
 	}
 	
+	@Test
+	public void getValuesWithJavascriptReturnsElementText() {
+		JavascriptExecutor driver = mock(JavascriptExecutor.class, withSettings().extraInterfaces(WebDriver.class));
+		WebElement choice1 = newChoice("x");
+		WebElement choice2 = newChoice("y");
+		when(((WebDriver) driver).findElements(any(By.class))).thenReturn(asList(choice1, choice2));
+		CommandBudget budget = CommandBudget.of((WebDriver) driver);
+		
+		List<String> actual = Select2.getValues(budget.getDriver(), "z");
+		
+		assertThat(actual, contains("x", "y"));
+		budget.assertAtMost(1 + 2);
+	}
+	
+	@Test
+	public void getValuesReadsTextOnce() {
+		WebDriver driver = mock(WebDriver.class);
+		WebElement choice = newChoice("x");
+		when(driver.findElements(any(By.class))).thenReturn(asList(choice));
+		
+		List<String> actual = Select2.getValues(driver, "z");
+		actual.get(0);
+		actual.get(0);
+		
+		verify(choice).getText();
+	}
+	
 	private static void expectResults(WebDriver driver) {
 		WebElement result = newDisplayedElement();
 		when(driver.findElement(By.className("select2-result-label"))).thenReturn(result);